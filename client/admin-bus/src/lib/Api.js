@@ -685,10 +685,20 @@ export const userAPI = {
         } = params;
 
         try {
+            // identity-service answers { users, nextCursor, estimatedTotal } and
+            // takes at most 100 per page
             const response = await apiClient.get('/users', {
                 params: { page, limit, email, sortBy }
             });
-            return response.data;
+            const { users = [], estimatedTotal = 0 } = response.data;
+            return {
+                success: true,
+                responseObject: {
+                    results: users,
+                    total: estimatedTotal,
+                    totalPages: Math.max(1, Math.ceil(estimatedTotal / limit))
+                }
+            };
         } catch (error) {
             throw new Error(error.response?.data?.message || 'Failed to fetch users');
         }
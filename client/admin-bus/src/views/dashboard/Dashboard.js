@@ -28,7 +28,7 @@ const Dashboard = () => {
       // Fetch data from multiple APIs
       const [carsRes, usersRes, ticketsRes, schedulesRes, routesRes] = await Promise.all([
         carsAPI.getCars({ limit: 1000 }).catch(() => ({ success: false })),
-        userAPI.getUsers({ limit: 1000 }).catch(() => ({ success: false })),
+        userAPI.getUsers({ limit: 1 }).catch(() => ({ success: false })),
         ticketAPI.getTickets({ limit: 1000 }).catch(() => ({ success: false })),
         vehicleSchedulesAPI.getSchedules({ limit: 1000 }).catch(() => ({ success: false })),
         routesAPI.getRoutes({ limit: 1000 }).catch(() => ({ success: false })),
@@ -44,8 +44,7 @@ const Dashboard = () => {
       // Count total users
       let totalUsers = 0
       if (usersRes.success && usersRes.responseObject) {
-        const users = usersRes.responseObject.results || usersRes.responseObject.data || usersRes.responseObject || []
-        totalUsers = Array.isArray(users) ? users.length : 0
+        totalUsers = usersRes.responseObject.total || 0
       }
 
       // Count total tickets and calculate revenue
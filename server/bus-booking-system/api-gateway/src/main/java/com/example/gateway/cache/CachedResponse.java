@@ -0,0 +1,45 @@
+package com.example.gateway.cache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * A stored 200 response: the headers worth replaying, the body and its strong ETag.
+ * Fresh until {@code freshUntil}; afterwards it may be served stale until
+ * {@code staleUntil} while one background request refreshes it.
+ */
+final class CachedResponse {
+
+    final String routeId;
+    final HttpHeaders headers;
+    final byte[] body;
+    final String etag;
+    final long storedAt;
+    final long freshUntil;
+    final long staleUntil;
+    final AtomicBoolean revalidating = new AtomicBoolean();
+
+    CachedResponse(String routeId, HttpHeaders headers, byte[] body, String etag,
+            long storedAt, long ttlMs, long staleWhileRevalidateMs) {
+        this.routeId = routeId;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        this.body = body;
+        this.etag = etag;
+        this.storedAt = storedAt;
+        this.freshUntil = storedAt + ttlMs;
+        this.staleUntil = freshUntil + staleWhileRevalidateMs;
+    }
+
+    boolean isFresh(long now) {
+        return now < freshUntil;
+    }
+
+    boolean isUsable(long now) {
+        return now < staleUntil;
+    }
+
+    long ageSeconds(long now) {
+        return Math.max(0, (now - storedAt) / 1000);
+    }
+}
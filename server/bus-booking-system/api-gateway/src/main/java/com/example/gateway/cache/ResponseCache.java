@@ -0,0 +1,193 @@
+package com.example.gateway.cache;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded in-memory store behind {@link ResponseCacheFilter}, limited both by
+ * entry count ({@code gateway.response-cache.max-entries}) and by total body
+ * size ({@code gateway.response-cache.max-bytes}). When full, entries past their
+ * stale window go first, then an arbitrary tenth of the rest. Until then expired
+ * entries stay around as fallbacks for unavailable services.
+ *
+ * <p>Each route has a generation that a mutation bumps. A response is only stored
+ * if its route's generation is unchanged since the request started, so a GET racing
+ * a POST/PUT/DELETE cannot put pre-mutation data back into the cache.
+ */
+@Component
+public class ResponseCache {
+
+    private static final Base64.Encoder ETAG_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final Map<String, CachedResponse> entries = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final int maxEntries;
+    private final long maxBytes;
+    private final int maxEntryBytes;
+
+    final LongAdder hits = new LongAdder();
+    final LongAdder staleHits = new LongAdder();
+    final LongAdder misses = new LongAdder();
+    final LongAdder notModified = new LongAdder();
+    final LongAdder fallbacks = new LongAdder();
+    final LongAdder invalidations = new LongAdder();
+    final LongAdder revalidations = new LongAdder();
+    final LongAdder revalidationFailures = new LongAdder();
+
+    public ResponseCache(
+            @Value("${gateway.response-cache.max-entries:10000}") int maxEntries,
+            @Value("${gateway.response-cache.max-bytes:67108864}") long maxBytes,
+            @Value("${gateway.response-cache.max-entry-bytes:1048576}") int maxEntryBytes,
+            MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxEntryBytes;
+        FunctionCounter.builder("gateway.response-cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("gateway.response-cache.stale-hits", staleHits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("gateway.response-cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("gateway.response-cache.not-modified", notModified, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("gateway.response-cache.fallbacks", fallbacks, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("gateway.response-cache.invalidations", invalidations, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("gateway.response-cache.revalidations", revalidations, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("gateway.response-cache.revalidation-failures", revalidationFailures, LongAdder::sum)
+                .register(meterRegistry);
+        Gauge.builder("gateway.response-cache.entries", entries, Map::size).register(meterRegistry);
+        Gauge.builder("gateway.response-cache.bytes", totalBytes, AtomicLong::get).register(meterRegistry);
+    }
+
+    int getMaxEntryBytes() {
+        return maxEntryBytes;
+    }
+
+    /**
+     * The entry for the key if it can still be served (fresh or within its stale window).
+     */
+    CachedResponse lookup(String key, long now) {
+        CachedResponse cached = entries.get(key);
+        return cached != null && cached.isUsable(now) ? cached : null;
+    }
+
+    /**
+     * The last stored response for the key however old, served when the route's
+     * service is unavailable. Expired entries are kept for this until they are
+     * evicted or invalidated.
+     */
+    CachedResponse fallback(String key) {
+        return entries.get(key);
+    }
+
+    long generation(String routeId) {
+        return generations.computeIfAbsent(routeId, id -> new AtomicLong()).get();
+    }
+
+    /**
+     * Stores the response unless its route was mutated after {@code generation} was read.
+     */
+    void store(String key, CachedResponse response, long generation) {
+        if (response.body.length > maxEntryBytes || generation(response.routeId) != generation) {
+            return;
+        }
+        if (entries.size() >= maxEntries || totalBytes.get() + response.body.length > maxBytes) {
+            makeRoom(response.storedAt, response.body.length);
+        }
+        CachedResponse previous = entries.put(key, response);
+        totalBytes.addAndGet(response.body.length - (previous != null ? previous.body.length : 0));
+        // Re-check: an invalidation may have run between the generation check and the put
+        if (generation(response.routeId) != generation) {
+            remove(key, response);
+        }
+    }
+
+    /**
+     * Drops every stored response of the route, after a mutation went through it.
+     */
+    void invalidateRoute(String routeId) {
+        generations.computeIfAbsent(routeId, id -> new AtomicLong()).incrementAndGet();
+        invalidations.increment();
+        entries.forEach((key, cached) -> {
+            if (cached.routeId.equals(routeId)) {
+                remove(key, cached);
+            }
+        });
+    }
+
+    static String etagOf(byte[] body) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body);
+            return "\"" + ETAG_ENCODER.encodeToString(hash) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * If-None-Match comparison (weak, as RFC 9110 requires for this header).
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String keyOf(String path, String rawQuery, String accept) {
+        StringBuilder key = new StringBuilder(path);
+        if (rawQuery != null) {
+            key.append('?').append(rawQuery);
+        }
+        if (accept != null) {
+            key.append('|').append(accept);
+        }
+        return key.toString();
+    }
+
+    private void remove(String key, CachedResponse cached) {
+        if (entries.remove(key, cached)) {
+            totalBytes.addAndGet(-cached.body.length);
+        }
+    }
+
+    private void makeRoom(long now, int incomingBytes) {
+        entries.forEach((key, cached) -> {
+            if (!cached.isUsable(now)) {
+                remove(key, cached);
+            }
+        });
+        while (!entries.isEmpty()
+                && (entries.size() >= maxEntries || totalBytes.get() + incomingBytes > maxBytes)) {
+            int toRemove = Math.max(1, entries.size() / 10);
+            Iterator<Map.Entry<String, CachedResponse>> it = entries.entrySet().iterator();
+            while (toRemove-- > 0 && it.hasNext()) {
+                Map.Entry<String, CachedResponse> entry = it.next();
+                remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
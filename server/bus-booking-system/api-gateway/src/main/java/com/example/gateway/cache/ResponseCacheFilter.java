@@ -0,0 +1,368 @@
+package com.example.gateway.cache;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.example.gateway.lb.ServiceInstance;
+import com.example.gateway.lb.ServiceRegistry;
+import com.example.gateway.proxy.DownstreamClients;
+import com.example.gateway.routing.CacheSettings;
+import com.example.gateway.routing.RouteSpec;
+import com.example.gateway.routing.RouteTable;
+import com.example.gateway.routing.RouteTableRegistry;
+import com.example.gateway.security.JwtAuthenticationFilter;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caches GET responses of routes that enable {@code cache} in routes.yml
+ * (slowly changing catalogs such as routes and companies).
+ *
+ * <ul>
+ *   <li>Only 200 responses without Set-Cookie, Content-Encoding or
+ *       {@code Cache-Control: private/no-store} are stored, keyed by path, query and Accept.
+ *       Bodies are buffered only up to max-entry-bytes; a larger one is streamed through.</li>
+ *   <li>Every response passing through here carries a strong ETag (SHA-256 of the
+ *       body) and a matching {@code If-None-Match} is answered with 304.</li>
+ *   <li>Within {@code stale-while-revalidate-ms} after the TTL the stale copy is
+ *       served and a single background request refreshes it.</li>
+ *   <li>A POST/PUT/PATCH/DELETE through the route drops all of its entries.</li>
+ *   <li>{@code bypass-paths}, requests with {@code Cache-Control: no-cache/no-store} and,
+ *       unless the route sets {@code cache-authenticated}, requests carrying a token or
+ *       a verified user go straight to the service, so a per-user response is never
+ *       stored or handed to another caller.</li>
+ *   <li>When the service is unavailable (circuit open or deadline exceeded) the last
+ *       stored copy is served, however old, marked {@code X-Cache: FALLBACK}.</li>
+ * </ul>
+ *
+ * Runs after {@link com.example.gateway.security.JwtAuthenticationFilter}, so
+ * invalid tokens are still rejected. Invalidation is local to this gateway instance.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheFilter.class);
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+    private static final Duration REVALIDATION_TIMEOUT = Duration.ofSeconds(10);
+    private static final Set<HttpMethod> MUTATIONS =
+            Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+    /** Not replayed from the cache: hop-by-hop, per-response or added by the gateway itself. */
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+            "content-length", "transfer-encoding", "connection", "keep-alive", "date", "vary",
+            "etag", "age", "x-correlation-id", CACHE_STATUS_HEADER.toLowerCase());
+
+    private final ResponseCache cache;
+    private final RouteTableRegistry routeTableRegistry;
+    private final DownstreamClients downstreamClients;
+    private final ServiceRegistry serviceRegistry;
+
+    public ResponseCacheFilter(ResponseCache cache, RouteTableRegistry routeTableRegistry,
+            DownstreamClients downstreamClients, ServiceRegistry serviceRegistry) {
+        this.cache = cache;
+        this.routeTableRegistry = routeTableRegistry;
+        this.downstreamClients = downstreamClients;
+        this.serviceRegistry = serviceRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RouteTable table = routeTableRegistry.current();
+        RouteSpec route = table.match(exchange);
+        if (route == null || !route.getCache().isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        ServerHttpRequest request = exchange.getRequest();
+        HttpMethod method = request.getMethod();
+        if (MUTATIONS.contains(method)) {
+            return chain.filter(exchange)
+                    .doFinally(signal -> cache.invalidateRoute(route.getId()));
+        }
+        if (method != HttpMethod.GET
+                || table.isCacheBypassed(request.getPath().value())
+                || requestsNoCache(request.getHeaders())
+                || (!route.getCache().isCacheAuthenticated() && isAuthenticated(exchange))) {
+            return chain.filter(exchange);
+        }
+
+        String key = ResponseCache.keyOf(request.getPath().value(), request.getURI().getRawQuery(),
+                request.getHeaders().getFirst(HttpHeaders.ACCEPT));
+        long now = System.currentTimeMillis();
+        CachedResponse cached = cache.lookup(key, now);
+        if (cached != null) {
+            if (cached.isFresh(now)) {
+                cache.hits.increment();
+                return serve(exchange, cached, now, "HIT");
+            }
+            cache.staleHits.increment();
+            revalidate(route, request, key, cached);
+            return serve(exchange, cached, now, "STALE");
+        }
+
+        cache.misses.increment();
+        long generation = cache.generation(route.getId());
+        // Always fetch a full, uncompressed body so it can be stored and hashed
+        ServerHttpRequest forwarded = request.mutate()
+                .headers(headers -> {
+                    headers.remove(HttpHeaders.IF_NONE_MATCH);
+                    headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                    headers.remove(HttpHeaders.ACCEPT_ENCODING);
+                })
+                .build();
+        ServerHttpResponse response = new CachingResponse(exchange.getResponse(), route, key, generation,
+                request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH));
+        return chain.filter(exchange.mutate().request(forwarded).response(response).build())
+                .onErrorResume(ResponseStatusException.class, e -> fallback(exchange, key, e));
+    }
+
+    @Override
+    public int getOrder() {
+        // After JwtAuthenticationFilter (-100)
+        return -90;
+    }
+
+    private Mono<Void> serve(ServerWebExchange exchange, CachedResponse cached, long now, String cacheStatus) {
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        cached.headers.forEach(headers::put);
+        headers.setETag(cached.etag);
+        headers.set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds(now)));
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+
+        if (ResponseCache.matches(exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH), cached.etag)) {
+            cache.notModified.increment();
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            headers.remove(HttpHeaders.CONTENT_TYPE);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        headers.setContentLength(cached.body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body)));
+    }
+
+    /**
+     * Answers a request the service could not (circuit open: 503, deadline: 504)
+     * with the last stored copy, however old, if there is one.
+     */
+    private Mono<Void> fallback(ServerWebExchange exchange, String key, ResponseStatusException error) {
+        int status = error.getStatusCode().value();
+        CachedResponse cached = cache.fallback(key);
+        if (cached == null || exchange.getResponse().isCommitted()
+                || (status != HttpStatus.SERVICE_UNAVAILABLE.value() && status != HttpStatus.GATEWAY_TIMEOUT.value())) {
+            return Mono.error(error);
+        }
+        cache.fallbacks.increment();
+        exchange.getResponse().getHeaders().remove(HttpHeaders.RETRY_AFTER);
+        return serve(exchange, cached, System.currentTimeMillis(), "FALLBACK");
+    }
+
+    /**
+     * Refreshes a stale entry with one background request per entry, using the
+     * route's own connection pool. On failure the stale copy keeps being served
+     * (until its stale window ends) and the next stale hit tries again.
+     */
+    private void revalidate(RouteSpec route, ServerHttpRequest request, String key, CachedResponse stale) {
+        if (!stale.revalidating.compareAndSet(false, true)) {
+            return;
+        }
+        cache.revalidations.increment();
+        long generation = cache.generation(route.getId());
+        URI target = downstreamUri(route, request);
+        if (target == null) {
+            // Every instance of the route's service is draining
+            cache.revalidationFailures.increment();
+            stale.revalidating.set(false);
+            return;
+        }
+        String accept = request.getHeaders().getFirst(HttpHeaders.ACCEPT);
+
+        downstreamClients.clientFor(route)
+                .headers(headers -> {
+                    if (accept != null) {
+                        headers.set(HttpHeaders.ACCEPT, accept);
+                    }
+                })
+                .get()
+                .uri(target)
+                .responseSingle((res, body) -> body.asByteArray()
+                        .defaultIfEmpty(new byte[0])
+                        .doOnNext(bytes -> {
+                            HttpHeaders headers = new HttpHeaders();
+                            res.responseHeaders().forEach(e -> headers.add(e.getKey(), e.getValue()));
+                            if (res.status().code() == HttpStatus.OK.value() && isStorable(headers)) {
+                                cache.store(key, toCached(route, headers, bytes), generation);
+                            } else {
+                                cache.revalidationFailures.increment();
+                            }
+                        }))
+                .timeout(REVALIDATION_TIMEOUT)
+                .doFinally(signal -> stale.revalidating.set(false))
+                .subscribe(bytes -> { }, e -> {
+                    cache.revalidationFailures.increment();
+                    log.debug("Background revalidation of {} failed: {}", target, e.getMessage());
+                });
+    }
+
+    private CachedResponse toCached(RouteSpec route, HttpHeaders responseHeaders, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        responseHeaders.forEach((name, values) -> {
+            String lower = name.toLowerCase();
+            if (!UNCACHED_HEADERS.contains(lower) && !lower.startsWith("access-control-")) {
+                headers.put(name, List.copyOf(values));
+            }
+        });
+        CacheSettings settings = route.getCache();
+        return new CachedResponse(route.getId(), headers, body, ResponseCache.etagOf(body),
+                System.currentTimeMillis(), settings.getTtlMs(), settings.getStaleWhileRevalidateMs());
+    }
+
+    private static boolean isStorable(HttpHeaders headers) {
+        if (headers.containsKey(HttpHeaders.SET_COOKIE) || headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private"))) {
+            return false;
+        }
+        String contentType = headers.getFirst(HttpHeaders.CONTENT_TYPE);
+        return contentType == null
+                || !(contentType.startsWith("text/event-stream") || contentType.startsWith("application/x-ndjson"));
+    }
+
+    /**
+     * True if the service may answer per caller: a user was verified, or the
+     * request carries credentials the service could act on.
+     */
+    private static boolean isAuthenticated(ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        return exchange.getAttribute(JwtAuthenticationFilter.IDENTITY_ATTR) != null
+                || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+                || request.getCookies().containsKey("ACCESS_TOKEN");
+    }
+
+    private static boolean requestsNoCache(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    /**
+     * The URI the route would proxy the request to (route uri plus the path after StripPrefix).
+     */
+    private URI downstreamUri(RouteSpec route, ServerHttpRequest request) {
+        String[] segments = request.getPath().value().split("/");
+        StringBuilder path = new StringBuilder();
+        // segments[0] is the empty string before the leading slash
+        for (int i = 1 + route.getStripPrefix(); i < segments.length; i++) {
+            path.append('/').append(segments[i]);
+        }
+        URI uri = UriComponentsBuilder.fromUriString(route.getUri())
+                .path(path.length() > 0 ? path.toString() : "/")
+                .query(request.getURI().getRawQuery())
+                .build(true)
+                .toUri();
+        if (!RouteTable.LOAD_BALANCED_SCHEME.equals(uri.getScheme())) {
+            return uri;
+        }
+        ServiceInstance instance = serviceRegistry.choose(uri.getHost(), null);
+        return instance != null ? ServiceRegistry.reconstruct(uri, instance) : null;
+    }
+
+    /**
+     * Buffers a cacheable 200 body so it can be hashed for the ETag, stored and,
+     * if the client's If-None-Match already matches, replaced by a 304. Bodies
+     * over max-entry-bytes are not stored: a larger Content-Length is streamed
+     * straight through, and otherwise buffering stops as soon as the running
+     * size passes the limit and the rest is streamed behind what was held.
+     */
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final RouteSpec route;
+        private final String key;
+        private final long generation;
+        private final String ifNoneMatch;
+
+        CachingResponse(ServerHttpResponse delegate, RouteSpec route, String key, long generation,
+                String ifNoneMatch) {
+            super(delegate);
+            this.route = route;
+            this.key = key;
+            this.generation = generation;
+            this.ifNoneMatch = ifNoneMatch;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            HttpStatusCode status = getStatusCode();
+            if (status == null || status.value() != HttpStatus.OK.value() || !isStorable(getHeaders())
+                    || getHeaders().getContentLength() > cache.getMaxEntryBytes()) {
+                return super.writeWith(body);
+            }
+            int maxBytes = cache.getMaxEntryBytes();
+            AtomicLong size = new AtomicLong();
+            // One list holding the whole body if it completes within maxBytes; otherwise
+            // the prefix that crossed the limit, then every later buffer on its own
+            Flux<List<DataBuffer>> chunks = Flux.<DataBuffer>from(body)
+                    .bufferUntil(buffer -> size.addAndGet(buffer.readableByteCount()) > maxBytes)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+            return chunks.switchOnFirst((first, rest) -> {
+                if (first.isOnComplete() || (first.hasValue() && size.get() <= maxBytes)) {
+                    List<DataBuffer> buffers = first.hasValue() ? first.get() : List.of();
+                    return rest.then(Mono.defer(() -> storeAndWrite(buffers, (int) size.get())));
+                }
+                return super.writeWith(rest.flatMapIterable(buffers -> buffers));
+            }).then();
+        }
+
+        private Mono<Void> storeAndWrite(List<DataBuffer> buffers, int size) {
+            byte[] bytes = new byte[size];
+            int offset = 0;
+            for (DataBuffer buffer : buffers) {
+                int length = buffer.readableByteCount();
+                buffer.read(bytes, offset, length);
+                offset += length;
+                DataBufferUtils.release(buffer);
+            }
+
+            CachedResponse cached = toCached(route, getHeaders(), bytes);
+            cache.store(key, cached, generation);
+
+            HttpHeaders headers = getHeaders();
+            headers.setETag(cached.etag);
+            headers.set(CACHE_STATUS_HEADER, "MISS");
+            headers.remove(HttpHeaders.TRANSFER_ENCODING);
+            if (ResponseCache.matches(ifNoneMatch, cached.etag)) {
+                cache.notModified.increment();
+                setStatusCode(HttpStatus.NOT_MODIFIED);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                headers.remove(HttpHeaders.CONTENT_TYPE);
+                return super.setComplete();
+            }
+            headers.setContentLength(bytes.length);
+            return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.gateway.coalesce;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.gateway.routing.CoalesceSettings;
+import com.example.gateway.routing.RouteSpec;
+import com.example.gateway.routing.RouteTableRegistry;
+import com.example.gateway.security.JwtAuthenticationFilter;
+import com.example.gateway.security.TrustedIdentity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Coalesces concurrent identical GETs on routes with {@code coalesce.enabled}:
+ * the first request (the leader) goes to the service, identical requests
+ * arriving while it is in flight wait for its response and get a copy of it.
+ *
+ * <ul>
+ *   <li>Requests are identical when path, query, the Accept* headers and the
+ *       authenticated user match, so per-user responses are never shared.</li>
+ *   <li>The leader's body is streamed to its client as usual and copied for the
+ *       waiters; responses with Set-Cookie, streaming responses and bodies over
+ *       {@code max-body-bytes} are not shared.</li>
+ *   <li>Beyond {@code max-waiters}, after {@code timeout-ms}, or when the leader's
+ *       response cannot be shared or its client went away, a waiting request is
+ *       sent to the service itself. A failed call fails all of its waiters.</li>
+ *   <li>Requests with {@code Cache-Control: no-cache/no-store} are not coalesced.</li>
+ * </ul>
+ *
+ * Counter {@code gateway.coalescing.requests} (tags: route, outcome = leader,
+ * coalesced, overflow, timeout, unshared); the coalescing ratio of a route is
+ * coalesced / (leader + coalesced).
+ */
+@Component
+public class RequestCoalescingFilter implements GlobalFilter, Ordered {
+
+    private static final List<String> KEY_HEADERS = List.of(
+            HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING, HttpHeaders.ACCEPT_LANGUAGE);
+    /** Not copied to waiters: hop-by-hop, per-response or set again when written. */
+    private static final Set<String> UNSHARED_HEADERS = Set.of(
+            "content-length", "transfer-encoding", "connection", "keep-alive", "date", "x-correlation-id");
+
+    private final RouteTableRegistry routeTableRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, RouteCounters> counters = new ConcurrentHashMap<>();
+
+    public RequestCoalescingFilter(RouteTableRegistry routeTableRegistry, MeterRegistry meterRegistry) {
+        this.routeTableRegistry = routeTableRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RouteSpec route = routeTableRegistry.current().match(exchange);
+        ServerHttpRequest request = exchange.getRequest();
+        if (route == null || !route.getCoalesce().isEnabled()
+                || request.getMethod() != HttpMethod.GET || requestsNoCache(request.getHeaders())) {
+            return chain.filter(exchange);
+        }
+        CoalesceSettings settings = route.getCoalesce();
+        RouteCounters routeCounters = counters.computeIfAbsent(route.getId(), this::countersFor);
+        String key = keyOf(route, exchange);
+
+        Flight flight = new Flight();
+        Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            routeCounters.leaders.increment();
+            ServerHttpResponse response = new SharingResponse(exchange.getResponse(), flight, settings.getMaxBodyBytes());
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doOnError(flight::fail)
+                    .doFinally(signal -> {
+                        inFlight.remove(key, flight);
+                        // No-op if the response was shared or the call failed
+                        flight.result.tryEmitEmpty();
+                    });
+        }
+
+        if (existing.waiters.incrementAndGet() > settings.getMaxWaiters()) {
+            existing.waiters.decrementAndGet();
+            routeCounters.overflows.increment();
+            return chain.filter(exchange);
+        }
+        return existing.result.asMono()
+                .timeout(Duration.ofMillis(settings.getTimeoutMs()))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .onErrorResume(TimeoutException.class, e -> {
+                    routeCounters.timeouts.increment();
+                    return Mono.just(Optional.empty());
+                })
+                .doFinally(signal -> existing.waiters.decrementAndGet())
+                .flatMap(shared -> {
+                    if (shared.isEmpty()) {
+                        routeCounters.unshared.increment();
+                        return chain.filter(exchange);
+                    }
+                    routeCounters.coalesced.increment();
+                    return write(exchange.getResponse(), shared.get());
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        // After the response cache (-90), before the deadline and circuit breaker (-80),
+        // so only the leader counts as a call to the service
+        return -85;
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        HttpHeaders headers = response.getHeaders();
+        shared.headers().forEach(headers::put);
+        if (shared.body().length == 0) {
+            return response.setComplete();
+        }
+        headers.setContentLength(shared.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private static String keyOf(RouteSpec route, ServerWebExchange exchange) {
+        ServerHttpRequest request = exchange.getRequest();
+        StringBuilder key = new StringBuilder(route.getId()).append(' ').append(request.getPath().value());
+        String query = request.getURI().getRawQuery();
+        if (query != null) {
+            key.append('?').append(query);
+        }
+        for (String header : KEY_HEADERS) {
+            key.append('\n').append(String.join(",", request.getHeaders().getOrEmpty(header)));
+        }
+        TrustedIdentity identity = exchange.getAttribute(JwtAuthenticationFilter.IDENTITY_ATTR);
+        if (identity != null) {
+            key.append('\n').append(identity.getUserId() != null ? identity.getUserId() : identity.getEmail());
+        }
+        return key.toString();
+    }
+
+    private static boolean requestsNoCache(HttpHeaders headers) {
+        String cacheControl = headers.getCacheControl();
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private RouteCounters countersFor(String routeId) {
+        return new RouteCounters(
+                counter(routeId, "leader"), counter(routeId, "coalesced"), counter(routeId, "overflow"),
+                counter(routeId, "timeout"), counter(routeId, "unshared"));
+    }
+
+    private Counter counter(String routeId, String outcome) {
+        return meterRegistry.counter("gateway.coalescing.requests", "route", routeId, "outcome", outcome);
+    }
+
+    private record RouteCounters(Counter leaders, Counter coalesced, Counter overflows, Counter timeouts,
+            Counter unshared) {
+    }
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    /** One call to the service and the requests waiting for its response. */
+    private static final class Flight {
+        final Sinks.One<SharedResponse> result = Sinks.one();
+        final AtomicInteger waiters = new AtomicInteger();
+
+        void fail(Throwable error) {
+            result.tryEmitError(error);
+        }
+    }
+
+    /**
+     * Passes the leader's response through unchanged while keeping a copy of the
+     * body, published to the waiters once the body is complete.
+     */
+    private static final class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final Flight flight;
+        private final int maxBodyBytes;
+        /** Set by earlier gateway filters for the leader alone (CORS, rate limit); waiters have their own. */
+        private final Set<String> ownHeaders;
+
+        SharingResponse(ServerHttpResponse delegate, Flight flight, int maxBodyBytes) {
+            super(delegate);
+            this.flight = flight;
+            this.maxBodyBytes = maxBodyBytes;
+            this.ownHeaders = Set.copyOf(delegate.getHeaders().keySet());
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+                return super.writeWith(body);
+            }
+            ByteArrayOutputStream copy = new ByteArrayOutputStream();
+            Flux<? extends DataBuffer> copying = Flux.from(body)
+                    .doOnNext(buffer -> {
+                        if (copy.size() + buffer.readableByteCount() > maxBodyBytes) {
+                            flight.result.tryEmitEmpty();
+                            return;
+                        }
+                        int position = buffer.readPosition();
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        buffer.readPosition(position);
+                        copy.writeBytes(bytes);
+                    })
+                    .doOnComplete(() -> publish(copy.toByteArray()));
+            return super.writeWith(copying);
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            // Streaming (e.g. server-sent events): nothing to share
+            flight.result.tryEmitEmpty();
+            return super.writeAndFlushWith(body);
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            publish(new byte[0]);
+            return super.setComplete();
+        }
+
+        private void publish(byte[] body) {
+            HttpStatusCode status = getStatusCode();
+            if (status == null || getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+                flight.result.tryEmitEmpty();
+                return;
+            }
+            HttpHeaders headers = new HttpHeaders();
+            getHeaders().forEach((name, values) -> {
+                if (!UNSHARED_HEADERS.contains(name.toLowerCase()) && !ownHeaders.contains(name)) {
+                    headers.put(name, List.copyOf(values));
+                }
+            });
+            flight.result.tryEmitValue(new SharedResponse(status, headers, body));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.gateway.compression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Data;
+
+/**
+ * Response compression at the gateway ({@code gateway.compression.*}). Only
+ * content types matched by a rule are compressed; the first matching rule wins
+ * and may override the gateway-wide size threshold and level.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.compression")
+public class CompressionProperties {
+    private boolean enabled = true;
+    /** Responses smaller than this are sent as is; chunked ones are measured as they arrive. */
+    private int minResponseBytes = 1024;
+    /** Deflate level, 1 (fastest) to 9 (smallest). */
+    private int level = 6;
+    /** Size of the pooled output buffers the compressed body is written to. */
+    private int bufferSize = 8192;
+    private List<Rule> rules = new ArrayList<>();
+
+    @Data
+    public static class Rule {
+        /** Content type to match; wildcards such as {@code text/*} are allowed. */
+        private String mimeType;
+        private Integer minResponseBytes;
+        private Integer level;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.gateway.compression;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Streaming gzip encoder for one response body. Input buffers are deflated
+ * straight from their (usually direct, pooled) memory into output buffers from
+ * the response's buffer factory, so the body is never copied onto the heap as a
+ * whole. Not thread-safe; a body's buffers arrive one at a time.
+ */
+final class GzipEncoder {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final DataBufferFactory bufferFactory;
+    private final int bufferSize;
+    private boolean headerWritten;
+
+    long inputBytes;
+    long outputBytes;
+    long nanos;
+
+    GzipEncoder(int level, DataBufferFactory bufferFactory, int bufferSize) {
+        this.deflater = new Deflater(level, true);
+        this.bufferFactory = bufferFactory;
+        this.bufferSize = bufferSize;
+    }
+
+    /** Compresses one body buffer (releasing it); may return no output while zlib fills its window. */
+    List<DataBuffer> encode(DataBuffer input) {
+        long start = System.nanoTime();
+        List<DataBuffer> output = new ArrayList<>(2);
+        try (DataBuffer.ByteBufferIterator buffers = input.readableByteBuffers()) {
+            while (buffers.hasNext()) {
+                ByteBuffer buffer = buffers.next();
+                inputBytes += buffer.remaining();
+                crc.update(buffer.duplicate());
+                deflater.setInput(buffer);
+                while (!deflater.needsInput()) {
+                    deflate(output);
+                }
+            }
+        } finally {
+            DataBufferUtils.release(input);
+            nanos += System.nanoTime() - start;
+        }
+        return output;
+    }
+
+    /** Flushes the remaining compressed data and the gzip trailer. */
+    List<DataBuffer> finish() {
+        long start = System.nanoTime();
+        List<DataBuffer> output = new ArrayList<>(2);
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflate(output);
+        }
+        long crcValue = crc.getValue();
+        long size = inputBytes;
+        DataBuffer trailer = bufferFactory.allocateBuffer(8);
+        trailer.write(new byte[] {
+                (byte) crcValue, (byte) (crcValue >> 8), (byte) (crcValue >> 16), (byte) (crcValue >> 24),
+                (byte) size, (byte) (size >> 8), (byte) (size >> 16), (byte) (size >> 24)});
+        outputBytes += 8;
+        output.add(trailer);
+        nanos += System.nanoTime() - start;
+        return output;
+    }
+
+    /** Frees zlib's native memory; call once the body is done or cancelled. */
+    void end() {
+        deflater.end();
+    }
+
+    private void deflate(List<DataBuffer> output) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(bufferSize);
+        if (!headerWritten) {
+            buffer.write(HEADER);
+            headerWritten = true;
+        }
+        int written;
+        try (DataBuffer.ByteBufferIterator targets = buffer.writableByteBuffers()) {
+            written = deflater.deflate(targets.next());
+        }
+        buffer.writePosition(buffer.writePosition() + written);
+        if (buffer.readableByteCount() == 0) {
+            DataBufferUtils.release(buffer);
+            return;
+        }
+        outputBytes += buffer.readableByteCount();
+        output.add(buffer);
+    }
+}
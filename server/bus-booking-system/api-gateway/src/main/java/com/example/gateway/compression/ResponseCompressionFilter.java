@@ -0,0 +1,225 @@
+package com.example.gateway.compression;
+
+import java.util.concurrent.TimeUnit;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.web.server.ServerWebExchange;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Gzip-compresses responses for clients that send {@code Accept-Encoding: gzip},
+ * according to the content type rules and size threshold in
+ * {@link CompressionProperties}. Bodies are compressed as they stream through
+ * (see {@link GzipEncoder}). A body without Content-Length is held back until
+ * the size threshold has arrived, and sent as is if it ends before that.
+ * Responses the service already encoded, streaming
+ * responses (e.g. server-sent events), HEAD requests and bodiless statuses are
+ * sent as is. Compressed responses get {@code Vary: Accept-Encoding} and a weak ETag.
+ *
+ * <p>Meters: {@code gateway.compression.responses} (tag result = compressed,
+ * too-small, content-type, encoded, not-accepted), {@code gateway.compression.input.bytes},
+ * {@code .output.bytes} and {@code .saved.bytes}, and the timer
+ * {@code gateway.compression.time} with the time spent in zlib per response.
+ * Comparing that time with the bytes saved tells whether compressing at the
+ * edge is worth it or the services should do it themselves.
+ */
+@Component
+public class ResponseCompressionFilter implements GlobalFilter, Ordered {
+
+    private static final String GZIP = "gzip";
+
+    private final CompressionProperties properties;
+    private final Counter compressed;
+    private final Counter tooSmall;
+    private final Counter wrongType;
+    private final Counter alreadyEncoded;
+    private final Counter notAccepted;
+    private final Counter inputBytes;
+    private final Counter outputBytes;
+    private final Counter savedBytes;
+    private final Timer compressionTime;
+
+    public ResponseCompressionFilter(CompressionProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.compressed = meterRegistry.counter("gateway.compression.responses", "result", "compressed");
+        this.tooSmall = meterRegistry.counter("gateway.compression.responses", "result", "too-small");
+        this.wrongType = meterRegistry.counter("gateway.compression.responses", "result", "content-type");
+        this.alreadyEncoded = meterRegistry.counter("gateway.compression.responses", "result", "encoded");
+        this.notAccepted = meterRegistry.counter("gateway.compression.responses", "result", "not-accepted");
+        this.inputBytes = meterRegistry.counter("gateway.compression.input.bytes");
+        this.outputBytes = meterRegistry.counter("gateway.compression.output.bytes");
+        this.savedBytes = meterRegistry.counter("gateway.compression.saved.bytes");
+        this.compressionTime = meterRegistry.timer("gateway.compression.time");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.isEnabled() || request.getMethod() == HttpMethod.HEAD) {
+            return chain.filter(exchange);
+        }
+        if (!acceptsGzip(request.getHeaders())) {
+            notAccepted.increment();
+            return chain.filter(exchange);
+        }
+        ServerHttpResponse response = new CompressingResponse(exchange.getResponse());
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Outside the rate limiter (-95) and response cache (-90), so cached and
+        // coalesced bodies are compressed per client as well
+        return -98;
+    }
+
+    static boolean acceptsGzip(HttpHeaders headers) {
+        for (String value : headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)) {
+            for (String coding : value.split(",")) {
+                String[] parts = coding.trim().split(";");
+                String name = parts[0].trim();
+                if (!name.equalsIgnoreCase(GZIP) && !name.equals("*")) {
+                    continue;
+                }
+                boolean refused = false;
+                for (int i = 1; i < parts.length; i++) {
+                    String param = parts[i].trim();
+                    if (param.startsWith("q=")) {
+                        refused = param.substring(2).trim().matches("0(\\.0*)?");
+                    }
+                }
+                if (!refused) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private class CompressingResponse extends ServerHttpResponseDecorator {
+
+        CompressingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            Settings settings = settingsFor(getStatusCode(), getHeaders());
+            if (settings == null) {
+                return super.writeWith(body);
+            }
+            if (getHeaders().getContentLength() >= 0) {
+                // settingsFor already checked the declared length against the threshold
+                return super.writeWith(gzip(Flux.from(body), settings.level()));
+            }
+            // Unknown length (chunked): hold chunks back until min-response-bytes have
+            // arrived; a body that ends before that is sent as is
+            long[] received = { 0 };
+            Flux<DataBuffer> measured = Flux.<DataBuffer>from(body)
+                    .bufferUntil(buffer -> (received[0] += buffer.readableByteCount()) >= settings.minBytes())
+                    .switchOnFirst((first, chunks) -> {
+                        Flux<DataBuffer> buffers = chunks.concatMapIterable(list -> list);
+                        if (first.hasValue() && received[0] >= settings.minBytes()) {
+                            return gzip(buffers, settings.level());
+                        }
+                        if (!first.isOnError()) {
+                            tooSmall.increment();
+                        }
+                        return buffers;
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+            return super.writeWith(measured);
+        }
+
+        /**
+         * Switches the headers to gzip and encodes the body. Called before the
+         * first buffer is written, while the headers can still change.
+         */
+        private Flux<DataBuffer> gzip(Flux<DataBuffer> body, int level) {
+            HttpHeaders headers = getHeaders();
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+            if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+                headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            String etag = headers.getETag();
+            if (etag != null && !etag.startsWith("W/")) {
+                headers.setETag("W/" + etag);
+            }
+            compressed.increment();
+
+            GzipEncoder encoder = new GzipEncoder(level, bufferFactory(), properties.getBufferSize());
+            return body
+                    .concatMapIterable(encoder::encode)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(encoder.finish())))
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .doFinally(signal -> {
+                        encoder.end();
+                        inputBytes.increment(encoder.inputBytes);
+                        outputBytes.increment(encoder.outputBytes);
+                        savedBytes.increment(Math.max(0, encoder.inputBytes - encoder.outputBytes));
+                        compressionTime.record(encoder.nanos, TimeUnit.NANOSECONDS);
+                    });
+        }
+
+        /**
+         * How to compress this response, or null to send it as is. A declared
+         * Content-Length below the threshold rules compression out here; a
+         * chunked body is measured as it arrives.
+         */
+        private Settings settingsFor(HttpStatusCode status, HttpHeaders headers) {
+            if (status == null || status.value() < 200 || status.value() == 204 || status.value() == 206
+                    || status.value() == 304) {
+                return null;
+            }
+            if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+                alreadyEncoded.increment();
+                return null;
+            }
+            MediaType contentType = headers.getContentType();
+            CompressionProperties.Rule rule = contentType == null ? null : ruleFor(contentType);
+            if (rule == null) {
+                wrongType.increment();
+                return null;
+            }
+            int minBytes = rule.getMinResponseBytes() != null ? rule.getMinResponseBytes() : properties.getMinResponseBytes();
+            long length = headers.getContentLength();
+            if (length >= 0 && length < minBytes) {
+                tooSmall.increment();
+                return null;
+            }
+            return new Settings(rule.getLevel() != null ? rule.getLevel() : properties.getLevel(), minBytes);
+        }
+
+        private CompressionProperties.Rule ruleFor(MediaType contentType) {
+            for (CompressionProperties.Rule rule : properties.getRules()) {
+                if (MimeType.valueOf(rule.getMimeType()).includes(contentType)) {
+                    return rule;
+                }
+            }
+            return null;
+        }
+    }
+
+    private record Settings(int level, int minBytes) {
+    }
+}
@@ -19,7 +19,8 @@ public class CorsConfig {
         corsConfig.setAllowedHeaders(Arrays.asList("*"));
         corsConfig.setAllowCredentials(true);
         corsConfig.setExposedHeaders(
-                Arrays.asList("Content-Type", "Content-Length", "Content-Disposition", "Set-Cookie"));
+                Arrays.asList("Content-Type", "Content-Length", "Content-Disposition", "Set-Cookie",
+                        "Idempotent-Replayed"));
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", corsConfig);
@@ -1,76 +1,53 @@
 package com.example.gateway.config;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import java.util.HashMap;
+
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import jakarta.annotation.PostConstruct;
+import com.example.gateway.routing.RouteSpec;
+import com.example.gateway.routing.RouteTableRegistry;
+
+import reactor.core.publisher.Flux;
 
 @Configuration
 public class GatewayConfig {
 
-        private static final Logger log = LoggerFactory.getLogger(GatewayConfig.class);
-
-        @PostConstruct
-        public void init() {
-                log.info("API Gateway routes configured:");
-                log.info("  - /api/auth/**     -> http://localhost:8081 (Identity Service)");
-                log.info("  - /api/companies/** -> http://localhost:8082 (Company Service)");
-                log.info("  - /api/routes/**   -> http://localhost:8083 (Route Service)");
-                log.info("  - /api/schedules/** -> http://localhost:8084 (Schedule Service)");
-                log.info("  - /api/bookings/** -> http://localhost:8085 (Booking Service)");
-                log.info("  - /api/reviews/**  -> http://localhost:8086 (Review Service)");
-                log.info("  - /api/chatbot/**  -> http://localhost:8087 (Chatbot Service)");
+        /**
+         * Routes come from the external route table (see routes.yml) and are rebuilt
+         * whenever it is reloaded. Instead of evaluating each route's path patterns
+         * in turn, every route predicate compares its id with the single route found
+         * for the request in the table's precompiled path trie.
+         */
+        @Bean
+        public RouteLocator customRouteLocator(RouteLocatorBuilder builder, RouteTableRegistry registry) {
+                return () -> Flux.defer(() -> {
+                        RouteLocatorBuilder.Builder routes = builder.routes();
+                        for (RouteSpec spec : registry.current().getRoutes()) {
+                                String id = spec.getId();
+                                routes.route(id, r -> r
+                                                .predicate(exchange -> {
+                                                        RouteSpec matched = registry.current().match(exchange);
+                                                        return matched != null && id.equals(matched.getId());
+                                                })
+                                                .filters(f -> f.stripPrefix(spec.getStripPrefix()))
+                                                .metadata(new HashMap<>(spec.getMetadata()))
+                                                .uri(spec.getUri()));
+                        }
+                        return routes.build().getRoutes();
+                });
         }
 
+        /**
+         * Spring Cloud Gateway only registers its response writer together with its
+         * own routing filter, which is disabled in favour of PooledRoutingFilter.
+         */
         @Bean
-        public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
-                return builder.routes()
-                                // Identity Service - Authentication endpoints
-                                .route("identity-service", r -> r
-                                                .path("/api/auth/**")
-                                                .filters(f -> f.stripPrefix(1)) // Remove /api prefix
-                                                .uri("http://localhost:8081"))
-
-                                // Company Service
-                                .route("company-service", r -> r
-                                                .path("/api/companies/**")
-                                                .filters(f -> f.stripPrefix(1))
-                                                .uri("http://localhost:8082"))
-
-                                // Route Service
-                                .route("route-service", r -> r
-                                                .path("/api/routes/**")
-                                                .filters(f -> f.stripPrefix(1))
-                                                .uri("http://localhost:8083"))
-
-                                // Schedule Service
-                                .route("schedule-service", r -> r
-                                                .path("/api/schedules/**")
-                                                .filters(f -> f.stripPrefix(1))
-                                                .uri("http://localhost:8084"))
-
-                                // Booking Service
-                                .route("booking-service", r -> r
-                                                .path("/api/bookings/**")
-                                                .filters(f -> f.stripPrefix(1))
-                                                .uri("http://localhost:8085"))
-
-                                // Review Service
-                                .route("review-service", r -> r
-                                                .path("/api/reviews/**")
-                                                .filters(f -> f.stripPrefix(1))
-                                                .uri("http://localhost:8086"))
-
-                                // Chatbot Service
-                                .route("chatbot-service", r -> r
-                                                .path("/api/chatbot/**")
-                                                .filters(f -> f.stripPrefix(1))
-                                                .uri("http://localhost:8087"))
-
-                                .build();
+        public NettyWriteResponseFilter nettyWriteResponseFilter(GatewayProperties properties) {
+                return new NettyWriteResponseFilter(properties.getStreamingMediaTypes());
         }
 }
@@ -0,0 +1,12 @@
+package com.example.gateway.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. route table reload).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,112 @@
+package com.example.gateway.lb;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.example.gateway.routing.RouteTableRegistry;
+import com.example.gateway.routing.ServiceSpec;
+
+import io.netty.channel.ChannelOption;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Active health checks: every instance of every service is probed with a GET on
+ * the service's health path; a 2xx counts as success, anything else (including a
+ * timeout) as failure. An instance leaves the rotation after
+ * {@code unhealthy-threshold} consecutive failures and rejoins after
+ * {@code healthy-threshold} consecutive successes. Draining instances are
+ * probed too, so their state is current when they are put back.
+ *
+ * <p>Probes run on their own event loop, not the gateway's, so a busy gateway
+ * does not delay them past their timeout and mark healthy instances down. A
+ * round is started without blocking the scheduler thread; the next round is
+ * skipped while one is still running.
+ */
+@Component
+public class HealthChecker implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(HealthChecker.class);
+
+    private final RouteTableRegistry routeTableRegistry;
+    private final ServiceRegistry serviceRegistry;
+    private final ConnectionProvider provider = ConnectionProvider.builder("gateway-health")
+            .maxConnections(50)
+            .maxIdleTime(Duration.ofSeconds(15))
+            .build();
+    private final LoopResources loops = LoopResources.create("gateway-health", 1, true);
+    private final HttpClient client = HttpClient.create(provider)
+            .runOn(loops)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 1000);
+    private final AtomicBoolean roundRunning = new AtomicBoolean();
+
+    public HealthChecker(RouteTableRegistry routeTableRegistry, ServiceRegistry serviceRegistry) {
+        this.routeTableRegistry = routeTableRegistry;
+        this.serviceRegistry = serviceRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.services.health-check-interval-ms:5000}",
+            initialDelayString = "${gateway.services.health-check-interval-ms:5000}")
+    public void checkAll() {
+        if (!roundRunning.compareAndSet(false, true)) {
+            log.debug("Previous health check round still running, skipping this one");
+            return;
+        }
+        List<Mono<Void>> probes = new ArrayList<>();
+        routeTableRegistry.current().getServices().forEach((serviceId, spec) -> {
+            ServiceSpec.HealthCheck check = spec.getHealth();
+            if (check.getPath() == null || check.getPath().isEmpty()) {
+                return;
+            }
+            for (ServiceInstance instance : serviceRegistry.instances(serviceId)) {
+                probes.add(probe(instance, check));
+            }
+        });
+        // Probes run concurrently and each is bounded by its timeout
+        Flux.merge(probes)
+                .doFinally(signal -> roundRunning.set(false))
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        provider.dispose();
+        loops.dispose();
+    }
+
+    private Mono<Void> probe(ServiceInstance instance, ServiceSpec.HealthCheck check) {
+        String url = UriComponentsBuilder.fromUri(instance.getUri())
+                .path(check.getPath())
+                .toUriString();
+        Duration timeout = Duration.ofMillis(check.getTimeoutMs());
+        return client.responseTimeout(timeout)
+                .get()
+                .uri(url)
+                .responseSingle((response, body) -> body.then(Mono.just(response.status().code() / 100 == 2)))
+                .timeout(timeout)
+                .onErrorReturn(false)
+                .doOnNext(success -> {
+                    if (instance.recordProbe(success, check.getHealthyThreshold(), check.getUnhealthyThreshold())) {
+                        if (success) {
+                            log.info("Instance {} is healthy again", instance);
+                        } else {
+                            log.warn("Instance {} failed {} health checks, taking it out of rotation",
+                                    instance, check.getUnhealthyThreshold());
+                        }
+                    }
+                })
+                .then();
+    }
+}
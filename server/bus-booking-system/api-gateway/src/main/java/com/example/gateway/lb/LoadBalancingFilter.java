@@ -0,0 +1,62 @@
+package com.example.gateway.lb;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.addOriginalRequestUrl;
+
+import java.net.URI;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.gateway.routing.RouteTable;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves {@code lb://<service>} request URLs to one instance of the service
+ * (see {@link ServiceRegistry#choose}) and counts the request as outstanding on
+ * that instance until the exchange completes. The chosen instance is kept in
+ * {@link #INSTANCE_ATTR}.
+ */
+@Component
+public class LoadBalancingFilter implements GlobalFilter, Ordered {
+
+    /** Exchange attribute holding the {@link ServiceInstance} the request was sent to. */
+    public static final String INSTANCE_ATTR = LoadBalancingFilter.class.getName() + ".instance";
+
+    private final ServiceRegistry serviceRegistry;
+
+    public LoadBalancingFilter(ServiceRegistry serviceRegistry) {
+        this.serviceRegistry = serviceRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (url == null || !RouteTable.LOAD_BALANCED_SCHEME.equals(url.getScheme())) {
+            return chain.filter(exchange);
+        }
+        ServiceInstance instance = serviceRegistry.choose(url.getHost(), null);
+        if (instance == null) {
+            return Mono.error(new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "No available instance of " + url.getHost()));
+        }
+        addOriginalRequestUrl(exchange, url);
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, ServiceRegistry.reconstruct(url, instance));
+        exchange.getAttributes().put(INSTANCE_ATTR, instance);
+
+        instance.acquire();
+        return chain.filter(exchange).doFinally(signal -> instance.release());
+    }
+
+    @Override
+    public int getOrder() {
+        // After RouteToRequestUrlFilter (10000), before hedging and the routing filter
+        return 10050;
+    }
+}
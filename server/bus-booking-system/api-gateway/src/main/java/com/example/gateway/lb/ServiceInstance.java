@@ -0,0 +1,87 @@
+package com.example.gateway.lb;
+
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runtime state of one service instance: requests in flight and the result of
+ * the active health checks. Survives route table reloads as long as the
+ * instance stays listed.
+ */
+public final class ServiceInstance {
+
+    private final String serviceId;
+    private final URI uri;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private volatile boolean draining;
+    private volatile boolean healthy = true;
+    private int consecutiveFailures;
+    private int consecutiveSuccesses;
+
+    ServiceInstance(String serviceId, URI uri) {
+        this.serviceId = serviceId;
+        this.uri = uri;
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    boolean isAvailable() {
+        return healthy && !draining;
+    }
+
+    void setDraining(boolean draining) {
+        this.draining = draining;
+    }
+
+    /** Marks a request as sent to this instance; pair with {@link #release()}. */
+    public void acquire() {
+        outstanding.incrementAndGet();
+    }
+
+    public void release() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Records a probe result; returns true if the instance's health changed.
+     */
+    synchronized boolean recordProbe(boolean success, int healthyThreshold, int unhealthyThreshold) {
+        if (success) {
+            consecutiveFailures = 0;
+            if (!healthy && ++consecutiveSuccesses >= healthyThreshold) {
+                healthy = true;
+                return true;
+            }
+        } else {
+            consecutiveSuccesses = 0;
+            if (healthy && ++consecutiveFailures >= unhealthyThreshold) {
+                healthy = false;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return serviceId + "@" + uri;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.gateway.lb;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.example.gateway.routing.RouteTable;
+import com.example.gateway.routing.RouteTableRegistry;
+import com.example.gateway.routing.ServiceSpec;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Static service registry backed by the {@code services} section of the route
+ * table file, and the instance choice for {@code lb://} routes.
+ *
+ * <p>Instances are synced with the table after every reload, keeping the state of
+ * instances that are still listed. An instance that is removed or marked
+ * {@code draining} gets no new requests; its in-flight requests complete on their
+ * existing connections. Each instance publishes {@code gateway.lb.outstanding}
+ * and {@code gateway.lb.healthy} (tags: service, instance).
+ */
+@Component
+public class ServiceRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceRegistry.class);
+
+    private final RouteTableRegistry routeTableRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<ServiceInstance, List<Meter>> meters = new HashMap<>();
+
+    private volatile RouteTable syncedTable;
+    private volatile Map<String, List<ServiceInstance>> instances = Map.of();
+
+    public ServiceRegistry(RouteTableRegistry routeTableRegistry, MeterRegistry meterRegistry) {
+        this.routeTableRegistry = routeTableRegistry;
+        this.meterRegistry = meterRegistry;
+        sync();
+    }
+
+    public List<ServiceInstance> instances(String serviceId) {
+        sync();
+        return instances.getOrDefault(serviceId, List.of());
+    }
+
+    public ServiceSpec spec(String serviceId) {
+        return syncedTable.getServices().get(serviceId);
+    }
+
+    /**
+     * Picks an available instance, avoiding {@code exclude} if there is another
+     * healthy choice; a healthy {@code exclude} still beats an unhealthy instance.
+     * Only when no instance passes its health checks are the non-draining ones
+     * tried rather than failing every request. Returns null if all are draining.
+     */
+    public ServiceInstance choose(String serviceId, ServiceInstance exclude) {
+        List<ServiceInstance> all = instances(serviceId);
+        List<ServiceInstance> candidates = candidates(all, exclude, true);
+        if (candidates.isEmpty()) {
+            candidates = candidates(all, exclude, false);
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        ServiceSpec spec = spec(serviceId);
+        return "least-outstanding".equals(spec.getStrategy())
+                ? leastOutstanding(candidates)
+                : powerOfTwoChoices(candidates);
+    }
+
+    /**
+     * The request URI with the {@code lb://service} authority replaced by the instance's.
+     */
+    public static URI reconstruct(URI original, ServiceInstance instance) {
+        URI target = instance.getUri();
+        return UriComponentsBuilder.fromUri(original)
+                .scheme(target.getScheme())
+                .host(target.getHost())
+                .port(target.getPort())
+                .build(true)
+                .toUri();
+    }
+
+    /**
+     * Non-draining instances, only healthy ones if {@code healthyOnly}, without
+     * {@code exclude} unless it is the only one left.
+     */
+    private static List<ServiceInstance> candidates(List<ServiceInstance> all, ServiceInstance exclude,
+            boolean healthyOnly) {
+        List<ServiceInstance> candidates = new ArrayList<>(all.size());
+        boolean excludeEligible = false;
+        for (ServiceInstance instance : all) {
+            if (instance.isDraining() || (healthyOnly && !instance.isHealthy())) {
+                continue;
+            }
+            if (instance == exclude) {
+                excludeEligible = true;
+            } else {
+                candidates.add(instance);
+            }
+        }
+        if (candidates.isEmpty() && excludeEligible) {
+            candidates.add(exclude);
+        }
+        return candidates;
+    }
+
+    private static ServiceInstance powerOfTwoChoices(List<ServiceInstance> candidates) {
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return a.getOutstanding() <= b.getOutstanding() ? a : b;
+    }
+
+    private static ServiceInstance leastOutstanding(List<ServiceInstance> candidates) {
+        // Random start so ties do not always go to the first listed instance
+        int start = ThreadLocalRandom.current().nextInt(candidates.size());
+        ServiceInstance best = null;
+        for (int i = 0; i < candidates.size(); i++) {
+            ServiceInstance instance = candidates.get((start + i) % candidates.size());
+            if (best == null || instance.getOutstanding() < best.getOutstanding()) {
+                best = instance;
+            }
+        }
+        return best;
+    }
+
+    private void sync() {
+        RouteTable table = routeTableRegistry.current();
+        if (table == syncedTable) {
+            return;
+        }
+        synchronized (this) {
+            if (table == syncedTable) {
+                return;
+            }
+            Map<String, List<ServiceInstance>> previous = instances;
+            Map<String, List<ServiceInstance>> next = new HashMap<>();
+            table.getServices().forEach((serviceId, spec) -> {
+                List<ServiceInstance> list = new ArrayList<>();
+                for (ServiceSpec.Instance listed : spec.getInstances()) {
+                    URI uri = URI.create(listed.getUri());
+                    ServiceInstance instance = previous.getOrDefault(serviceId, List.of()).stream()
+                            .filter(existing -> existing.getUri().equals(uri))
+                            .findFirst()
+                            .orElseGet(() -> register(new ServiceInstance(serviceId, uri)));
+                    if (instance.isDraining() != listed.isDraining()) {
+                        log.info("Instance {} {}", instance, listed.isDraining() ? "draining" : "back in rotation");
+                    }
+                    instance.setDraining(listed.isDraining());
+                    list.add(instance);
+                }
+                next.put(serviceId, List.copyOf(list));
+            });
+            previous.values().stream().flatMap(List::stream)
+                    .filter(instance -> !next.getOrDefault(instance.getServiceId(), List.of()).contains(instance))
+                    .forEach(this::unregister);
+            instances = Map.copyOf(next);
+            syncedTable = table;
+        }
+    }
+
+    private ServiceInstance register(ServiceInstance instance) {
+        String name = instance.getUri().getAuthority();
+        meters.put(instance, List.of(
+                Gauge.builder("gateway.lb.outstanding", instance, ServiceInstance::getOutstanding)
+                        .tag("service", instance.getServiceId()).tag("instance", name)
+                        .register(meterRegistry),
+                Gauge.builder("gateway.lb.healthy", instance, i -> i.isHealthy() ? 1 : 0)
+                        .tag("service", instance.getServiceId()).tag("instance", name)
+                        .register(meterRegistry)));
+        log.info("Registered instance {}", instance);
+        return instance;
+    }
+
+    private void unregister(ServiceInstance instance) {
+        List<Meter> removed = meters.remove(instance);
+        if (removed != null) {
+            removed.forEach(meterRegistry::remove);
+        }
+        log.info("Removed instance {}; requests in flight: {}", instance, instance.getOutstanding());
+    }
+}
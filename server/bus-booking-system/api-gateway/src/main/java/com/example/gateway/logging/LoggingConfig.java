@@ -0,0 +1,20 @@
+package com.example.gateway.logging;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.shared.logging.DroppingAsyncAppender;
+import com.example.shared.logging.LoggingMetrics;
+
+/**
+ * Publishes the drop counts of the {@link DroppingAsyncAppender}s declared in
+ * logback-spring.xml.
+ */
+@Configuration
+public class LoggingConfig {
+
+    @Bean
+    public LoggingMetrics loggingMetrics() {
+        return new LoggingMetrics();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.gateway.proxy;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import com.example.gateway.routing.PoolSettings;
+
+import lombok.Data;
+
+/**
+ * Gateway-wide defaults for the downstream connection pools
+ * ({@code gateway.http-client.pool.*}); routes override them in routes.yml.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "gateway.http-client")
+public class DownstreamClientProperties {
+    private PoolSettings pool = new PoolSettings();
+    /** How long a replaced pool waits for in-flight requests before closing their connections. */
+    private long disposeTimeoutMs = 30000;
+}
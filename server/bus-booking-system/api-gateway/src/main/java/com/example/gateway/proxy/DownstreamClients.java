@@ -0,0 +1,151 @@
+package com.example.gateway.proxy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientFactory;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.stereotype.Component;
+
+import com.example.gateway.routing.PoolSettings;
+import com.example.gateway.routing.RouteSpec;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * One Reactor Netty client, with its own connection pool, per gateway route.
+ * Separate pools keep a slow service from exhausting connections needed by the
+ * others and make saturation visible per route: each pool is named after its
+ * route id and publishes the Reactor Netty pool meters
+ * ({@code reactor.netty.connection.provider.active.connections}, {@code .idle.connections},
+ * {@code .pending.connections}, {@code .max.connections} and the acquire-time timer
+ * {@code .pending.connections.time}), all tagged {@code name=<route id>}.
+ *
+ * <p>Each client is built the way Spring Cloud Gateway builds its shared one
+ * ({@code spring.cloud.gateway.httpclient.*}: response decoder, compression,
+ * proxy, SSL, wiretap, and every {@link HttpClientCustomizer} bean), with only
+ * the connection pool swapped for the route's; the route's connect timeout,
+ * keep-alive and h2c settings are applied on top. The global response timeout
+ * is applied per request by the routing filter, as for the shared client.
+ *
+ * <p>Clients are created on first use. When a reload changes a route's pool
+ * settings the client is rebuilt and the old pool is closed once its
+ * in-flight requests have released their connections, or after
+ * {@code gateway.http-client.dispose-timeout-ms} at the latest.
+ */
+@Component
+public class DownstreamClients implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(DownstreamClients.class);
+
+    private final DownstreamClientProperties properties;
+    private final HttpClientProperties httpClientProperties;
+    private final ServerProperties serverProperties;
+    private final HttpClientSslConfigurer sslConfigurer;
+    private final List<HttpClientCustomizer> customizers;
+    private final Map<String, RouteClient> clients = new ConcurrentHashMap<>();
+
+    public DownstreamClients(DownstreamClientProperties properties, HttpClientProperties httpClientProperties,
+            ServerProperties serverProperties, HttpClientSslConfigurer sslConfigurer,
+            ObjectProvider<HttpClientCustomizer> customizers) {
+        this.properties = properties;
+        this.httpClientProperties = httpClientProperties;
+        this.serverProperties = serverProperties;
+        this.sslConfigurer = sslConfigurer;
+        this.customizers = customizers.orderedStream().toList();
+    }
+
+    public HttpClient clientFor(RouteSpec route) {
+        RouteClient client = clients.get(route.getId());
+        if (client != null && client.route == route) {
+            return client.httpClient;
+        }
+        return clients.compute(route.getId(), (id, existing) -> refresh(route, existing)).httpClient;
+    }
+
+    private RouteClient refresh(RouteSpec route, RouteClient existing) {
+        PoolSettings settings = route.getPool().withDefaults(properties.getPool());
+        if (existing != null) {
+            if (existing.settings.equals(settings)) {
+                // Same pool settings after a route table reload: keep the pool
+                return new RouteClient(route, settings, existing.provider, existing.httpClient);
+            }
+            log.info("Pool settings for route {} changed, replacing its connection pool", route.getId());
+            existing.provider.disposeLater().subscribe();
+        }
+        return create(route, settings);
+    }
+
+    private RouteClient create(RouteSpec route, PoolSettings settings) {
+        ConnectionProvider provider = ConnectionProvider.builder(route.getId())
+                .maxConnections(settings.getMaxConnections())
+                .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(settings.getAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofMillis(settings.getMaxIdleTimeMs()))
+                .maxLifeTime(Duration.ofMillis(settings.getMaxLifeTimeMs()))
+                .evictInBackground(Duration.ofMillis(settings.getEvictIntervalMs()))
+                .metrics(true)
+                .disposeTimeout(Duration.ofMillis(properties.getDisposeTimeoutMs()))
+                .build();
+
+        HttpClient httpClient = new RouteHttpClientFactory(httpClientProperties, serverProperties, sslConfigurer,
+                customizers, provider).build()
+                .keepAlive(settings.getKeepAlive())
+                .option(ChannelOption.SO_KEEPALIVE, settings.getKeepAlive())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, settings.getConnectTimeoutMs());
+        if (Boolean.TRUE.equals(settings.getH2c())) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+
+        log.info("Connection pool for route {}: maxConnections={}, acquireTimeout={}ms, maxIdleTime={}ms, h2c={}",
+                route.getId(), settings.getMaxConnections(), settings.getAcquireTimeoutMs(),
+                settings.getMaxIdleTimeMs(), settings.getH2c());
+        return new RouteClient(route, settings, provider, httpClient);
+    }
+
+    @Override
+    public void destroy() {
+        clients.values().forEach(client -> client.provider.dispose());
+        clients.clear();
+    }
+
+    private record RouteClient(RouteSpec route, PoolSettings settings,
+            ConnectionProvider provider, HttpClient httpClient) {
+    }
+
+    /**
+     * The gateway's own HttpClient setup around a route's connection pool.
+     */
+    private static final class RouteHttpClientFactory extends HttpClientFactory {
+
+        private final ConnectionProvider provider;
+
+        RouteHttpClientFactory(HttpClientProperties properties, ServerProperties serverProperties,
+                HttpClientSslConfigurer sslConfigurer, List<HttpClientCustomizer> customizers,
+                ConnectionProvider provider) {
+            super(properties, serverProperties, sslConfigurer, customizers);
+            this.provider = provider;
+        }
+
+        @Override
+        protected ConnectionProvider buildConnectionProvider(HttpClientProperties properties) {
+            return provider;
+        }
+
+        HttpClient build() {
+            return createInstance();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.gateway.proxy;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.gateway.routing.RouteSpec;
+import com.example.gateway.routing.RouteTableRegistry;
+
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Replaces Spring Cloud Gateway's routing filter (disabled via
+ * {@code spring.cloud.gateway.server.webflux.global-filter.netty-routing.enabled})
+ * so that every route table route is proxied through its own pooled client from
+ * {@link DownstreamClients}. Routes that are not in the table keep the shared client.
+ */
+@Component
+public class PooledRoutingFilter extends NettyRoutingFilter {
+
+    private final DownstreamClients downstreamClients;
+    private final RouteTableRegistry routeTableRegistry;
+
+    public PooledRoutingFilter(HttpClient httpClient,
+            ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+            HttpClientProperties properties,
+            DownstreamClients downstreamClients,
+            RouteTableRegistry routeTableRegistry) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.downstreamClients = downstreamClients;
+        this.routeTableRegistry = routeTableRegistry;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        RouteSpec spec = routeTableRegistry.current().match(exchange);
+        if (spec == null || !spec.getId().equals(route.getId())) {
+            return super.getHttpClient(route, exchange);
+        }
+        return downstreamClients.clientFor(spec);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.gateway.ratelimit;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.gateway.routing.RateLimitSettings;
+import com.example.gateway.routing.RouteSpec;
+import com.example.gateway.routing.RouteTableRegistry;
+import com.example.gateway.security.JwtAuthenticationFilter;
+import com.example.gateway.security.TrustedIdentity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Applies the route's {@code rate-limit} from routes.yml. Authenticated callers
+ * (identity set by {@link JwtAuthenticationFilter}) are limited per user id,
+ * everyone else per client IP. Over-limit requests get 429 with Retry-After;
+ * every limited response carries X-RateLimit-Limit/Remaining/Reset.
+ * Rejections are counted in {@code gateway.rate-limit.rejections} (tags: route, caller).
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+    private static final String LIMIT_HEADER = "X-RateLimit-Limit";
+    private static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    private static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    private final RateLimiter rateLimiter;
+    private final RouteTableRegistry routeTableRegistry;
+    private final MeterRegistry meterRegistry;
+    private final boolean trustForwardedFor;
+    private final Map<String, Counter> rejectionCounters = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimiter rateLimiter, RouteTableRegistry routeTableRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${gateway.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor) {
+        this.rateLimiter = rateLimiter;
+        this.routeTableRegistry = routeTableRegistry;
+        this.meterRegistry = meterRegistry;
+        this.trustForwardedFor = trustForwardedFor;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RouteSpec route = routeTableRegistry.current().match(exchange);
+        if (route == null || !route.getRateLimit().isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        RateLimitSettings settings = route.getRateLimit();
+        TrustedIdentity identity = exchange.getAttribute(JwtAuthenticationFilter.IDENTITY_ATTR);
+        String caller;
+        String key;
+        RateLimitSettings.Limit limit;
+        if (identity != null) {
+            caller = "user";
+            key = identity.getUserId() != null ? identity.getUserId() : identity.getEmail();
+            limit = settings.getUser();
+        } else {
+            caller = "ip";
+            key = clientIp(exchange.getRequest());
+            limit = settings.getIp();
+        }
+        if (limit == null || key == null) {
+            return chain.filter(exchange);
+        }
+
+        RateLimiter.Decision decision = rateLimiter.tryAcquire(route.getId() + '|' + caller + ':' + key, limit);
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = response.getHeaders();
+        headers.set(LIMIT_HEADER, String.valueOf(decision.limit()));
+        headers.set(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        headers.set(RESET_HEADER, String.valueOf(decision.resetSeconds()));
+        if (decision.allowed()) {
+            return chain.filter(exchange);
+        }
+
+        rejectionCounter(route.getId(), caller).increment();
+        log.debug("Rate limit exceeded on route {} for {} {}", route.getId(), caller, key);
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        return response.setComplete();
+    }
+
+    @Override
+    public int getOrder() {
+        // After JwtAuthenticationFilter (-100), before the response cache (-90)
+        return -95;
+    }
+
+    private String clientIp(ServerHttpRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeaders().getFirst("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma < 0 ? forwardedFor : forwardedFor.substring(0, comma)).trim();
+            }
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        if (remote == null) {
+            return null;
+        }
+        return remote.getAddress() != null ? remote.getAddress().getHostAddress() : remote.getHostString();
+    }
+
+    private Counter rejectionCounter(String routeId, String caller) {
+        return rejectionCounters.computeIfAbsent(routeId + '|' + caller, k -> Counter
+                .builder("gateway.rate-limit.rejections")
+                .tag("route", routeId)
+                .tag("caller", caller)
+                .register(meterRegistry));
+    }
+}
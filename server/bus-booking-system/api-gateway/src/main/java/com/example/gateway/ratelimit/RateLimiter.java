@@ -0,0 +1,131 @@
+package com.example.gateway.ratelimit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.gateway.routing.RateLimitSettings;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-process token buckets for {@link RateLimitFilter}, one per route and caller.
+ *
+ * <p>Buckets live in a ConcurrentHashMap and are updated under one of a fixed set
+ * of lock stripes chosen by key hash, so event-loop threads only contend when
+ * their keys share a stripe. An acquire allocates only its {@link Decision}
+ * (the filter also builds the key); a bucket is allocated once per caller. A
+ * bucket that has refilled completely is indistinguishable from a new one, so
+ * idle buckets are dropped by a periodic sweep. The bucket count is held near
+ * {@code gateway.rate-limit.max-buckets} by a check every trim-interval-ms, off
+ * the event loop: past the limit the full buckets go first, then an arbitrary
+ * tenth of the rest. New callers still get a bucket in between, so the map can
+ * overshoot by what arrives in one interval, and an acquire stays O(1).
+ * Buckets are only created and removed under their stripe lock, and a caller
+ * looks its bucket up again once it holds the lock, so it never draws from one
+ * that was just dropped. A bucket whose route limit changed on reload is resized
+ * in place.
+ */
+@Component
+public class RateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+    private final int maxBuckets;
+
+    public RateLimiter(
+            @Value("${gateway.rate-limit.max-buckets:100000}") int maxBuckets,
+            MeterRegistry meterRegistry) {
+        this.maxBuckets = maxBuckets;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        Gauge.builder("gateway.rate-limit.buckets", buckets, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Takes a token from the caller's bucket for this limit.
+     */
+    Decision tryAcquire(String key, RateLimitSettings.Limit limit) {
+        long now = System.nanoTime();
+        synchronized (lockFor(key)) {
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = new TokenBucket(limit, now);
+                buckets.put(key, bucket);
+            } else if (!bucket.hasLimit(limit)) {
+                bucket.resize(limit, now);
+            }
+            long result = bucket.tryConsume(now);
+            long resetNanos = bucket.nanosUntilFull(now);
+            return result >= 0
+                    ? new Decision(true, bucket.getCapacity(), result, 0, resetNanos)
+                    : new Decision(false, bucket.getCapacity(), 0, -result, resetNanos);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        evictFull(System.nanoTime());
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.rate-limit.trim-interval-ms:1000}")
+    public void trimToCapacity() {
+        if (buckets.size() >= maxBuckets) {
+            makeRoom(System.nanoTime());
+        }
+    }
+
+    private void makeRoom(long now) {
+        evictFull(now);
+        if (buckets.size() < maxBuckets) {
+            return;
+        }
+        int toRemove = Math.max(1, maxBuckets / 10);
+        Iterator<Map.Entry<String, TokenBucket>> it = buckets.entrySet().iterator();
+        while (toRemove > 0 && it.hasNext()) {
+            Map.Entry<String, TokenBucket> entry = it.next();
+            synchronized (lockFor(entry.getKey())) {
+                if (buckets.remove(entry.getKey(), entry.getValue())) {
+                    toRemove--;
+                }
+            }
+        }
+    }
+
+    private void evictFull(long now) {
+        buckets.forEach((key, bucket) -> {
+            synchronized (lockFor(key)) {
+                if (bucket.nanosUntilFull(now) == 0) {
+                    buckets.remove(key, bucket);
+                }
+            }
+        });
+    }
+
+    private Object lockFor(String key) {
+        return locks[(key.hashCode() & 0x7fffffff) % STRIPES];
+    }
+
+    /**
+     * Outcome of one acquire, with what the X-RateLimit-* headers report.
+     */
+    record Decision(boolean allowed, int limit, long remaining, long retryAfterNanos, long resetNanos) {
+
+        long retryAfterSeconds() {
+            return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999));
+        }
+
+        long resetSeconds() {
+            return TimeUnit.NANOSECONDS.toSeconds(resetNanos + 999_999_999);
+        }
+    }
+}
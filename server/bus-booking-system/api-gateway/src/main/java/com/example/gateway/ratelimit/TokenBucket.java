@@ -0,0 +1,74 @@
+package com.example.gateway.ratelimit;
+
+import com.example.gateway.routing.RateLimitSettings;
+
+/**
+ * Classic token bucket, refilled lazily on access. Not thread-safe on its own:
+ * {@link RateLimiter} guards every bucket with its lock stripe.
+ */
+final class TokenBucket {
+
+    private int capacity;
+    private double refillPerSecond;
+    private double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(RateLimitSettings.Limit limit, long now) {
+        setLimit(limit);
+        this.tokens = capacity;
+        this.lastRefillNanos = now;
+    }
+
+    /** True if the bucket was built for these capacity and refill values. */
+    boolean hasLimit(RateLimitSettings.Limit limit) {
+        return capacity == limit.getCapacity() && refillPerSecond == limit.getRefillPerSecond();
+    }
+
+    /**
+     * Switches to a reloaded limit: tokens earned so far are kept at the old
+     * rate, then capped at the new capacity.
+     */
+    void resize(RateLimitSettings.Limit limit, long now) {
+        refill(now);
+        setLimit(limit);
+        tokens = Math.min(capacity, tokens);
+    }
+
+    /**
+     * Takes one token if available. Returns the tokens left on success, or minus
+     * the nanoseconds until the next token on rejection.
+     */
+    long tryConsume(long now) {
+        refill(now);
+        if (tokens >= 1) {
+            tokens -= 1;
+            return (long) tokens;
+        }
+        return -(long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /** Nanoseconds until the bucket is full again. */
+    long nanosUntilFull(long now) {
+        refill(now);
+        return (long) Math.ceil((capacity - tokens) / tokensPerNano);
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    private void setLimit(RateLimitSettings.Limit limit) {
+        this.capacity = limit.getCapacity();
+        this.refillPerSecond = limit.getRefillPerSecond();
+        this.tokensPerNano = refillPerSecond / 1_000_000_000d;
+    }
+
+    private void refill(long now) {
+        long elapsed = now - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.gateway.resilience;
+
+import java.util.Arrays;
+
+import com.example.gateway.routing.ResilienceSettings;
+
+/**
+ * Count-based circuit breaker for one route.
+ *
+ * <p>CLOSED: outcomes go into a ring of the last {@code windowSize} calls; once
+ * {@code minimumCalls} are recorded and the failure or slow-call rate reaches its
+ * threshold the breaker OPENs. OPEN: calls are refused until {@code openMs} has
+ * passed, then HALF_OPEN lets {@code halfOpenCalls} trial calls through. If they
+ * all succeed it closes with a fresh window, the first failure reopens it.
+ *
+ * <p>The closed-state check is a volatile read; recording takes the breaker's
+ * monitor for a few field updates.
+ */
+class CircuitBreaker {
+
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final ResilienceSettings.CircuitBreaker settings;
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int index;
+    private int recorded;
+    private int failures;
+    private int slowCalls;
+    private long openedAt;
+    private int trialsIssued;
+    private int trialsSucceeded;
+    private volatile State state = State.CLOSED;
+
+    CircuitBreaker(ResilienceSettings.CircuitBreaker settings) {
+        this.settings = settings;
+        this.failed = new boolean[settings.getWindowSize()];
+        this.slow = new boolean[settings.getWindowSize()];
+    }
+
+    State getState() {
+        return state;
+    }
+
+    /**
+     * Whether a call may go downstream now. A permitted half-open trial must be
+     * followed by {@link #record} or {@link #release}.
+     */
+    boolean tryAcquire(long nowMs) {
+        if (!settings.isEnabled() || state == State.CLOSED) {
+            return true;
+        }
+        synchronized (this) {
+            if (state == State.OPEN) {
+                if (nowMs - openedAt < settings.getOpenMs()) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                trialsIssued = 0;
+                trialsSucceeded = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialsIssued >= settings.getHalfOpenCalls()) {
+                    return false;
+                }
+                trialsIssued++;
+            }
+            return true;
+        }
+    }
+
+    synchronized void record(long nowMs, long durationMs, boolean failure) {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        boolean isSlow = durationMs >= settings.getSlowCallMs();
+        switch (state) {
+            case CLOSED -> {
+                if (recorded == failed.length) {
+                    failures -= failed[index] ? 1 : 0;
+                    slowCalls -= slow[index] ? 1 : 0;
+                } else {
+                    recorded++;
+                }
+                failed[index] = failure;
+                slow[index] = isSlow;
+                failures += failure ? 1 : 0;
+                slowCalls += isSlow ? 1 : 0;
+                index = (index + 1) % failed.length;
+                if (recorded >= settings.getMinimumCalls()
+                        && (failures * 100 >= settings.getFailureRateThreshold() * recorded
+                                || slowCalls * 100 >= settings.getSlowCallRateThreshold() * recorded)) {
+                    open(nowMs);
+                }
+            }
+            case HALF_OPEN -> {
+                if (failure || isSlow) {
+                    open(nowMs);
+                } else if (++trialsSucceeded >= settings.getHalfOpenCalls()) {
+                    close();
+                }
+            }
+            case OPEN -> {
+                // Late result of a call admitted before the breaker opened
+            }
+        }
+    }
+
+    /**
+     * Gives back a half-open trial whose outcome is unknown (e.g. the client went away).
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN && trialsIssued > 0) {
+            trialsIssued--;
+        }
+    }
+
+    synchronized long retryAfterMs(long nowMs) {
+        return state == State.OPEN ? Math.max(0, openedAt + settings.getOpenMs() - nowMs) : 0;
+    }
+
+    private void open(long nowMs) {
+        state = State.OPEN;
+        openedAt = nowMs;
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        index = 0;
+        recorded = 0;
+        failures = 0;
+        slowCalls = 0;
+        Arrays.fill(failed, false);
+        Arrays.fill(slow, false);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.gateway.resilience;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The route's circuit breaker is open; the request was not sent downstream.
+ */
+public class CircuitOpenException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    public CircuitOpenException(String routeId, long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "Service behind route " + routeId + " is unavailable");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.gateway.resilience;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * The request's time budget ran out before the downstream service answered.
+ */
+public class DeadlineExceededException extends ResponseStatusException {
+
+    public DeadlineExceededException(String routeId, long budgetMs) {
+        super(HttpStatus.GATEWAY_TIMEOUT, "No response from route " + routeId + " within " + budgetMs + " ms");
+    }
+}
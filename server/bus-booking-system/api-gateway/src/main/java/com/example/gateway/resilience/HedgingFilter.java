@@ -0,0 +1,182 @@
+package com.example.gateway.resilience;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setAlreadyRouted;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter.Type;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.gateway.lb.LoadBalancingFilter;
+import com.example.gateway.lb.ServiceInstance;
+import com.example.gateway.lb.ServiceRegistry;
+import com.example.gateway.proxy.DownstreamClients;
+import com.example.gateway.routing.ResilienceSettings;
+import com.example.gateway.routing.RouteSpec;
+import com.example.gateway.routing.RouteTableRegistry;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Hedged reads for routes with {@code resilience.hedge.enabled}: a GET without a
+ * body is sent once, and if no response has arrived after the hedge delay (the
+ * route's recent latency percentile, clamped to min/max) a second identical
+ * request goes out. The first response wins, the other call is cancelled.
+ *
+ * <p>Hedged requests are proxied here instead of by the routing filter (this
+ * filter marks the exchange as routed), so the response is buffered before it
+ * is written. Both attempts use the route's connection pool and carry the
+ * remaining deadline budget. On load-balanced routes the second attempt goes to
+ * a different instance when there is one.
+ */
+@Component
+public class HedgingFilter implements GlobalFilter, Ordered {
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final RouteTableRegistry routeTableRegistry;
+    private final ResilienceRegistry resilienceRegistry;
+    private final DownstreamClients downstreamClients;
+    private final ServiceRegistry serviceRegistry;
+    private final ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider;
+
+    public HedgingFilter(RouteTableRegistry routeTableRegistry, ResilienceRegistry resilienceRegistry,
+            DownstreamClients downstreamClients, ServiceRegistry serviceRegistry,
+            ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider) {
+        this.routeTableRegistry = routeTableRegistry;
+        this.resilienceRegistry = resilienceRegistry;
+        this.downstreamClients = downstreamClients;
+        this.serviceRegistry = serviceRegistry;
+        this.headersFiltersProvider = headersFiltersProvider;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RouteSpec route = routeTableRegistry.current().match(exchange);
+        URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        if (route == null || !route.getResilience().getHedge().isEnabled()
+                || !isHedgeable(exchange.getRequest()) || isAlreadyRouted(exchange)
+                || url == null || !("http".equals(url.getScheme()) || "https".equals(url.getScheme()))) {
+            return chain.filter(exchange);
+        }
+        setAlreadyRouted(exchange);
+
+        ResilienceRegistry.RouteResilience resilience = resilienceRegistry.forRoute(route);
+        HttpHeaders headers = HttpHeadersFilter.filterRequest(headersFiltersProvider.getIfAvailable(), exchange);
+        if (!exchange.getAttributeOrDefault(PRESERVE_HOST_HEADER_ATTRIBUTE, false)) {
+            headers.remove(HttpHeaders.HOST);
+        }
+        Long deadline = exchange.getAttribute(ResilienceFilter.DEADLINE_ATTR);
+        HttpClient client = downstreamClients.clientFor(route);
+        ServiceInstance primaryInstance = exchange.getAttribute(LoadBalancingFilter.INSTANCE_ATTR);
+
+        Mono<Attempt> primary = send(client, url, headers, deadline, false);
+        Mono<Attempt> hedged = Mono.delay(Duration.ofMillis(hedgeDelayMs(resilience)))
+                .then(Mono.defer(() -> {
+                    resilience.hedges.increment();
+                    ServiceInstance other = primaryInstance == null ? null
+                            : serviceRegistry.choose(primaryInstance.getServiceId(), primaryInstance);
+                    if (other == null) {
+                        return send(client, url, headers, deadline, true);
+                    }
+                    other.acquire();
+                    return send(client, ServiceRegistry.reconstruct(url, other), headers, deadline, true)
+                            .doFinally(signal -> other.release());
+                }));
+
+        return Mono.firstWithValue(primary, hedged)
+                .onErrorMap(NoSuchElementException.class, HedgingFilter::firstCause)
+                .flatMap(attempt -> {
+                    if (attempt.hedged()) {
+                        resilience.hedgeWins.increment();
+                    }
+                    return write(exchange, attempt);
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        // After RouteToRequestUrlFilter (10000) has resolved the downstream URL
+        return 10100;
+    }
+
+    private Mono<Attempt> send(HttpClient client, URI url, HttpHeaders headers, Long deadline, boolean hedged) {
+        return client
+                .headers(outbound -> {
+                    headers.forEach(outbound::set);
+                    if (deadline != null) {
+                        long remainingMs = Math.max(0, (deadline - System.nanoTime()) / 1_000_000);
+                        outbound.set(ResilienceFilter.BUDGET_HEADER, String.valueOf(remainingMs));
+                    }
+                })
+                .get()
+                .uri(url)
+                .responseSingle((response, body) -> body.asByteArray()
+                        .defaultIfEmpty(EMPTY)
+                        .map(bytes -> {
+                            HttpHeaders responseHeaders = new HttpHeaders();
+                            response.responseHeaders().forEach(e -> responseHeaders.add(e.getKey(), e.getValue()));
+                            return new Attempt(response.status().code(), responseHeaders, bytes, hedged);
+                        }));
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, Attempt attempt) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatusCode.valueOf(attempt.status()));
+        HttpHeaders filtered = HttpHeadersFilter.filter(headersFiltersProvider.getIfAvailable(),
+                attempt.headers(), exchange, Type.RESPONSE);
+        response.getHeaders().putAll(filtered);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        response.getHeaders().setContentLength(attempt.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(attempt.body())));
+    }
+
+    private static long hedgeDelayMs(ResilienceRegistry.RouteResilience resilience) {
+        ResilienceSettings.Hedge hedge = resilience.settings.getHedge();
+        long percentile = resilience.latencies.percentile(hedge.getPercentile(), System.currentTimeMillis());
+        if (percentile < 0) {
+            return hedge.getMaxDelayMs();
+        }
+        return Math.max(hedge.getMinDelayMs(), Math.min(hedge.getMaxDelayMs(), percentile));
+    }
+
+    private static boolean isHedgeable(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return request.getMethod() == HttpMethod.GET
+                && headers.getContentLength() <= 0
+                && !headers.containsKey(HttpHeaders.TRANSFER_ENCODING);
+    }
+
+    /**
+     * Both attempts failed: report the primary's error rather than Reactor's wrapper.
+     */
+    private static Throwable firstCause(NoSuchElementException e) {
+        if (e.getCause() != null) {
+            List<Throwable> causes = Exceptions.unwrapMultiple(e.getCause());
+            return causes.isEmpty() ? e.getCause() : causes.get(0);
+        }
+        return e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e;
+    }
+
+    private record Attempt(int status, HttpHeaders headers, byte[] body, boolean hedged) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.gateway.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Latencies of a route's most recent calls, used to derive the hedge delay. The
+ * percentile is recomputed at most once per second, so the hot path only stores
+ * one long under the tracker's monitor.
+ */
+class LatencyTracker {
+
+    private static final int SAMPLES = 256;
+    private static final long RECOMPUTE_INTERVAL_MS = 1000;
+
+    private final long[] latenciesMs = new long[SAMPLES];
+    private int index;
+    private int count;
+    private double cachedPercentile = -1;
+    private long cachedValue = -1;
+    private long computedAt;
+
+    synchronized void record(long latencyMs) {
+        latenciesMs[index] = latencyMs;
+        index = (index + 1) % SAMPLES;
+        if (count < SAMPLES) {
+            count++;
+        }
+    }
+
+    /**
+     * The given percentile of recent latencies, or -1 while there are fewer than 20 samples.
+     */
+    synchronized long percentile(double percentile, long nowMs) {
+        if (count < 20) {
+            return -1;
+        }
+        if (percentile != cachedPercentile || nowMs - computedAt >= RECOMPUTE_INTERVAL_MS) {
+            long[] sorted = Arrays.copyOf(latenciesMs, count);
+            Arrays.sort(sorted);
+            cachedValue = sorted[Math.min(count - 1, (int) Math.ceil(percentile * count) - 1)];
+            cachedPercentile = percentile;
+            computedAt = nowMs;
+        }
+        return cachedValue;
+    }
+}
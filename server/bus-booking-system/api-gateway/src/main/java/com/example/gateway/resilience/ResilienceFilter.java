@@ -0,0 +1,135 @@
+package com.example.gateway.resilience;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.gateway.routing.RouteSpec;
+import com.example.gateway.routing.RouteTableRegistry;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Bounds every proxied request by the route's deadline and circuit breaker.
+ *
+ * <ul>
+ *   <li>The budget is {@code resilience.timeout-ms}, shortened (never extended) by an
+ *       incoming {@value #BUDGET_HEADER} header. The remaining budget is forwarded in
+ *       the same header so services can give up on work nobody waits for. When it
+ *       runs out the call is cancelled with 504.</li>
+ *   <li>While the breaker is open requests fail fast with 503 and Retry-After. 5xx
+ *       responses, timeouts and connection errors count as failures, calls of at least
+ *       {@code slow-call-ms} as slow.</li>
+ * </ul>
+ *
+ * Both failures are {@link org.springframework.web.server.ResponseStatusException}s, so
+ * the response cache can still answer them with its last stored copy.
+ */
+@Component
+public class ResilienceFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(ResilienceFilter.class);
+
+    public static final String BUDGET_HEADER = "X-Request-Budget-Ms";
+    /** Exchange attribute: {@link System#nanoTime()} by which the request must be done. */
+    public static final String DEADLINE_ATTR = ResilienceFilter.class.getName() + ".deadline";
+
+    private final RouteTableRegistry routeTableRegistry;
+    private final ResilienceRegistry resilienceRegistry;
+
+    public ResilienceFilter(RouteTableRegistry routeTableRegistry, ResilienceRegistry resilienceRegistry) {
+        this.routeTableRegistry = routeTableRegistry;
+        this.resilienceRegistry = resilienceRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        RouteSpec route = routeTableRegistry.current().match(exchange);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        ResilienceRegistry.RouteResilience resilience = resilienceRegistry.forRoute(route);
+
+        long budgetMs = budgetMs(resilience.settings.getTimeoutMs(),
+                exchange.getRequest().getHeaders().getFirst(BUDGET_HEADER));
+        if (budgetMs < 0) {
+            resilience.deadlinesExceeded.increment();
+            return Mono.error(new DeadlineExceededException(route.getId(), 0));
+        }
+
+        long startMs = System.currentTimeMillis();
+        if (!resilience.breaker.tryAcquire(startMs)) {
+            resilience.rejections.increment();
+            long retryAfterSeconds = Math.max(1, (resilience.breaker.retryAfterMs(startMs) + 999) / 1000);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+            log.debug("Circuit open for route {}, failing fast", route.getId());
+            return Mono.error(new CircuitOpenException(route.getId(), retryAfterSeconds));
+        }
+
+        ServerWebExchange forwarded = exchange;
+        if (budgetMs > 0) {
+            exchange.getAttributes().put(DEADLINE_ATTR, System.nanoTime() + budgetMs * 1_000_000);
+            forwarded = exchange.mutate()
+                    .request(request -> request.headers(headers -> headers.set(BUDGET_HEADER, String.valueOf(budgetMs))))
+                    .build();
+        }
+
+        Mono<Void> call = chain.filter(forwarded);
+        if (budgetMs > 0) {
+            call = call.timeout(Duration.ofMillis(budgetMs),
+                    Mono.error(() -> new DeadlineExceededException(route.getId(), budgetMs)));
+        }
+        return call
+                .doOnSuccess(v -> {
+                    long now = System.currentTimeMillis();
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    boolean failure = status != null && status.is5xxServerError();
+                    resilience.breaker.record(now, now - startMs, failure);
+                    if (!failure) {
+                        resilience.latencies.record(now - startMs);
+                    }
+                })
+                .doOnError(e -> {
+                    long now = System.currentTimeMillis();
+                    if (e instanceof DeadlineExceededException) {
+                        resilience.deadlinesExceeded.increment();
+                    }
+                    resilience.breaker.record(now, now - startMs, true);
+                })
+                .doOnCancel(resilience.breaker::release);
+    }
+
+    @Override
+    public int getOrder() {
+        // Inside the response cache (-90), so a fail-fast can fall back to a cached copy
+        return -80;
+    }
+
+    /**
+     * The route timeout, lowered to the caller's budget if that is smaller;
+     * 0 means no deadline, negative an already exhausted budget.
+     */
+    private static long budgetMs(long routeTimeoutMs, String incoming) {
+        if (incoming == null) {
+            return routeTimeoutMs;
+        }
+        long callerBudget;
+        try {
+            callerBudget = Long.parseLong(incoming.trim());
+        } catch (NumberFormatException e) {
+            return routeTimeoutMs;
+        }
+        if (callerBudget <= 0) {
+            return -1;
+        }
+        return routeTimeoutMs > 0 ? Math.min(routeTimeoutMs, callerBudget) : callerBudget;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.gateway.resilience;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Component;
+
+import com.example.gateway.routing.ResilienceSettings;
+import com.example.gateway.routing.RouteSpec;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-route circuit breaker, latency tracker and meters. State is created on a
+ * route's first request and reset when a route table reload changes its
+ * resilience settings.
+ *
+ * <p>Meters, all tagged {@code route}: {@code gateway.circuit-breaker.state}
+ * (0 closed, 1 open, 2 half-open), {@code gateway.circuit-breaker.rejections},
+ * {@code gateway.deadline.exceeded}, {@code gateway.hedge.requests} and
+ * {@code gateway.hedge.wins}.
+ */
+@Component
+public class ResilienceRegistry {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteResilience> routes = new ConcurrentHashMap<>();
+
+    public ResilienceRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    RouteResilience forRoute(RouteSpec route) {
+        RouteResilience current = routes.get(route.getId());
+        if (current != null && current.settings.equals(route.getResilience())) {
+            return current;
+        }
+        return routes.compute(route.getId(), (id, existing) -> {
+            if (existing != null && existing.settings.equals(route.getResilience())) {
+                return existing;
+            }
+            if (existing == null) {
+                Gauge.builder("gateway.circuit-breaker.state", routes, r -> stateOf(r.get(id)))
+                        .tag("route", id)
+                        .register(meterRegistry);
+            }
+            return new RouteResilience(route.getResilience(), meterRegistry, id);
+        });
+    }
+
+    private static double stateOf(RouteResilience resilience) {
+        return resilience == null ? 0 : resilience.breaker.getState().ordinal();
+    }
+
+    static final class RouteResilience {
+        final ResilienceSettings settings;
+        final CircuitBreaker breaker;
+        final LatencyTracker latencies = new LatencyTracker();
+        final Counter rejections;
+        final Counter deadlinesExceeded;
+        final Counter hedges;
+        final Counter hedgeWins;
+
+        RouteResilience(ResilienceSettings settings, MeterRegistry meterRegistry, String routeId) {
+            this.settings = settings;
+            this.breaker = new CircuitBreaker(settings.getCircuitBreaker());
+            this.rejections = meterRegistry.counter("gateway.circuit-breaker.rejections", "route", routeId);
+            this.deadlinesExceeded = meterRegistry.counter("gateway.deadline.exceeded", "route", routeId);
+            this.hedges = meterRegistry.counter("gateway.hedge.requests", "route", routeId);
+            this.hedgeWins = meterRegistry.counter("gateway.hedge.wins", "route", routeId);
+        }
+    }
+}
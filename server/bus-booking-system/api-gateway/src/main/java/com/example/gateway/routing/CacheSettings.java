@@ -0,0 +1,28 @@
+package com.example.gateway.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * Gateway response caching for a route; caching is off unless {@code ttlMs} is set.
+ * Only use it for routes serving the same data to every caller, and list paths
+ * that return per-user data under {@code bypassPaths}. Requests carrying a
+ * token or user identity skip the cache unless {@code cacheAuthenticated} is set.
+ */
+@Data
+public class CacheSettings {
+    /** How long a stored GET response is served without asking the service. */
+    private long ttlMs;
+    /** How long after the TTL a stale response may still be served while it is refreshed in the background. */
+    private long staleWhileRevalidateMs;
+    /** Paths (same syntax as route paths) that are never cached. */
+    private List<String> bypassPaths = new ArrayList<>();
+    /** Also serve and store requests from signed-in callers; only if no path of the route varies by user. */
+    private boolean cacheAuthenticated;
+
+    public boolean isEnabled() {
+        return ttlMs > 0;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.gateway.routing;
+
+import lombok.Data;
+
+/**
+ * Request coalescing for a route: concurrent identical GETs share one call to
+ * the service. Off unless {@code enabled}.
+ */
+@Data
+public class CoalesceSettings {
+    private boolean enabled;
+    /** Requests that may wait on one call; further identical requests go to the service themselves. */
+    private int maxWaiters = 1000;
+    /** How long a waiting request waits before going to the service itself. */
+    private long timeoutMs = 5000;
+    /** Larger responses are not shared; the waiting requests are then sent on their own. */
+    private int maxBodyBytes = 1048576;
+}
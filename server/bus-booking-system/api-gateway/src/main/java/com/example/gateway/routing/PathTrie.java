@@ -0,0 +1,99 @@
+package com.example.gateway.routing;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Segment trie for request paths, built once per route table and then read-only.
+ * Supported pattern segments: literals, {@code *} (exactly one segment) and a
+ * trailing {@code **} (zero or more segments). Lookup cost depends on the depth
+ * of the request path, not on the number of registered patterns; when several
+ * patterns match, literal segments win over {@code *}, and an exact match wins
+ * over the deepest {@code **}.
+ */
+public final class PathTrie<T> {
+
+    private static final String SINGLE = "*";
+    private static final String MULTI = "**";
+
+    private final Node<T> root = new Node<>();
+
+    public void insert(String pattern, T value) {
+        Node<T> node = root;
+        String[] segments = split(pattern);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (MULTI.equals(segment)) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' is only supported as the last segment: " + pattern);
+                }
+                node.catchAll = value;
+                return;
+            }
+            if (SINGLE.equals(segment)) {
+                if (node.any == null) {
+                    node.any = new Node<>();
+                }
+                node = node.any;
+            } else {
+                node = node.children.computeIfAbsent(segment, s -> new Node<>());
+            }
+        }
+        node.exact = value;
+    }
+
+    /**
+     * Inserts {@code prefix} so that it matches the path itself and anything below it.
+     */
+    public void insertPrefix(String prefix, T value) {
+        String normalized = prefix.endsWith("/") ? prefix : prefix + "/";
+        insert(normalized + MULTI, value);
+    }
+
+    /**
+     * Returns the most specific value matching the path, or null.
+     */
+    public T match(String path) {
+        return match(root, split(path), 0);
+    }
+
+    private T match(Node<T> node, String[] segments, int index) {
+        if (index == segments.length) {
+            return node.exact != null ? node.exact : node.catchAll;
+        }
+
+        Node<T> child = node.children.get(segments[index]);
+        if (child != null) {
+            T value = match(child, segments, index + 1);
+            if (value != null) {
+                return value;
+            }
+        }
+        if (node.any != null) {
+            T value = match(node.any, segments, index + 1);
+            if (value != null) {
+                return value;
+            }
+        }
+        return node.catchAll;
+    }
+
+    private static String[] split(String path) {
+        int start = 0;
+        int end = path.length();
+        while (start < end && path.charAt(start) == '/') {
+            start++;
+        }
+        while (end > start && path.charAt(end - 1) == '/') {
+            end--;
+        }
+        return start == end ? new String[0] : path.substring(start, end).split("/+");
+    }
+
+    private static final class Node<T> {
+        private final Map<String, Node<T>> children = new HashMap<>();
+        private Node<T> any;
+        private T exact;
+        private T catchAll;
+    }
+}
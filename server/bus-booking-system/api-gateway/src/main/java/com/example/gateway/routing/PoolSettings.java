@@ -0,0 +1,39 @@
+package com.example.gateway.routing;
+
+import lombok.Data;
+
+/**
+ * Connection pool and protocol settings for the client that proxies a route.
+ * Unset (null) fields fall back to the gateway-wide defaults under
+ * {@code gateway.http-client.pool}.
+ */
+@Data
+public class PoolSettings {
+    private Integer maxConnections;
+    private Integer pendingAcquireMaxCount;
+    private Long acquireTimeoutMs;
+    private Long maxIdleTimeMs;
+    private Long maxLifeTimeMs;
+    private Long evictIntervalMs;
+    private Integer connectTimeoutMs;
+    private Boolean keepAlive;
+    /** Negotiate cleartext HTTP/2 (h2c upgrade, falling back to HTTP/1.1). */
+    private Boolean h2c;
+
+    /**
+     * These settings with every unset field taken from {@code defaults}.
+     */
+    public PoolSettings withDefaults(PoolSettings defaults) {
+        PoolSettings merged = new PoolSettings();
+        merged.maxConnections = maxConnections != null ? maxConnections : defaults.maxConnections;
+        merged.pendingAcquireMaxCount = pendingAcquireMaxCount != null ? pendingAcquireMaxCount : defaults.pendingAcquireMaxCount;
+        merged.acquireTimeoutMs = acquireTimeoutMs != null ? acquireTimeoutMs : defaults.acquireTimeoutMs;
+        merged.maxIdleTimeMs = maxIdleTimeMs != null ? maxIdleTimeMs : defaults.maxIdleTimeMs;
+        merged.maxLifeTimeMs = maxLifeTimeMs != null ? maxLifeTimeMs : defaults.maxLifeTimeMs;
+        merged.evictIntervalMs = evictIntervalMs != null ? evictIntervalMs : defaults.evictIntervalMs;
+        merged.connectTimeoutMs = connectTimeoutMs != null ? connectTimeoutMs : defaults.connectTimeoutMs;
+        merged.keepAlive = keepAlive != null ? keepAlive : defaults.keepAlive;
+        merged.h2c = h2c != null ? h2c : defaults.h2c;
+        return merged;
+    }
+}
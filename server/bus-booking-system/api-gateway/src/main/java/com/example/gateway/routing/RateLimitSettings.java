@@ -0,0 +1,35 @@
+package com.example.gateway.routing;
+
+import lombok.Data;
+
+/**
+ * Token-bucket limits for a route. Authenticated requests draw from a bucket per
+ * user, anonymous ones from a bucket per client IP; a limit left unset means no
+ * limit for that kind of caller.
+ */
+@Data
+public class RateLimitSettings {
+    private Limit ip;
+    private Limit user;
+
+    public boolean isEnabled() {
+        return ip != null || user != null;
+    }
+
+    /** True if every limit that is set has a positive capacity and refill rate. */
+    public boolean isValid() {
+        return isValid(ip) && isValid(user);
+    }
+
+    private static boolean isValid(Limit limit) {
+        return limit == null || (limit.getCapacity() > 0 && limit.getRefillPerSecond() > 0);
+    }
+
+    @Data
+    public static class Limit {
+        /** Bucket size: the burst a caller may send at once. */
+        private int capacity;
+        /** Tokens added back per second: the sustained request rate. */
+        private double refillPerSecond;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.gateway.routing;
+
+import lombok.Data;
+
+/**
+ * Deadline, circuit breaker and hedging settings for a route. Every route gets
+ * the defaults below; routes.yml only needs the values that differ.
+ */
+@Data
+public class ResilienceSettings {
+    /** Total time budget for a request through the gateway; 0 disables the deadline. */
+    private long timeoutMs = 10000;
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private Hedge hedge = new Hedge();
+
+    @Data
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        /** Outcomes (last N calls) the failure and slow-call rates are computed over. */
+        private int windowSize = 50;
+        /** Calls needed in the window before the breaker may open. */
+        private int minimumCalls = 20;
+        /** Open when this percentage of calls failed (5xx, timeout, connection error). */
+        private int failureRateThreshold = 50;
+        /** Open when this percentage of calls took at least {@code slowCallMs}. */
+        private int slowCallRateThreshold = 80;
+        private long slowCallMs = 3000;
+        /** How long the breaker stays open before letting trial calls through. */
+        private long openMs = 10000;
+        /** Trial calls in half-open state; all must succeed to close again. */
+        private int halfOpenCalls = 5;
+    }
+
+    @Data
+    public static class Hedge {
+        /** Send a second GET when the first has not answered after the hedge delay. */
+        private boolean enabled;
+        /** Latency percentile of recent calls used as the hedge delay. */
+        private double percentile = 0.95;
+        private long minDelayMs = 20;
+        /** Also the delay while there are too few samples for a percentile. */
+        private long maxDelayMs = 1000;
+    }
+}
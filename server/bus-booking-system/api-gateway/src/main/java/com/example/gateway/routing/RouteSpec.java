@@ -0,0 +1,31 @@
+package com.example.gateway.routing;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * One route of the external route table.
+ * {@code metadata} holds per-route settings (e.g. timeouts, limits) that are
+ * copied onto the Spring Cloud Gateway route and read by the gateway filters.
+ * The typed sections tune gateway behaviour for the route: {@code pool} (downstream
+ * connection pool), {@code cache} (response caching), {@code rateLimit}
+ * (per-client request limits), {@code resilience} (deadline, circuit breaker
+ * and hedging) and {@code coalesce} (sharing one call between identical GETs).
+ */
+@Data
+public class RouteSpec {
+    private String id;
+    private List<String> paths = new ArrayList<>();
+    private String uri;
+    private int stripPrefix = 1;
+    private Map<String, String> metadata = new HashMap<>();
+    private PoolSettings pool = new PoolSettings();
+    private CacheSettings cache = new CacheSettings();
+    private RateLimitSettings rateLimit = new RateLimitSettings();
+    private ResilienceSettings resilience = new ResilienceSettings();
+    private CoalesceSettings coalesce = new CoalesceSettings();
+}
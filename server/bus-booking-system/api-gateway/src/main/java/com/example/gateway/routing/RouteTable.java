@@ -0,0 +1,107 @@
+package com.example.gateway.routing;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Immutable, precompiled snapshot of the route table: the route list and service
+ * registry plus path tries for route lookup, auth exclusions and response cache
+ * bypasses.
+ */
+public final class RouteTable {
+
+    /** Exchange attribute caching the route matched for the request path. */
+    public static final String MATCHED_ROUTE_ATTR = RouteTable.class.getName() + ".matchedRoute";
+
+    /** Route uri scheme that selects an instance of a service from {@code services}. */
+    public static final String LOAD_BALANCED_SCHEME = "lb";
+
+    private final List<RouteSpec> routes;
+    private final Map<String, ServiceSpec> services;
+    private final List<String> excludedPaths;
+    private final PathTrie<RouteSpec> routeTrie = new PathTrie<>();
+    private final PathTrie<Boolean> exclusionTrie = new PathTrie<>();
+    private final PathTrie<Boolean> cacheBypassTrie = new PathTrie<>();
+
+    public RouteTable(RouteTableProperties properties) {
+        this.routes = List.copyOf(properties.getRoutes());
+        this.services = Map.copyOf(properties.getServices());
+        services.forEach((id, service) -> {
+            if (service.getInstances().isEmpty()
+                    || service.getInstances().stream().anyMatch(instance -> instance.getUri() == null)) {
+                throw new IllegalArgumentException("Service needs at least one instance, each with a uri: " + id);
+            }
+        });
+        this.excludedPaths = List.copyOf(properties.getAuth().getExcludedPaths());
+        for (RouteSpec route : routes) {
+            if (route.getId() == null || route.getUri() == null || route.getPaths().isEmpty()) {
+                throw new IllegalArgumentException("Route needs id, uri and at least one path: " + route);
+            }
+            URI uri = URI.create(route.getUri());
+            if (LOAD_BALANCED_SCHEME.equals(uri.getScheme()) && !services.containsKey(uri.getHost())) {
+                throw new IllegalArgumentException("Route " + route.getId() + " uses unknown service " + uri.getHost());
+            }
+            if (!route.getRateLimit().isValid()) {
+                throw new IllegalArgumentException("Route " + route.getId()
+                        + " rate-limit needs a positive capacity and refill-per-second");
+            }
+            for (String path : route.getPaths()) {
+                routeTrie.insert(path, route);
+            }
+            for (String path : route.getCache().getBypassPaths()) {
+                cacheBypassTrie.insert(path, Boolean.TRUE);
+            }
+        }
+        for (String excluded : excludedPaths) {
+            exclusionTrie.insertPrefix(excluded, Boolean.TRUE);
+        }
+    }
+
+    public List<RouteSpec> getRoutes() {
+        return routes;
+    }
+
+    public Map<String, ServiceSpec> getServices() {
+        return services;
+    }
+
+    public List<String> getExcludedPaths() {
+        return excludedPaths;
+    }
+
+    public RouteSpec match(String path) {
+        return routeTrie.match(path);
+    }
+
+    /**
+     * Route for the exchange's path, looked up once and cached on the exchange.
+     */
+    public RouteSpec match(ServerWebExchange exchange) {
+        Object cached = exchange.getAttributes().get(MATCHED_ROUTE_ATTR);
+        if (cached instanceof RouteSpec route) {
+            return route;
+        }
+        RouteSpec route = match(exchange.getRequest().getPath().value());
+        if (route != null) {
+            exchange.getAttributes().put(MATCHED_ROUTE_ATTR, route);
+        }
+        return route;
+    }
+
+    /**
+     * True if the path equals or lies below one of the auth-excluded paths.
+     */
+    public boolean isExcluded(String path) {
+        return exclusionTrie.match(path) != null;
+    }
+
+    /**
+     * True if responses for the path must never be served from or stored in the response cache.
+     */
+    public boolean isCacheBypassed(String path) {
+        return cacheBypassTrie.match(path) != null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.gateway.routing;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * Binding target for the route table file (keys under {@code gateway}).
+ */
+@Data
+public class RouteTableProperties {
+    private Auth auth = new Auth();
+    private List<RouteSpec> routes = new ArrayList<>();
+    private Map<String, ServiceSpec> services = new LinkedHashMap<>();
+
+    @Data
+    public static class Auth {
+        private List<String> excludedPaths = new ArrayList<>();
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.gateway.routing;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.BindResult;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the route table from an external YAML file ({@code gateway.routes.location})
+ * and reloads it when the file changes, without a restart. Each load is compiled
+ * into an immutable {@link RouteTable}; a file that fails to parse or validate is
+ * logged and the previous table stays active. After a successful reload a
+ * {@link RefreshRoutesEvent} makes Spring Cloud Gateway rebuild its routes.
+ * Values may use ${...} placeholders resolved against the application environment.
+ */
+@Component
+public class RouteTableRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteTableRegistry.class);
+
+    private final Resource resource;
+    private final ConfigurableEnvironment environment;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile RouteTable current;
+    private long lastModified;
+
+    public RouteTableRegistry(
+            @Value("${gateway.routes.location:classpath:routes.yml}") String location,
+            ResourceLoader resourceLoader,
+            ConfigurableEnvironment environment,
+            ApplicationEventPublisher eventPublisher) throws IOException {
+        this.resource = resourceLoader.getResource(location);
+        this.environment = environment;
+        this.eventPublisher = eventPublisher;
+        this.lastModified = lastModified();
+        this.current = load();
+        logTable(current);
+    }
+
+    public RouteTable current() {
+        return current;
+    }
+
+    @Scheduled(fixedDelayString = "${gateway.routes.reload-interval-ms:5000}",
+            initialDelayString = "${gateway.routes.reload-interval-ms:5000}")
+    public synchronized void reloadIfChanged() {
+        long modified = lastModified();
+        if (modified == lastModified) {
+            return;
+        }
+        lastModified = modified;
+        try {
+            current = load();
+            log.info("Route table reloaded from {}", resource.getDescription());
+            logTable(current);
+            eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+        } catch (Exception e) {
+            log.error("Failed to reload route table from {}, keeping previous table: {}",
+                    resource.getDescription(), e.getMessage());
+        }
+    }
+
+    private RouteTable load() throws IOException {
+        List<PropertySource<?>> sources = new YamlPropertySourceLoader().load("gateway-routes", resource);
+        Binder binder = new Binder(ConfigurationPropertySources.from(sources),
+                new PropertySourcesPlaceholdersResolver(environment));
+        BindResult<RouteTableProperties> result = binder.bind("gateway", RouteTableProperties.class);
+        return new RouteTable(result.orElseGet(RouteTableProperties::new));
+    }
+
+    private long lastModified() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            // Not a file (e.g. inside the jar): never changes
+            return 0L;
+        }
+    }
+
+    private void logTable(RouteTable table) {
+        log.info("API Gateway routes configured:");
+        for (RouteSpec route : table.getRoutes()) {
+            log.info("  - {} -> {} ({})", route.getPaths(), route.getUri(), route.getId());
+        }
+        log.info("Auth excluded paths: {}", table.getExcludedPaths());
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.gateway.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+/**
+ * A backend service with its instances, referenced from routes as
+ * {@code lb://<service id>}. Requests are spread over the healthy instances
+ * that are not draining.
+ */
+@Data
+public class ServiceSpec {
+    private List<Instance> instances = new ArrayList<>();
+    /** {@code power-of-two} (default) or {@code least-outstanding}. */
+    private String strategy = "power-of-two";
+    private HealthCheck health = new HealthCheck();
+
+    @Data
+    public static class Instance {
+        private String uri;
+        /** Receives no new requests; requests already in flight finish normally. */
+        private boolean draining;
+    }
+
+    @Data
+    public static class HealthCheck {
+        /** Path probed with GET on every instance; empty disables active checks. */
+        private String path = "/actuator/health";
+        private long timeoutMs = 1000;
+        /** Consecutive failed probes before an instance is taken out. */
+        private int unhealthyThreshold = 2;
+        /** Consecutive successful probes before it is put back. */
+        private int healthyThreshold = 1;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.gateway.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Signs the identity headers forwarded to downstream services.
+ * Signature = base64url(HMAC-SHA256(secret, userId|email|role|expiresEpochSeconds)),
+ * so a service sharing the secret can trust the headers with one HMAC instead
+ * of re-parsing the JWT. The secret is a trust boundary of its own: it must be
+ * set, and must not be the JWT secret, or startup fails.
+ */
+@Component
+public class IdentityHeaderSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+
+    public IdentityHeaderSigner(
+            @Value("${gateway.identity.signing-secret:}") String secret,
+            @Value("${jwt.secret}") String jwtSecret) {
+        if (secret.isBlank()) {
+            throw new IllegalStateException("gateway.identity.signing-secret (GATEWAY_IDENTITY_SECRET) is not set");
+        }
+        if (secret.equals(jwtSecret)) {
+            throw new IllegalStateException("gateway.identity.signing-secret must differ from jwt.secret");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(this::newMac);
+    }
+
+    public String sign(String userId, String email, String role, long expiresEpochSeconds) {
+        String payload = nullToEmpty(userId) + '|' + nullToEmpty(email) + '|' + nullToEmpty(role) + '|'
+                + expiresEpochSeconds;
+        byte[] signature = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac instance = Mac.getInstance(ALGORITHM);
+            instance.init(key);
+            return instance;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+}
@@ -3,7 +3,6 @@ package com.example.gateway.security;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
@@ -14,74 +13,132 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
-import java.util.List;
-import java.util.UUID;
+import com.example.gateway.routing.RouteTableRegistry;
+import com.example.gateway.tracing.TracingFilter;
+import com.example.shared.tracing.TraceContext;
+
+import java.util.Optional;
 
 /**
  * JWT Authentication Filter for API Gateway.
- * Validates JWT tokens from cookies for protected routes.
- * For Option B: Basic validation at gateway, full validation at Identity
- * Service.
+ * Verifies JWT tokens from cookies for protected routes (results are cached per
+ * token by {@link JwtVerifier}) and rejects invalid tokens with 401 before
+ * proxying. Valid tokens are forwarded together with signed X-User-* identity
+ * headers; client-supplied X-User-* headers are always stripped.
  */
 @Component
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
     private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private static final String CORRELATION_ID_HEADER = "X-Correlation-ID";
+    private static final String CORRELATION_ID_MDC_KEY = "correlationId";
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+    public static final String USER_EXPIRES_HEADER = "X-User-Expires";
+    public static final String USER_SIGNATURE_HEADER = "X-User-Signature";
 
-    @Value("${gateway.auth.excluded-paths:/api/auth/login,/api/auth/register}")
-    private List<String> excludedPaths;
+    /** Exchange attribute holding the {@link TrustedIdentity} of an authenticated request. */
+    public static final String IDENTITY_ATTR = JwtAuthenticationFilter.class.getName() + ".identity";
+
+    private final JwtVerifier jwtVerifier;
+    private final RouteTableRegistry routeTableRegistry;
+
+    public JwtAuthenticationFilter(JwtVerifier jwtVerifier, RouteTableRegistry routeTableRegistry) {
+        this.jwtVerifier = jwtVerifier;
+        this.routeTableRegistry = routeTableRegistry;
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
-        String path = request.getPath().value();
-        String method = request.getMethod().name();
 
-        // Generate or extract correlation ID
+        // Extract the correlation ID, defaulting to the trace ID so logs and spans line up
         String correlationId = request.getHeaders().getFirst(CORRELATION_ID_HEADER);
         if (correlationId == null || correlationId.isBlank()) {
-            correlationId = UUID.randomUUID().toString().substring(0, 8);
+            TraceContext trace = exchange.getAttribute(TracingFilter.TRACE_ATTR);
+            correlationId = trace != null ? trace.traceId() : TraceContext.newTrace(false).traceId();
+        }
+
+        // Expose the correlation ID to the (async, JSON) appenders for the synchronous
+        // part of the filter; the event loop thread is shared, so always clear it
+        MDC.put(CORRELATION_ID_MDC_KEY, correlationId);
+        try {
+            return authenticate(exchange, chain, correlationId);
+        } finally {
+            MDC.remove(CORRELATION_ID_MDC_KEY);
         }
-        final String finalCorrelationId = correlationId;
+    }
 
-        log.info("[{}] Incoming request: {} {}", correlationId, method, path);
+    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain, String correlationId) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+
+        log.info("[{}] Incoming request: {} {}", correlationId, request.getMethod().name(), path);
 
         // Skip authentication for public endpoints
         if (isExcludedPath(path)) {
             log.debug("[{}] Path {} is excluded from authentication", correlationId, path);
-            return forwardWithCorrelationId(exchange, chain, correlationId, null);
+            return forwardWithCorrelationId(exchange, chain, correlationId, null, null);
         }
 
         // Extract token from cookies
         String token = extractTokenFromCookies(exchange);
 
         if (token != null) {
-            log.debug("[{}] Token found in cookies, forwarding to downstream service", correlationId);
-            return forwardWithCorrelationId(exchange, chain, correlationId, token);
+            Optional<TrustedIdentity> identity = jwtVerifier.verify(token);
+            if (identity.isEmpty()) {
+                log.debug("[{}] Invalid or expired token, rejecting request", correlationId);
+                exchange.getResponse().setStatusCode(HttpStatus.UNAUTHORIZED);
+                exchange.getResponse().getHeaders().set(CORRELATION_ID_HEADER, correlationId);
+                return exchange.getResponse().setComplete();
+            }
+            log.debug("[{}] Token verified, forwarding to downstream service", correlationId);
+            return forwardWithCorrelationId(exchange, chain, correlationId, token, identity.get());
         }
 
         // No token found - allow request to proceed (downstream service handles auth)
         log.debug("[{}] No token found, forwarding request without authentication", correlationId);
-        return forwardWithCorrelationId(exchange, chain, correlationId, null);
+        return forwardWithCorrelationId(exchange, chain, correlationId, null, null);
     }
 
     private Mono<Void> forwardWithCorrelationId(ServerWebExchange exchange, GatewayFilterChain chain,
-            String correlationId, String token) {
+            String correlationId, String token, TrustedIdentity identity) {
         ServerHttpRequest.Builder requestBuilder = exchange.getRequest().mutate()
+                .headers(headers -> {
+                    headers.remove(USER_ID_HEADER);
+                    headers.remove(USER_EMAIL_HEADER);
+                    headers.remove(USER_ROLE_HEADER);
+                    headers.remove(USER_EXPIRES_HEADER);
+                    headers.remove(USER_SIGNATURE_HEADER);
+                })
                 .header(CORRELATION_ID_HEADER, correlationId);
 
         if (token != null) {
             requestBuilder.header("Authorization", "Bearer " + token);
         }
 
+        if (identity != null) {
+            exchange.getAttributes().put(IDENTITY_ATTR, identity);
+            if (identity.getUserId() != null) {
+                requestBuilder.header(USER_ID_HEADER, identity.getUserId());
+            }
+            requestBuilder.header(USER_EMAIL_HEADER, identity.getEmail());
+            if (identity.getRole() != null) {
+                requestBuilder.header(USER_ROLE_HEADER, identity.getRole());
+            }
+            requestBuilder.header(USER_EXPIRES_HEADER, String.valueOf(identity.getExpiresAt().getEpochSecond()));
+            requestBuilder.header(USER_SIGNATURE_HEADER, identity.getSignature());
+        }
+
         return chain.filter(exchange.mutate().request(requestBuilder.build()).build())
                 .doOnSuccess(v -> log.debug("[{}] Request completed successfully", correlationId))
                 .doOnError(e -> log.error("[{}] Request failed: {}", correlationId, e.getMessage()));
     }
 
     private boolean isExcludedPath(String path) {
-        return excludedPaths.stream().anyMatch(excluded -> path.startsWith(excluded));
+        return routeTableRegistry.current().isExcluded(path);
     }
 
     private String extractTokenFromCookies(ServerWebExchange exchange) {
@@ -0,0 +1,155 @@
+package com.example.gateway.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.SecretKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Verifies access tokens issued by identity-service and caches the result per
+ * token until the token expires. Cache keys are the SHA-256 of the token, so a
+ * hot token costs one hash lookup instead of a full parse and HMAC check on the
+ * event loop.
+ */
+@Component
+public class JwtVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtVerifier.class);
+    private static final Base64.Encoder KEY_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final JwtParser parser;
+    private final IdentityHeaderSigner signer;
+    private final Map<String, TrustedIdentity> cache = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public JwtVerifier(
+            @Value("${jwt.secret}") String secret,
+            @Value("${gateway.auth.token-cache-size:10000}") int maxSize,
+            IdentityHeaderSigner signer,
+            MeterRegistry meterRegistry) {
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(createSecureKey(secret))
+                .build();
+        this.signer = signer;
+        this.maxSize = maxSize;
+        FunctionCounter.builder("gateway.jwt.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("gateway.jwt.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("gateway.jwt.rejections", rejections, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("gateway.jwt.cache.size", cache, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Returns the identity for a valid token, or empty if the token is malformed,
+     * badly signed or expired.
+     */
+    public Optional<TrustedIdentity> verify(String token) {
+        String key = keyOf(token);
+        Instant now = Instant.now();
+
+        TrustedIdentity cached = cache.get(key);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                hits.increment();
+                return Optional.of(cached);
+            }
+            cache.remove(key, cached);
+        }
+        misses.increment();
+
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            TrustedIdentity identity = toIdentity(claims);
+            if (cache.size() >= maxSize) {
+                makeRoom(now);
+            }
+            cache.put(key, identity);
+            return Optional.of(identity);
+        } catch (Exception e) {
+            rejections.increment();
+            log.debug("Token verification failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private TrustedIdentity toIdentity(Claims claims) {
+        Object userId = claims.get("uid");
+        String id = userId != null ? userId.toString() : null;
+        String email = claims.getSubject();
+        String role = claims.get("role", String.class);
+        Instant expiresAt = claims.getExpiration().toInstant();
+        return TrustedIdentity.builder()
+                .userId(id)
+                .email(email)
+                .role(role)
+                .expiresAt(expiresAt)
+                .signature(signer.sign(id, email, role, expiresAt.getEpochSecond()))
+                .build();
+    }
+
+    private void makeRoom(Instant now) {
+        cache.values().removeIf(identity -> identity.isExpired(now));
+        if (cache.size() < maxSize) {
+            return;
+        }
+        int toRemove = Math.max(1, maxSize / 10);
+        Iterator<String> it = cache.keySet().iterator();
+        while (toRemove-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private String keyOf(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return KEY_ENCODER.encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Same key derivation as identity-service's JwtTokenProvider.
+     */
+    private SecretKey createSecureKey(String secret) {
+        byte[] keyBytes;
+        try {
+            keyBytes = Base64.getDecoder().decode(secret);
+        } catch (IllegalArgumentException ex) {
+            keyBytes = null;
+        }
+        if (keyBytes == null || keyBytes.length < 32) {
+            try {
+                keyBytes = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+        return Keys.hmacShaKeyFor(keyBytes);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.gateway.security;
+
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Identity extracted from a verified JWT, together with the signature the
+ * gateway attaches to the forwarded X-User-* headers.
+ */
+@Value
+@Builder
+public class TrustedIdentity {
+    String userId;
+    String email;
+    String role;
+    Instant expiresAt;
+    String signature;
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+}
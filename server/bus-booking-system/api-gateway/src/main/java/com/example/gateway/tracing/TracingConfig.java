@@ -0,0 +1,26 @@
+package com.example.gateway.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.shared.tracing.SpanExporter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * The shared span exporter, writing to {@code tracing.export.file}.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean(destroyMethod = "close")
+    public SpanExporter spanExporter(
+            @Value("${spring.application.name}") String service,
+            @Value("${tracing.export.file:./logs/spans.jsonl}") String file,
+            @Value("${tracing.export.max-file-bytes:104857600}") long maxFileBytes,
+            @Value("${tracing.export.queue-capacity:8192}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        return new SpanExporter(service, file, maxFileBytes, queueCapacity, meterRegistry);
+    }
+}
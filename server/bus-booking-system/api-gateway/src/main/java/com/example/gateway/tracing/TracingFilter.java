@@ -0,0 +1,89 @@
+package com.example.gateway.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.gateway.routing.RouteSpec;
+import com.example.gateway.routing.RouteTable;
+import com.example.shared.tracing.Span;
+import com.example.shared.tracing.SpanExporter;
+import com.example.shared.tracing.TraceContext;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Starts the gateway's server span for every request, continuing the caller's
+ * W3C {@code traceparent} if there is one. When the exchange completes it
+ * exports the server span and, if the request was proxied, a
+ * {@code gateway.filters} span for the time spent in gateway filters before the
+ * upstream call (see {@link UpstreamSpanFilter}).
+ *
+ * <p>The gateway is the edge, so it makes the sampling decision itself with
+ * probability {@code tracing.sample-rate}, also for requests that arrive with a
+ * traceparent: their trace id is kept for correlation, but a client setting the
+ * sampled flag cannot force every request into the exporter. Services behind
+ * the gateway keep its decision. Unsampled requests still carry ids.
+ */
+@Component
+public class TracingFilter implements GlobalFilter, Ordered {
+
+    /** Exchange attribute holding the {@link TraceContext} of the gateway's server span. */
+    public static final String TRACE_ATTR = TracingFilter.class.getName() + ".context";
+    /** Exchange attribute: {@link System#nanoTime()} at which the upstream call started. */
+    static final String UPSTREAM_START_ATTR = TracingFilter.class.getName() + ".upstreamStart";
+
+    private final SpanExporter exporter;
+    private final double sampleRate;
+
+    public TracingFilter(SpanExporter exporter, @Value("${tracing.sample-rate:0.05}") double sampleRate) {
+        this.exporter = exporter;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        ServerHttpRequest request = exchange.getRequest();
+        TraceContext incoming = TraceContext.parse(request.getHeaders().getFirst(TraceContext.HEADER));
+        TraceContext server = incoming != null
+                ? new TraceContext(incoming.traceId(), TraceContext.newSpanId(), TraceContext.sample(sampleRate))
+                : TraceContext.newTrace(TraceContext.sample(sampleRate));
+        exchange.getAttributes().put(TRACE_ATTR, server);
+        if (!server.sampled()) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange).doFinally(signal -> {
+            long end = System.nanoTime();
+            Long upstreamStart = exchange.getAttribute(UPSTREAM_START_ATTR);
+            if (upstreamStart != null) {
+                Span filters = new Span(server.traceId(), server, TraceContext.newSpanId(),
+                        "gateway.filters", "INTERNAL", start);
+                filters.end(upstreamStart);
+                exporter.export(filters);
+            }
+            Object route = exchange.getAttribute(RouteTable.MATCHED_ROUTE_ATTR);
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            Span span = new Span(server.traceId(), incoming, server.spanId(),
+                    request.getMethod().name() + " " + request.getPath().value(), "SERVER", start)
+                    .attribute("http.method", request.getMethod().name())
+                    .attribute("http.target", request.getPath().value())
+                    .attribute("http.status_code", status != null ? status.value() : null)
+                    .attribute("gateway.route", route instanceof RouteSpec spec ? spec.getId() : null)
+                    .attribute("outcome", signal.name().toLowerCase());
+            span.end(end);
+            exporter.export(span);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // First, so the span includes authentication and the other gateway filters
+        return -200;
+    }
+}
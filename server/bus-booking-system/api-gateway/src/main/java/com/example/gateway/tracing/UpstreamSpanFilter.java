@@ -0,0 +1,68 @@
+package com.example.gateway.tracing;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+import java.net.URI;
+
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.shared.tracing.Span;
+import com.example.shared.tracing.SpanExporter;
+import com.example.shared.tracing.TraceContext;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Times the call to the service as a {@code gateway.upstream} client span and
+ * forwards its context in {@code traceparent}, so the service's spans become
+ * its children. The span runs from just before the request is sent until the
+ * response headers have arrived; streaming the body to the client is part of
+ * the gateway's server span.
+ */
+@Component
+public class UpstreamSpanFilter implements GlobalFilter, Ordered {
+
+    private final SpanExporter exporter;
+
+    public UpstreamSpanFilter(SpanExporter exporter) {
+        this.exporter = exporter;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        TraceContext server = exchange.getAttribute(TracingFilter.TRACE_ATTR);
+        if (server == null) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        TraceContext upstream = server.withSpanId(TraceContext.newSpanId());
+        exchange.getAttributes().put(TracingFilter.UPSTREAM_START_ATTR, start);
+        ServerWebExchange traced = exchange.mutate()
+                .request(request -> request.headers(headers -> headers.set(TraceContext.HEADER, upstream.toTraceparent())))
+                .build();
+        if (!server.sampled()) {
+            return chain.filter(traced);
+        }
+        return chain.filter(traced).doFinally(signal -> {
+            URI url = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            Span span = new Span(server.traceId(), server, upstream.spanId(), "gateway.upstream", "CLIENT", start)
+                    .attribute("net.peer", url != null ? url.getAuthority() : null)
+                    .attribute("http.status_code", status != null ? status.value() : null)
+                    .attribute("outcome", signal.name().toLowerCase());
+            span.end();
+            exporter.export(span);
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // After load balancing (10050) has picked the instance, before hedging and routing
+        return 10075;
+    }
+}
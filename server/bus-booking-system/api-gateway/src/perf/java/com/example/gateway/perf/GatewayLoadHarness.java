@@ -0,0 +1,243 @@
+package com.example.gateway.perf;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.gateway.ApiGatewayApplication;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import reactor.core.publisher.Hooks;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Measures the gateway's own overhead: filter chain, JWT verification, CORS and
+ * the default filters, with the services replaced by in-process stubs
+ * ({@link StubBackends}) on ports 8081-8087. Everything runs in one JVM with no
+ * network beyond loopback.
+ *
+ * <p>Load is open-model: requests are sent at a constant arrival rate whether or
+ * not earlier ones have completed, and latency is measured from each request's
+ * scheduled send time, so a stalled gateway shows up as queueing delay instead
+ * of as a lower request rate. Each route is driven on its own (warm-up, then the
+ * measured run); a final run against a stub directly gives the baseline to
+ * subtract. Reported per route: p50/p99/p999/max from an HdrHistogram, achieved
+ * throughput, errors (failed requests, statuses of 400 and up, and requests
+ * still unanswered at the end of the run), errors Reactor dropped anywhere in
+ * the JVM because nothing was left to deliver them to (e.g. a pool acquire
+ * timeout after the client gave up), and the allocation rate of the gateway's threads (every
+ * thread except the stubs' event loops and delay timer, the load generator's
+ * and the driver).
+ *
+ *   ./gradlew gatewayHarness -Prate=5000 -PdurationSeconds=20 -PlatencyMs=5 -PbodyBytes=2048
+ *
+ * Further gateway properties can be passed as -PspringArgs="--tracing.sample-rate=0 ...".
+ */
+public final class GatewayLoadHarness {
+
+    private static final int[] STUB_PORTS = { 8081, 8082, 8083, 8084, 8085, 8086, 8087 };
+    private static final String[][] ROUTES = {
+            { "identity-service-users", "/api/users/1" },
+            { "company-service", "/api/companies/1" },
+            { "route-service", "/api/routes/1" },
+            { "schedule-service", "/api/schedules/1" },
+            { "booking-service", "/api/bookings/1" },
+            { "review-service", "/api/reviews/1" },
+            { "chatbot-service", "/api/chatbot/1" } };
+    private static final String DEFAULT_JWT_SECRET = "your-super-secret-jwt-key-here-change-in-production";
+    private static final long TIMEOUT_MS = 10_000;
+    /** Errors Reactor could not deliver, in the gateway or the client; see {@link #main}. */
+    private static final LongAdder DROPPED_ERRORS = new LongAdder();
+
+    private GatewayLoadHarness() {
+    }
+
+    @SuppressWarnings("try") // the stubs resource is only there to be closed
+    public static void main(String[] args) throws Exception {
+        int rate = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int durationSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int warmupSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long latencyMs = args.length > 3 ? Long.parseLong(args[3]) : 5;
+        int bodyBytes = args.length > 4 ? Integer.parseInt(args[4]) : 1024;
+        boolean authenticated = args.length <= 5 || Boolean.parseBoolean(args[5]);
+        String routes = args.length > 6 ? args[6] : "classpath:harness-routes.yml";
+        String[] springArgs = args.length > 7 ? Arrays.copyOfRange(args, 7, args.length) : new String[0];
+        int port = 18080;
+
+        List<String> gatewayArgs = new ArrayList<>(List.of(
+                "--server.port=" + port,
+                "--gateway.routes.location=" + routes,
+                "--logging.level.com.example.gateway=WARN",
+                "--tracing.export.file=build/harness-spans.jsonl"));
+        // The stubs do not verify identity headers, but the gateway will not start without a secret
+        if (Arrays.stream(springArgs).noneMatch(arg -> arg.startsWith("--gateway.identity.signing-secret="))) {
+            gatewayArgs.add("--gateway.identity.signing-secret=harness-identity-secret");
+        }
+        gatewayArgs.addAll(Arrays.asList(springArgs));
+
+        // Replaces Reactor's default of only logging them, so each run can report its count
+        Hooks.onErrorDropped(error -> DROPPED_ERRORS.increment());
+
+        // Closed after the gateway in front of them; not otherwise referenced
+        try (StubBackends ignored = new StubBackends(STUB_PORTS, latencyMs, bodyBytes);
+                ConfigurableApplicationContext gateway = SpringApplication.run(ApiGatewayApplication.class,
+                        gatewayArgs.toArray(String[]::new))) {
+            String cookie = authenticated
+                    ? "ACCESS_TOKEN=" + token(gateway.getEnvironment().getProperty("jwt.secret", DEFAULT_JWT_SECRET))
+                    : null;
+            LoopResources clientLoops = LoopResources.create("harness-client", 2, true);
+            ConnectionProvider connections = ConnectionProvider.builder("harness-client")
+                    .maxConnections(4096)
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            HttpClient client = HttpClient.create(connections)
+                    .runOn(clientLoops)
+                    .responseTimeout(Duration.ofMillis(TIMEOUT_MS))
+                    .headers(headers -> {
+                        headers.set("Origin", "http://localhost:3000");
+                        if (cookie != null) {
+                            headers.set("Cookie", cookie);
+                        }
+                    });
+
+            System.out.printf("%n%d req/s open model, %ds per route after %ds warm-up; stub latency %dms, "
+                    + "body %d bytes, %s%n", rate, durationSeconds, warmupSeconds, latencyMs, bodyBytes,
+                    authenticated ? "with JWT cookie" : "anonymous");
+            System.out.printf("%-24s %9s %9s %9s %9s %10s %7s %7s %11s %10s%n", "route", "p50 ms", "p99 ms",
+                    "p999 ms", "max ms", "req/s", "errors", "dropped", "alloc MB/s", "alloc/req");
+            for (String[] route : ROUTES) {
+                String url = "http://localhost:" + port + route[1];
+                drive(client, url, rate, warmupSeconds);
+                report(route[0], drive(client, url, rate, durationSeconds));
+            }
+            String direct = "http://localhost:" + STUB_PORTS[0] + "/users/1";
+            drive(client, direct, rate, warmupSeconds);
+            report("(stub, no gateway)", drive(client, direct, rate, durationSeconds));
+
+            connections.disposeLater().block();
+            clientLoops.disposeLater().block();
+        }
+    }
+
+    private static Result drive(HttpClient client, String url, int rate, int seconds) throws InterruptedException {
+        Recorder recorder = new Recorder(TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS) * 2, 3);
+        LongAdder errors = new LongAdder();
+        AtomicLong completed = new AtomicLong();
+        // Every answer or failure, so errors do not leave the latch waiting out the timeout
+        AtomicLong finished = new AtomicLong();
+        long total = (long) rate * seconds;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        CountDownLatch done = new CountDownLatch(1);
+
+        long droppedBefore = DROPPED_ERRORS.sum();
+        long allocatedBefore = gatewayAllocatedBytes();
+        long start = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            client.get()
+                    .uri(url)
+                    .responseSingle((response, body) -> body.asByteArray()
+                            .defaultIfEmpty(new byte[0])
+                            .thenReturn(response.status().code()))
+                    .subscribe(status -> {
+                        recorder.recordValue(Math.min(System.nanoTime() - scheduledAt, TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS) * 2));
+                        completed.incrementAndGet();
+                        if (status >= 400) {
+                            errors.increment();
+                        }
+                        if (finished.incrementAndGet() == total) {
+                            done.countDown();
+                        }
+                    }, error -> {
+                        errors.increment();
+                        if (finished.incrementAndGet() == total) {
+                            done.countDown();
+                        }
+                    });
+        }
+        done.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        long elapsedNanos = System.nanoTime() - start;
+        long allocated = gatewayAllocatedBytes() - allocatedBefore;
+        // Requests with no answer by now count as errors, not as missing samples. Errors
+        // are read first, so an answer arriving in between is not counted twice.
+        long failed = errors.sum();
+        long unanswered = total - finished.get();
+        return new Result(recorder.getIntervalHistogram(), completed.get(), failed + unanswered,
+                DROPPED_ERRORS.sum() - droppedBefore, elapsedNanos, allocated);
+    }
+
+    private static void report(String name, Result result) {
+        Histogram histogram = result.latencies();
+        double seconds = result.elapsedNanos() / 1e9;
+        System.out.printf("%-24s %9.2f %9.2f %9.2f %9.2f %10.0f %7d %7d %11.1f %10s%n", name,
+                histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6, histogram.getMaxValue() / 1e6,
+                result.completed() / seconds, result.errors(), result.dropped(),
+                result.allocatedBytes() / seconds / 1e6,
+                result.completed() > 0 ? result.allocatedBytes() / result.completed() / 1024 + " KB" : "-");
+    }
+
+    /**
+     * Bytes allocated so far by the threads that belong to the gateway, i.e. all
+     * live threads except the stubs' (event loops and delay timer), the load
+ * generator's and this one. All of those are named "harness-*".
+     */
+    private static long gatewayAllocatedBytes() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long self = Thread.currentThread().getId();
+        long total = 0;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getId() != self && !thread.getName().startsWith("harness-")) {
+                total += Math.max(0, threads.getThreadAllocatedBytes(thread.getId()));
+            }
+        }
+        return total;
+    }
+
+    /** A token as issued by identity-service, signed with the gateway's own key derivation. */
+    private static String token(String secret) throws Exception {
+        byte[] key;
+        try {
+            key = Base64.getDecoder().decode(secret);
+        } catch (IllegalArgumentException e) {
+            key = null;
+        }
+        if (key == null || key.length < 32) {
+            key = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+        }
+        return Jwts.builder()
+                .setSubject("harness@example.com")
+                .claim("uid", 1)
+                .claim("role", "user")
+                .setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+                .signWith(Keys.hmacShaKeyFor(key))
+                .compact();
+    }
+
+    private record Result(Histogram latencies, long completed, long errors, long dropped, long elapsedNanos,
+            long allocatedBytes) {
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.gateway.perf;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.LoggerFactory;
+
+import com.example.shared.logging.DroppingAsyncAppender;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+
+/**
+ * Measures how much per-request logging delays a Netty event loop.
+ * Tasks are submitted to a single event loop at a constant rate; each task logs
+ * one INFO line (as JwtAuthenticationFilter does per request) and records its
+ * scheduling lag. The run is repeated with logging off, a synchronous file
+ * appender and the DroppingAsyncAppender used in logback-spring.xml.
+ *
+ *   ./gradlew loggingBenchmark -Prate=20000 -PdurationSeconds=10
+ */
+public final class LoggingLatencyBenchmark {
+
+    private LoggingLatencyBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int ratePerSecond = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int durationSeconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        File logFile = File.createTempFile("logging-benchmark", ".log");
+        logFile.deleteOnExit();
+
+        System.out.printf("Event-loop lag at %d log events/s for %ds per mode (log file %s)%n",
+                ratePerSecond, durationSeconds, logFile);
+        for (String mode : new String[] { "off", "sync", "async" }) {
+            Logger logger = configure(mode, logFile);
+            long[] lags = run(logger, ratePerSecond, durationSeconds);
+            report(mode, lags);
+        }
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+    }
+
+    private static long[] run(Logger logger, int ratePerSecond, int durationSeconds) throws InterruptedException {
+        EventLoop eventLoop = new DefaultEventLoop();
+        int total = ratePerSecond * durationSeconds;
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long[] lags = new long[total];
+        AtomicInteger completed = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            int index = i;
+            eventLoop.execute(() -> {
+                lags[index] = System.nanoTime() - scheduledAt;
+                logger.info("[{}] Incoming request: {} {}", "bench-" + index, "GET", "/api/routes");
+                if (completed.incrementAndGet() == total) {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        eventLoop.shutdownGracefully();
+        Arrays.sort(lags);
+        return lags;
+    }
+
+    private static Logger configure(String mode, File logFile) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        Logger logger = context.getLogger("benchmark");
+        logger.setAdditive(false);
+        if ("off".equals(mode)) {
+            logger.setLevel(Level.OFF);
+            return logger;
+        }
+        logger.setLevel(Level.INFO);
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %-5level [%thread] %logger - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile(logFile.getAbsolutePath());
+        file.setEncoder(encoder);
+        file.setImmediateFlush(true);
+        file.start();
+
+        Appender<ILoggingEvent> appender = file;
+        if ("async".equals(mode)) {
+            DroppingAsyncAppender async = new DroppingAsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC_FILE");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(file);
+            async.start();
+            appender = async;
+        }
+        logger.addAppender(appender);
+        return logger;
+    }
+
+    private static void report(String mode, long[] sortedLags) {
+        long dropped = DroppingAsyncAppender.droppedCounts().getOrDefault("ASYNC_FILE",
+                new LongAdder()).sum();
+        System.out.printf("%-5s lag p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus%s%n", mode,
+                percentileMicros(sortedLags, 0.50), percentileMicros(sortedLags, 0.99),
+                percentileMicros(sortedLags, 0.999), sortedLags[sortedLags.length - 1] / 1e3,
+                "async".equals(mode) ? " dropped=" + dropped : "");
+    }
+
+    private static double percentileMicros(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1e3;
+    }
+}
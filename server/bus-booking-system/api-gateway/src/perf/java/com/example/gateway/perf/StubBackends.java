@@ -0,0 +1,66 @@
+package com.example.gateway.perf;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * In-process stand-ins for the downstream services: every request, whatever its
+ * path, is answered after a fixed delay with a JSON body of the given size. The
+ * delay is a timer, not a sleeping thread, so one small event loop group can
+ * serve all ports at high rates. The timer has its own "harness-" thread rather
+ * than Reactor's shared parallel scheduler, so the harness can tell its
+ * allocations apart from the gateway's.
+ */
+final class StubBackends implements AutoCloseable {
+
+    private final LoopResources loops = LoopResources.create("harness-stub", 2, true);
+    private final Scheduler timer = Schedulers.newParallel("harness-stub-timer", 1, true);
+    private final List<DisposableServer> servers = new ArrayList<>();
+
+    StubBackends(int[] ports, long latencyMs, int bodyBytes) {
+        byte[] body = jsonBody(bodyBytes);
+        Duration latency = Duration.ofMillis(latencyMs);
+        for (int port : ports) {
+            servers.add(HttpServer.create()
+                    .port(port)
+                    .runOn(loops)
+                    .handle((request, response) -> {
+                        Mono<byte[]> delayed = latencyMs > 0
+                                ? Mono.delay(latency, timer).thenReturn(body)
+                                : Mono.just(body);
+                        return request.receive().then(response
+                                .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .header(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(body.length))
+                                .sendByteArray(delayed)
+                                .then());
+                    })
+                    .bindNow());
+        }
+    }
+
+    @Override
+    public void close() {
+        servers.forEach(DisposableServer::disposeNow);
+        loops.dispose();
+        timer.dispose();
+    }
+
+    private static byte[] jsonBody(int size) {
+        String prefix = "{\"data\":\"";
+        String suffix = "\"}";
+        char[] filler = new char[Math.max(0, size - prefix.length() - suffix.length())];
+        Arrays.fill(filler, 'x');
+        return (prefix + new String(filler) + suffix).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.gateway.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+class ResponseCompressionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ResponseCompressionFilter filter = new ResponseCompressionFilter(properties(), meterRegistry);
+
+    @Test
+    void sendsASmallChunkedBodyAsIs() {
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, chain(null, "{\"id\":1}", "}")).block();
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"id\":1}}");
+        assertThat(count("too-small")).isEqualTo(1);
+    }
+
+    @Test
+    void compressesAChunkedBodyOnceItPassesTheThreshold() throws IOException {
+        MockServerWebExchange exchange = exchange();
+        String chunk = "x".repeat(60);
+
+        filter.filter(exchange, chain(null, chunk, chunk, chunk)).block();
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(gunzip(exchange)).isEqualTo(chunk.repeat(3));
+        assertThat(count("compressed")).isEqualTo(1);
+    }
+
+    @Test
+    void skipsABodyWhoseContentLengthIsBelowTheThreshold() {
+        MockServerWebExchange exchange = exchange();
+
+        filter.filter(exchange, chain(5L, "hello")).block();
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(count("too-small")).isEqualTo(1);
+    }
+
+    @Test
+    void leavesClientsThatDoNotAcceptGzipAlone() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/x"));
+        String chunk = "x".repeat(200);
+
+        filter.filter(exchange, chain(null, chunk)).block();
+
+        assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(count("not-accepted")).isEqualTo(1);
+    }
+
+    private static CompressionProperties properties() {
+        CompressionProperties properties = new CompressionProperties();
+        properties.setMinResponseBytes(100);
+        CompressionProperties.Rule rule = new CompressionProperties.Rule();
+        rule.setMimeType("application/json");
+        properties.setRules(List.of(rule));
+        return properties;
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/x")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"));
+    }
+
+    /** A downstream that writes JSON in the given chunks, with or without a Content-Length. */
+    private static GatewayFilterChain chain(Long contentLength, String... chunks) {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            if (contentLength != null) {
+                response.getHeaders().setContentLength(contentLength);
+            }
+            Flux<DataBuffer> body = Flux.fromArray(chunks)
+                    .map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+            return response.writeWith(body);
+        };
+    }
+
+    private static String gunzip(MockServerWebExchange exchange) throws IOException {
+        byte[] compressed = exchange.getResponse().getBody()
+                .reduce(new byte[0], (bytes, buffer) -> {
+                    byte[] joined = new byte[bytes.length + buffer.readableByteCount()];
+                    System.arraycopy(bytes, 0, joined, 0, bytes.length);
+                    buffer.read(joined, bytes.length, buffer.readableByteCount());
+                    return joined;
+                }).block();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("gateway.compression.responses").tag("result", result).counter().count();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.gateway.ratelimit;
+
+import static com.example.gateway.ratelimit.TokenBucketTest.limit;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.gateway.routing.RateLimitSettings;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void reportsRetryAfterAndResetPerCaller() {
+        RateLimiter limiter = new RateLimiter(100, meterRegistry);
+        RateLimitSettings.Limit limit = limit(1, 0.5);
+
+        RateLimiter.Decision first = limiter.tryAcquire("route|ip:1", limit);
+        RateLimiter.Decision second = limiter.tryAcquire("route|ip:1", limit);
+
+        assertThat(first.allowed()).isTrue();
+        assertThat(first.remaining()).isZero();
+        assertThat(second.allowed()).isFalse();
+        assertThat(second.retryAfterSeconds()).isBetween(1L, 2L);
+        assertThat(second.resetSeconds()).isBetween(1L, 2L);
+        assertThat(limiter.tryAcquire("route|ip:2", limit).allowed()).isTrue();
+    }
+
+    @Test
+    void admitsNewCallersPastTheCapAndTrimsInTheBackground() {
+        RateLimiter limiter = new RateLimiter(10, meterRegistry);
+        RateLimitSettings.Limit limit = limit(5, 0.001);
+        for (int i = 0; i < 15; i++) {
+            assertThat(limiter.tryAcquire("route|ip:" + i, limit).allowed()).isTrue();
+        }
+        assertThat(buckets()).isEqualTo(15);
+
+        limiter.trimToCapacity();
+        // None is full again yet, so an arbitrary tenth of the cap goes
+        assertThat(buckets()).isEqualTo(14);
+    }
+
+    @Test
+    void trimDropsFullBucketsFirst() {
+        RateLimiter limiter = new RateLimiter(10, meterRegistry);
+        for (int i = 0; i < 12; i++) {
+            limiter.tryAcquire("route|ip:" + i, limit(1, i < 6 ? 1_000_000 : 0.001));
+        }
+
+        limiter.trimToCapacity();
+        assertThat(buckets()).isEqualTo(6);
+    }
+
+    private double buckets() {
+        return meterRegistry.get("gateway.rate-limit.buckets").gauge().value();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.gateway.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.gateway.routing.RateLimitSettings;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsABurstUpToCapacityThenRejects() {
+        TokenBucket bucket = new TokenBucket(limit(3, 1), 0);
+
+        assertThat(bucket.tryConsume(0)).isEqualTo(2);
+        assertThat(bucket.tryConsume(0)).isEqualTo(1);
+        assertThat(bucket.tryConsume(0)).isZero();
+        assertThat(bucket.tryConsume(0)).isEqualTo(-SECOND);
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(limit(2, 4), 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        // A quarter second earns one token at 4 per second
+        assertThat(bucket.tryConsume(SECOND / 8)).isEqualTo(-SECOND / 8);
+        assertThat(bucket.tryConsume(SECOND / 4)).isZero();
+        assertThat(bucket.nanosUntilFull(SECOND / 4)).isEqualTo(SECOND / 2);
+        assertThat(bucket.nanosUntilFull(10 * SECOND)).isZero();
+    }
+
+    @Test
+    void neverHoldsMoreThanCapacity() {
+        TokenBucket bucket = new TokenBucket(limit(2, 100), 0);
+
+        assertThat(bucket.tryConsume(60 * SECOND)).isEqualTo(1);
+    }
+
+    @Test
+    void resizeKeepsEarnedTokensCappedAtTheNewCapacity() {
+        TokenBucket bucket = new TokenBucket(limit(10, 1), 0);
+        RateLimitSettings.Limit smaller = limit(3, 1);
+
+        assertThat(bucket.hasLimit(smaller)).isFalse();
+        bucket.resize(smaller, 0);
+        assertThat(bucket.hasLimit(smaller)).isTrue();
+        assertThat(bucket.getCapacity()).isEqualTo(3);
+        assertThat(bucket.tryConsume(0)).isEqualTo(2);
+    }
+
+    static RateLimitSettings.Limit limit(int capacity, double refillPerSecond) {
+        RateLimitSettings.Limit limit = new RateLimitSettings.Limit();
+        limit.setCapacity(capacity);
+        limit.setRefillPerSecond(refillPerSecond);
+        return limit;
+    }
+}
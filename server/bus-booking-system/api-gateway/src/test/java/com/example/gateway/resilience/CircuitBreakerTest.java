@@ -0,0 +1,147 @@
+package com.example.gateway.resilience;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.gateway.routing.ResilienceSettings;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_MS = 1000;
+    private static final long SLOW_MS = 500;
+
+    private final CircuitBreaker breaker = new CircuitBreaker(settings());
+
+    @Test
+    void staysClosedUntilMinimumCallsAreRecorded() {
+        record(3, true);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        record(1, true);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void opensWhenTheFailureRateReachesTheThreshold() {
+        record(2, false);
+        record(1, true);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        record(1, true);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(0)).isFalse();
+        assertThat(breaker.retryAfterMs(400)).isEqualTo(OPEN_MS - 400);
+    }
+
+    @Test
+    void opensWhenTheSlowCallRateReachesTheThreshold() {
+        for (int i = 0; i < 4; i++) {
+            breaker.record(0, SLOW_MS, false);
+        }
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        record(1, true);
+        record(9, false);
+        // The first of these pushes the early failure out of the window of 10
+        record(4, true);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        record(1, true);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpenAdmitsLimitedTrialsAndClosesWhenAllSucceed() {
+        record(4, true);
+
+        assertThat(breaker.tryAcquire(OPEN_MS - 1)).isFalse();
+        assertThat(breaker.tryAcquire(OPEN_MS)).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire(OPEN_MS)).isTrue();
+        assertThat(breaker.tryAcquire(OPEN_MS)).isFalse();
+
+        breaker.record(OPEN_MS, 10, false);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.record(OPEN_MS, 10, false);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        // A fresh window: earlier failures no longer count towards the minimum
+        record(3, true);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedOrSlowTrialReopens() {
+        record(4, true);
+        breaker.tryAcquire(OPEN_MS);
+
+        breaker.record(OPEN_MS + 5, SLOW_MS, false);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire(OPEN_MS + 5)).isFalse();
+        assertThat(breaker.retryAfterMs(OPEN_MS + 5)).isEqualTo(OPEN_MS);
+    }
+
+    @Test
+    void releasedTrialCanBeReissued() {
+        record(4, true);
+        breaker.tryAcquire(OPEN_MS);
+        breaker.tryAcquire(OPEN_MS);
+
+        breaker.release();
+
+        assertThat(breaker.tryAcquire(OPEN_MS)).isTrue();
+        assertThat(breaker.tryAcquire(OPEN_MS)).isFalse();
+    }
+
+    @Test
+    void lateResultsWhileOpenAreIgnored() {
+        record(4, true);
+
+        record(10, false);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void disabledBreakerNeverOpens() {
+        ResilienceSettings.CircuitBreaker settings = settings();
+        settings.setEnabled(false);
+        CircuitBreaker disabled = new CircuitBreaker(settings);
+
+        for (int i = 0; i < 10; i++) {
+            disabled.record(0, 10, true);
+        }
+
+        assertThat(disabled.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(disabled.tryAcquire(0)).isTrue();
+    }
+
+    private void record(int calls, boolean failure) {
+        for (int i = 0; i < calls; i++) {
+            breaker.record(0, 10, failure);
+        }
+    }
+
+    private static ResilienceSettings.CircuitBreaker settings() {
+        ResilienceSettings.CircuitBreaker settings = new ResilienceSettings.CircuitBreaker();
+        settings.setWindowSize(10);
+        settings.setMinimumCalls(4);
+        settings.setFailureRateThreshold(50);
+        settings.setSlowCallRateThreshold(100);
+        settings.setSlowCallMs(SLOW_MS);
+        settings.setOpenMs(OPEN_MS);
+        settings.setHalfOpenCalls(2);
+        return settings;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.gateway.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class PathTrieTest {
+
+    @Test
+    void matchesLiteralPaths() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/users", "users");
+        trie.insert("/api/users/me", "me");
+
+        assertThat(trie.match("/api/users")).isEqualTo("users");
+        assertThat(trie.match("/api/users/me")).isEqualTo("me");
+        assertThat(trie.match("/api/users/2")).isNull();
+        assertThat(trie.match("/api")).isNull();
+    }
+
+    @Test
+    void singleWildcardMatchesExactlyOneSegment() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/users/*/tickets", "tickets");
+
+        assertThat(trie.match("/api/users/42/tickets")).isEqualTo("tickets");
+        assertThat(trie.match("/api/users/tickets")).isNull();
+        assertThat(trie.match("/api/users/1/2/tickets")).isNull();
+    }
+
+    @Test
+    void trailingDoubleWildcardMatchesZeroOrMoreSegments() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/bookings/**", "bookings");
+
+        assertThat(trie.match("/api/bookings")).isEqualTo("bookings");
+        assertThat(trie.match("/api/bookings/1")).isEqualTo("bookings");
+        assertThat(trie.match("/api/bookings/1/seats/3")).isEqualTo("bookings");
+        assertThat(trie.match("/api/booking")).isNull();
+    }
+
+    @Test
+    void literalBeatsWildcardAndExactBeatsCatchAll() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/**", "api");
+        trie.insert("/api/users/**", "users");
+        trie.insert("/api/users/*", "user");
+        trie.insert("/api/users/me", "me");
+
+        assertThat(trie.match("/api/users/me")).isEqualTo("me");
+        assertThat(trie.match("/api/users/7")).isEqualTo("user");
+        assertThat(trie.match("/api/users/7/roles")).isEqualTo("users");
+        assertThat(trie.match("/api/companies/1")).isEqualTo("api");
+    }
+
+    @Test
+    void fallsBackToTheWildcardBranchWhenTheLiteralOneDeadEnds() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/users/me", "me");
+        trie.insert("/api/*/me/settings", "settings");
+
+        assertThat(trie.match("/api/users/me/settings")).isEqualTo("settings");
+    }
+
+    @Test
+    void ignoresRepeatedAndTrailingSlashes() {
+        PathTrie<String> trie = new PathTrie<>();
+        trie.insert("/api/users/", "users");
+
+        assertThat(trie.match("api//users/")).isEqualTo("users");
+        assertThat(trie.match("/api/users///")).isEqualTo("users");
+    }
+
+    @Test
+    void prefixMatchesThePathAndEverythingBelowIt() {
+        PathTrie<Boolean> trie = new PathTrie<>();
+        trie.insertPrefix("/auth", Boolean.TRUE);
+
+        assertThat(trie.match("/auth")).isTrue();
+        assertThat(trie.match("/auth/login")).isTrue();
+        assertThat(trie.match("/authors")).isNull();
+    }
+
+    @Test
+    void rejectsDoubleWildcardBeforeTheLastSegment() {
+        PathTrie<String> trie = new PathTrie<>();
+
+        assertThatThrownBy(() -> trie.insert("/api/**/users", "x"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
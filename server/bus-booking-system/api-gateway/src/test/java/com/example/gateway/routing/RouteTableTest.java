@@ -0,0 +1,49 @@
+package com.example.gateway.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RouteTableTest {
+
+    @Test
+    void rejectsARateLimitThatNeverRefills() {
+        RateLimitSettings.Limit limit = new RateLimitSettings.Limit();
+        limit.setCapacity(10);
+        limit.setRefillPerSecond(0);
+        RouteSpec route = route("tickets", "/tickets/**");
+        route.getRateLimit().setIp(limit);
+
+        assertThatThrownBy(() -> new RouteTable(properties(route)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("tickets");
+    }
+
+    @Test
+    void acceptsPositiveRateLimits() {
+        RateLimitSettings.Limit limit = new RateLimitSettings.Limit();
+        limit.setCapacity(10);
+        limit.setRefillPerSecond(0.5);
+        RouteSpec route = route("tickets", "/tickets/**");
+        route.getRateLimit().setUser(limit);
+
+        assertThat(new RouteTable(properties(route)).match("/tickets/1")).isSameAs(route);
+    }
+
+    static RouteSpec route(String id, String... paths) {
+        RouteSpec route = new RouteSpec();
+        route.setId(id);
+        route.setUri("http://localhost:8080");
+        route.setPaths(List.of(paths));
+        return route;
+    }
+
+    static RouteTableProperties properties(RouteSpec... routes) {
+        RouteTableProperties properties = new RouteTableProperties();
+        properties.setRoutes(List.of(routes));
+        return properties;
+    }
+}
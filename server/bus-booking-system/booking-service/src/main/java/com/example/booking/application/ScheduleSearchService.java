@@ -0,0 +1,85 @@
+package com.example.booking.application;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+import org.springframework.stereotype.Service;
+
+import com.example.booking.infrastructure.exception.BadRequestException;
+import com.example.booking.infrastructure.exception.ServiceBusyException;
+import com.example.booking.infrastructure.search.ScheduleSearchIndex;
+import com.example.booking.presentation.dto.ScheduleSearchItem;
+import com.example.booking.presentation.dto.ScheduleSearchResponse;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleSearchService {
+
+    private static final int DEFAULT_PAGE_SIZE = 10;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ScheduleSearchIndex scheduleSearchIndex;
+
+    /**
+     * Ticket search served from the in-memory index. Without a date, searches
+     * today; for today, schedules that already left are not returned. Without
+     * departure or destination, lists the day's schedules from or to any station.
+     *
+     * @param sortBy {@code field:direction} with field departure_time or price
+     *               (base_price) and direction asc or desc; departure_time:asc
+     *               when absent
+     */
+    public ScheduleSearchResponse search(Long departure, Long destination, LocalDate departureDate,
+            LocalTime departAfter, LocalTime departBefore, String sortBy, Integer page, Integer limit) {
+        if (!scheduleSearchIndex.isReady()) {
+            throw new ServiceBusyException("Ticket search index is still loading, please retry", 1);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate day = departureDate != null ? departureDate : now.toLocalDate();
+        LocalTime from = departAfter;
+        if (day.equals(now.toLocalDate()) && (from == null || from.isBefore(now.toLocalTime()))) {
+            from = now.toLocalTime();
+        }
+        ScheduleSearchIndex.Order order = parseOrder(sortBy);
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        int pageNumber = page == null || page <= 0 ? 1 : page;
+        long offset = (long) (pageNumber - 1) * pageSize;
+
+        log.debug("Searching schedules: {} -> {} on {} from {} to {}, order={}, page={}, limit={}", departure,
+                destination, day, from, departBefore, order, pageNumber, pageSize);
+        ScheduleSearchIndex.SearchResult result = scheduleSearchIndex.search(departure, destination, day, from,
+                departBefore, order, (int) Math.min(offset, Integer.MAX_VALUE), pageSize);
+
+        return ScheduleSearchResponse.builder()
+                .results(result.hits().stream().map(ScheduleSearchItem::fromHit).toList())
+                .page(pageNumber)
+                .limit(pageSize)
+                .totalResults(result.total())
+                .totalPages((result.total() + pageSize - 1) / pageSize)
+                .build();
+    }
+
+    private static ScheduleSearchIndex.Order parseOrder(String sortBy) {
+        if (sortBy == null || sortBy.isBlank()) {
+            return ScheduleSearchIndex.Order.DEPARTURE_ASC;
+        }
+        String[] parts = sortBy.trim().split(":", 2);
+        boolean descending = parts.length > 1 && parts[1].equalsIgnoreCase("desc");
+        if (parts.length > 1 && !descending && !parts[1].equalsIgnoreCase("asc")) {
+            throw new BadRequestException("Unknown sort direction: " + parts[1]);
+        }
+        return switch (parts[0]) {
+            case "departure_time" -> descending
+                    ? ScheduleSearchIndex.Order.DEPARTURE_DESC : ScheduleSearchIndex.Order.DEPARTURE_ASC;
+            case "price", "base_price" -> descending
+                    ? ScheduleSearchIndex.Order.FARE_DESC : ScheduleSearchIndex.Order.FARE_ASC;
+            default -> throw new BadRequestException("Cannot sort by " + parts[0]);
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.booking.application;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.example.booking.domain.repository.SeatRepository;
+import com.example.booking.infrastructure.inventory.SeatInventory;
+import com.example.booking.infrastructure.inventory.SeatInventoryEngine;
+import com.example.booking.presentation.dto.SeatResponse;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class SeatQueryService {
+
+    private final SeatRepository seatRepository;
+    private final SeatInventoryEngine inventoryEngine;
+
+    /**
+     * Seat map of a car. With a schedule, each seat carries its current status
+     * read from the in-memory inventory; without one, just the layout.
+     */
+    public List<SeatResponse> seats(Long carId, Long scheduleId) {
+        if (scheduleId == null) {
+            return seatRepository.findByCarIdOrderByIdAsc(carId).stream().map(SeatResponse::fromEntity).toList();
+        }
+        SeatInventory inventory = inventoryEngine.forSchedule(scheduleId, carId);
+        List<SeatResponse> seats = new ArrayList<>(inventory.size());
+        for (int i = 0; i < inventory.size(); i++) {
+            seats.add(SeatResponse.fromInventory(inventory, i));
+        }
+        return seats;
+    }
+}
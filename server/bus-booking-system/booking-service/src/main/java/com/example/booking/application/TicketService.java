@@ -0,0 +1,228 @@
+package com.example.booking.application;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.stereotype.Service;
+
+import com.example.booking.domain.model.Schedule;
+import com.example.booking.domain.model.Ticket;
+import com.example.booking.domain.model.TicketStatus;
+import com.example.booking.domain.repository.ScheduleRepository;
+import com.example.booking.domain.repository.TicketRepository;
+import com.example.booking.infrastructure.exception.ConflictException;
+import com.example.booking.infrastructure.exception.ForbiddenException;
+import com.example.booking.infrastructure.exception.ResourceNotFoundException;
+import com.example.booking.infrastructure.exception.ServiceBusyException;
+import com.example.booking.infrastructure.exception.UnauthorizedException;
+import com.example.booking.infrastructure.inventory.SeatClaim;
+import com.example.booking.infrastructure.inventory.SeatHold;
+import com.example.booking.infrastructure.inventory.SeatInventory;
+import com.example.booking.infrastructure.inventory.SeatInventoryEngine;
+import com.example.booking.infrastructure.inventory.SeatSale;
+import com.example.booking.infrastructure.persistence.BookingWriteBehind;
+import com.example.booking.infrastructure.security.GatewayUser;
+import com.example.booking.presentation.dto.BookTicketRequest;
+import com.example.booking.presentation.dto.TicketResponse;
+import com.example.shared.dto.UserInfo;
+import com.example.shared.userinfo.UserInfoLoader;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Booking flow over the seat inventory: booking holds a seat, confirming
+ * (after payment) sells it, cancelling frees it. Only confirmations and
+ * cancellations of sold tickets are written to the database, through the
+ * write-behind; nothing here blocks on a row lock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TicketService {
+
+    private static final long BUSY_RETRY_AFTER_SECONDS = 1;
+    /** Upper bound on waiting for passenger names; the fetch itself times out sooner. */
+    private static final long PASSENGER_LOOKUP_TIMEOUT_MS = 5000;
+
+    private final SeatInventoryEngine inventoryEngine;
+    private final BookingWriteBehind writeBehind;
+    private final TicketRepository ticketRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final UserInfoLoader userInfoLoader;
+
+    /**
+     * Holds the requested seat for the caller.
+     *
+     * @throws ConflictException if the seat is already held or booked
+     */
+    public TicketResponse book(GatewayUser user, BookTicketRequest request) {
+        requireUser(user);
+        SeatInventory inventory = inventoryEngine.forSeat(request.getScheduleId(), request.getSeatId());
+        SeatHold hold = inventoryEngine.hold(inventory, inventory.indexOf(request.getSeatId()), user.getId(),
+                request.getPaymentMethod());
+        log.debug("Held seat {} on schedule {} as ticket {}", request.getSeatId(), request.getScheduleId(),
+                hold.ticketId());
+        return TicketResponse.fromClaim(hold, TicketStatus.HELD);
+    }
+
+    /**
+     * Sells a held seat. Confirming a ticket that is already booked returns it
+     * unchanged, so a retried payment callback is harmless.
+     */
+    public TicketResponse confirm(GatewayUser user, String ticketId) {
+        requireUser(user);
+        SeatClaim claim = inventoryEngine.claim(ticketId);
+        if (claim == null) {
+            Ticket ticket = findOwnTicket(user, ticketId);
+            if (ticket.getStatus() != TicketStatus.BOOKED) {
+                throw new ConflictException("Ticket " + ticketId + " is " + ticket.getStatus());
+            }
+            return TicketResponse.fromEntity(ticket);
+        }
+        requireOwner(user, claim);
+        if (claim instanceof SeatSale sale) {
+            return TicketResponse.fromClaim(sale, TicketStatus.BOOKED);
+        }
+
+        if (!writeBehind.tryReserve()) {
+            throw new ServiceBusyException("Too many bookings in progress, please retry", BUSY_RETRY_AFTER_SECONDS);
+        }
+        SeatSale sale = inventoryEngine.confirm((SeatHold) claim);
+        if (sale == null) {
+            writeBehind.unreserve();
+            throw new ConflictException("The hold on ticket " + ticketId + " has expired");
+        }
+        writeBehind.insert(sale);
+        return TicketResponse.fromClaim(sale, TicketStatus.BOOKED);
+    }
+
+    /**
+     * Cancels a held or booked ticket and frees its seat.
+     */
+    public TicketResponse cancel(GatewayUser user, String ticketId, String reason) {
+        requireUser(user);
+        SeatClaim claim = inventoryEngine.claim(ticketId);
+        if (claim == null) {
+            Ticket ticket = findOwnTicket(user, ticketId);
+            if (ticket.getStatus() != TicketStatus.BOOKED) {
+                throw new ConflictException("Ticket " + ticketId + " is already " + ticket.getStatus());
+            }
+            claim = inventoryEngine.claimOf(ticket);
+            if (claim == null) {
+                throw new ConflictException("Ticket " + ticketId + " is already being cancelled");
+            }
+        }
+        requireOwner(user, claim);
+
+        if (claim instanceof SeatHold hold) {
+            if (!inventoryEngine.release(hold)) {
+                throw new ConflictException("Ticket " + ticketId + " changed state, please retry");
+            }
+            return TicketResponse.fromClaim(hold, TicketStatus.CANCELLED);
+        }
+
+        if (!writeBehind.tryReserve()) {
+            throw new ServiceBusyException("Too many bookings in progress, please retry", BUSY_RETRY_AFTER_SECONDS);
+        }
+        SeatSale sale = inventoryEngine.cancel((SeatSale) claim);
+        if (sale == null) {
+            writeBehind.unreserve();
+            throw new ConflictException("Ticket " + ticketId + " is already cancelled");
+        }
+        writeBehind.cancel(sale, reason);
+        log.debug("Cancelled ticket {}", ticketId);
+        return TicketResponse.fromClaim(sale, TicketStatus.CANCELLED);
+    }
+
+    /**
+     * Current state of a ticket, from the inventory while it is live.
+     */
+    public TicketResponse status(GatewayUser user, String ticketId) {
+        requireUser(user);
+        SeatClaim claim = inventoryEngine.claim(ticketId);
+        if (claim == null) {
+            return TicketResponse.fromEntity(findOwnTicket(user, ticketId));
+        }
+        requireOwner(user, claim);
+        return TicketResponse.fromClaim(claim,
+                claim instanceof SeatHold ? TicketStatus.HELD : TicketStatus.BOOKED);
+    }
+
+    /**
+     * Held and booked tickets of a schedule with each passenger's name and
+     * email, for admins. The passengers are resolved with one batched
+     * identity-service call (repeat users come from the near cache); if that
+     * fails the tickets are returned without names rather than not at all.
+     */
+    public List<TicketResponse> passengers(GatewayUser user, long scheduleId) {
+        requireUser(user);
+        if (!user.isAdmin()) {
+            throw new ForbiddenException("Only admins can list a schedule's passengers");
+        }
+        Schedule schedule = scheduleRepository.findById(scheduleId)
+                .orElseThrow(() -> new ResourceNotFoundException("Schedule not found: " + scheduleId));
+        SeatInventory inventory = inventoryEngine.forSchedule(scheduleId, schedule.getCarId());
+
+        List<SeatClaim> claims = new ArrayList<>();
+        List<Integer> userIds = new ArrayList<>();
+        for (int i = 0; i < inventory.size(); i++) {
+            SeatClaim claim = inventory.claim(i);
+            if (claim != null) {
+                claims.add(claim);
+                userIds.add(claim.userId());
+            }
+        }
+        Map<Integer, UserInfo> users = loadUsers(userIds);
+
+        List<TicketResponse> tickets = new ArrayList<>(claims.size());
+        for (SeatClaim claim : claims) {
+            TicketResponse ticket = TicketResponse.fromClaim(claim,
+                    claim instanceof SeatHold ? TicketStatus.HELD : TicketStatus.BOOKED);
+            UserInfo passenger = users.get(claim.userId());
+            if (passenger != null) {
+                ticket.setPassengerName(passenger.getUsername());
+                ticket.setPassengerEmail(passenger.getEmail());
+            }
+            tickets.add(ticket);
+        }
+        return tickets;
+    }
+
+    private Map<Integer, UserInfo> loadUsers(List<Integer> userIds) {
+        try {
+            return userInfoLoader.loadMany(userIds).get(PASSENGER_LOOKUP_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Map.of();
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Passenger lookup failed, returning tickets without names: {}", e.toString());
+            return Map.of();
+        }
+    }
+
+    private Ticket findOwnTicket(GatewayUser user, String ticketId) {
+        Ticket ticket = ticketRepository.findById(ticketId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ticket not found: " + ticketId));
+        if (!user.isAdmin() && !user.getId().equals(ticket.getUserId())) {
+            throw new ResourceNotFoundException("Ticket not found: " + ticketId);
+        }
+        return ticket;
+    }
+
+    private static void requireOwner(GatewayUser user, SeatClaim claim) {
+        if (!user.isAdmin() && !user.getId().equals(claim.userId())) {
+            throw new ResourceNotFoundException("Ticket not found: " + claim.ticketId());
+        }
+    }
+
+    private static void requireUser(GatewayUser user) {
+        if (user == null) {
+            throw new UnauthorizedException("Authentication required");
+        }
+    }
+}
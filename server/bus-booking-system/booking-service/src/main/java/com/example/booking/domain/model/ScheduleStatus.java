@@ -0,0 +1,9 @@
+package com.example.booking.domain.model;
+
+/**
+ * Whether a schedule still runs. Only ACTIVE schedules are searchable.
+ */
+public enum ScheduleStatus {
+    ACTIVE,
+    CANCELLED
+}
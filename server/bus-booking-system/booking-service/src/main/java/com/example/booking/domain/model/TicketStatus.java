@@ -0,0 +1,11 @@
+package com.example.booking.domain.model;
+
+/**
+ * Ticket lifecycle. HELD tickets exist only in the seat inventory; a ticket
+ * row is written once the hold is confirmed.
+ */
+public enum TicketStatus {
+    HELD,
+    BOOKED,
+    CANCELLED
+}
@@ -0,0 +1,34 @@
+package com.example.booking.domain.repository;
+
+import com.example.booking.domain.model.Schedule;
+import com.example.booking.domain.model.ScheduleStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
+
+    /**
+     * Keyset scan by id over schedules in one status departing from
+     * {@code from} on, used to (re)build the ticket search index.
+     */
+    @Query("SELECT s FROM Schedule s WHERE s.status = :status AND s.departureTime >= :from "
+            + "AND s.id > :afterId ORDER BY s.id ASC")
+    List<Schedule> findDepartingAfterId(@Param("status") ScheduleStatus status,
+            @Param("from") LocalDateTime from, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Rows changed after the (updatedAt, id) watermark, oldest first, used to
+     * keep the ticket search index up to date incrementally.
+     */
+    @Query("SELECT s FROM Schedule s WHERE s.updatedAt > :since OR (s.updatedAt = :since AND s.id > :afterId) "
+            + "ORDER BY s.updatedAt ASC, s.id ASC")
+    List<Schedule> findChangedSince(@Param("since") LocalDateTime since, @Param("afterId") Long afterId,
+            Pageable pageable);
+}
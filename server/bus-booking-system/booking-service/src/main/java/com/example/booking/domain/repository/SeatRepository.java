@@ -0,0 +1,16 @@
+package com.example.booking.domain.repository;
+
+import com.example.booking.domain.model.Seat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SeatRepository extends JpaRepository<Seat, Long> {
+
+    /**
+     * Seat layout of a car in id order, the order of the inventory bitmap.
+     */
+    List<Seat> findByCarIdOrderByIdAsc(Long carId);
+}
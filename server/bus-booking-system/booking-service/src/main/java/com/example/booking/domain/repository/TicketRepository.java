@@ -0,0 +1,17 @@
+package com.example.booking.domain.repository;
+
+import com.example.booking.domain.model.Ticket;
+import com.example.booking.domain.model.TicketStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TicketRepository extends JpaRepository<Ticket, String> {
+
+    /**
+     * Tickets of a schedule in one status, used to load the seat inventory.
+     */
+    List<Ticket> findByScheduleIdAndStatus(Long scheduleId, TicketStatus status);
+}
@@ -0,0 +1,12 @@
+package com.example.booking.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. idle seat inventory eviction).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,67 @@
+package com.example.booking.infrastructure.config;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.shared.security.ServiceToken;
+import com.example.shared.userinfo.HttpUserInfoFetcher;
+import com.example.shared.userinfo.UserInfoLoader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * User names and emails for ticket lists, fetched from identity-service
+ * {@code POST /users/batch} with a {@link ServiceToken}. The shared
+ * {@link UserInfoLoader} sends all lookups of a request as one call and keeps
+ * the results in a short-lived near cache.
+ */
+@Configuration
+public class UserInfoConfig {
+
+    private static final String SERVICE_NAME = "booking-service";
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService userInfoFetchExecutor(@Value("${user-info.fetch-threads:2}") int threads) {
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "user-info-fetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean(destroyMethod = "close")
+    public UserInfoLoader userInfoLoader(
+            ObjectMapper objectMapper,
+            ExecutorService userInfoFetchExecutor,
+            @Value("${user-info.identity-service-url}") String identityServiceUrl,
+            @Value("${user-info.timeout-ms:2000}") long timeoutMs,
+            @Value("${user-info.batch-window-ms:2}") long batchWindowMs,
+            @Value("${user-info.max-batch-size:200}") int maxBatchSize,
+            @Value("${user-info.cache-ttl-ms:60000}") long cacheTtlMs,
+            @Value("${user-info.cache-max-entries:10000}") int cacheMaxEntries,
+            @Value("${services.auth.secret}") String serviceSecret,
+            MeterRegistry meterRegistry) {
+        Duration timeout = Duration.ofMillis(timeoutMs);
+        ServiceToken serviceToken = new ServiceToken(serviceSecret);
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        HttpUserInfoFetcher fetcher = new HttpUserInfoFetcher(httpClient, objectMapper, identityServiceUrl, timeout,
+                () -> serviceToken.authorization(SERVICE_NAME, Duration.ofMinutes(5)));
+        UserInfoLoader loader = new UserInfoLoader(fetcher, userInfoFetchExecutor, batchWindowMs, maxBatchSize,
+                cacheTtlMs, cacheMaxEntries);
+
+        FunctionCounter.builder("user.info.cache.hits", loader, UserInfoLoader::cacheHits).register(meterRegistry);
+        FunctionCounter.builder("user.info.cache.misses", loader, UserInfoLoader::cacheMisses).register(meterRegistry);
+        FunctionCounter.builder("user.info.batches", loader, UserInfoLoader::batches).register(meterRegistry);
+        Gauge.builder("user.info.cache.size", loader, UserInfoLoader::cacheSize).register(meterRegistry);
+        return loader;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.booking.infrastructure.exception;
+
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
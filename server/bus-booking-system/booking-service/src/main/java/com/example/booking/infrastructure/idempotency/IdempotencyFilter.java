@@ -0,0 +1,257 @@
+package com.example.booking.infrastructure.idempotency;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import com.example.booking.infrastructure.security.GatewayIdentityFilter;
+import com.example.booking.infrastructure.security.GatewayUser;
+import com.example.shared.idempotency.DurableIdempotencyStore;
+import com.example.shared.idempotency.IdempotencyStore;
+import com.example.shared.idempotency.RequestFingerprint;
+import com.example.shared.idempotency.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Makes POST/PUT requests carrying an {@code Idempotency-Key} header safe to
+ * retry: a double-clicked "book" or a client retrying after a timeout gets the
+ * first request's response back (marked {@code Idempotent-Replayed: true})
+ * instead of a second hold. A duplicate that arrives while the first is still
+ * running waits for it up to idempotency.wait-timeout-ms, then gets 409.
+ * Reusing a key for a different request (method, path or body) gets 422.
+ *
+ * <p>Keys are per authenticated user; anonymous requests pass through
+ * untouched. Responses below 500 are recorded, so a seat conflict replays as a
+ * conflict; server errors and 503s are not, and the retry executes again. The
+ * body is read into memory for the fingerprint, so keyed requests larger than
+ * idempotency.max-body-bytes get 413.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final long waitTimeoutMs;
+    private final int maxBodyBytes;
+
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter mismatched;
+    private final Counter inProgress;
+
+    public IdempotencyFilter(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            ObjectProvider<DurableIdempotencyStore> durableStore,
+            @Value("${idempotency.ttl-ms:86400000}") long ttlMs,
+            @Value("${idempotency.max-entries:50000}") int maxEntries,
+            @Value("${idempotency.wait-timeout-ms:5000}") long waitTimeoutMs,
+            @Value("${idempotency.max-body-bytes:65536}") int maxBodyBytes) {
+        this.store = new IdempotencyStore(ttlMs, maxEntries, durableStore.getIfAvailable());
+        this.objectMapper = objectMapper;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.maxBodyBytes = maxBodyBytes;
+
+        this.executed = requestCounter(meterRegistry, "executed");
+        this.replayed = requestCounter(meterRegistry, "replayed");
+        this.mismatched = requestCounter(meterRegistry, "mismatch");
+        this.inProgress = requestCounter(meterRegistry, "in_progress");
+        Gauge.builder("idempotency.keys", store, IdempotencyStore::size)
+                .description("Idempotency keys held in memory").register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("POST".equals(method) || "PUT".equals(method)) || request.getHeader(KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        GatewayUser user = (GatewayUser) request.getAttribute(GatewayIdentityFilter.USER_ATTR);
+        if (user == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = request.getHeader(KEY_HEADER).trim();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        byte[] body = request.getContentLengthLong() > maxBodyBytes ? null
+                : request.getInputStream().readNBytes(maxBodyBytes + 1);
+        if (body == null || body.length > maxBodyBytes) {
+            writeError(response, HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Requests with an " + KEY_HEADER + " may have at most " + maxBodyBytes + " bytes of body");
+            return;
+        }
+        String pathAndQuery = request.getQueryString() == null ? request.getRequestURI()
+                : request.getRequestURI() + '?' + request.getQueryString();
+        String fingerprint = RequestFingerprint.of(request.getMethod(), pathAndQuery, body);
+
+        IdempotencyStore.Claim claim;
+        try {
+            claim = store.claim(user.getId() + ":" + key, fingerprint, waitTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            writeError(response, HttpStatus.SERVICE_UNAVAILABLE, "Interrupted while waiting for the first request");
+            return;
+        }
+
+        if (claim instanceof IdempotencyStore.Replay replay) {
+            replayed.increment();
+            StoredResponse stored = replay.response();
+            response.setStatus(stored.status());
+            if (stored.contentType() != null) {
+                response.setContentType(stored.contentType());
+            }
+            response.setHeader(REPLAYED_HEADER, "true");
+            response.getOutputStream().write(stored.body());
+        } else if (claim instanceof IdempotencyStore.Mismatch) {
+            mismatched.increment();
+            writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                    KEY_HEADER + " was already used for a different request");
+        } else if (claim instanceof IdempotencyStore.InProgress) {
+            inProgress.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            writeError(response, HttpStatus.CONFLICT, "A request with this " + KEY_HEADER + " is still in progress");
+        } else {
+            executed.increment();
+            execute((IdempotencyStore.Execute) claim, new CachedBodyRequest(request, body), response, filterChain);
+        }
+    }
+
+    private void execute(IdempotencyStore.Execute claim, HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper captured = new ContentCachingResponseWrapper(response);
+        try {
+            try {
+                filterChain.doFilter(request, captured);
+            } catch (IOException | ServletException | RuntimeException e) {
+                claim.abandon();
+                throw e;
+            }
+            if (captured.getStatus() >= 500) {
+                claim.abandon();
+                return;
+            }
+            try {
+                claim.complete(new StoredResponse(captured.getStatus(), captured.getContentType(),
+                        captured.getContentAsByteArray()));
+            } catch (RuntimeException e) {
+                // The durable store failed; the caller still gets its response
+                log.warn("Could not save idempotent response: {}", e.getMessage());
+                claim.abandon();
+            }
+        } finally {
+            captured.copyBodyToResponse();
+        }
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        Map<String, Object> error = new LinkedHashMap<>();
+        error.put("timestamp", LocalDateTime.now().toString());
+        error.put("status", status.value());
+        error.put("error", status.getReasonPhrase());
+        error.put("message", message);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("idempotency.requests").tag("outcome", outcome)
+                .description("Requests with an Idempotency-Key by outcome").register(meterRegistry);
+    }
+
+    /** Request whose body was read for the fingerprint, readable again by the controller. */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener listener) {
+                    // The whole body is already in memory
+                    try {
+                        listener.onDataAvailable();
+                        listener.onAllDataRead();
+                    } catch (IOException e) {
+                        listener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body), charset));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.booking.infrastructure.idempotency;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.shared.idempotency.DurableIdempotencyStore;
+import com.example.shared.idempotency.StoredResponse;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps completed idempotent responses in booking_db so retries after a
+ * restart still replay. Costs one insert per keyed request and one lookup per
+ * key not in memory; enabled with idempotency.durable.enabled.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.durable.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class JdbcIdempotencyStore implements DurableIdempotencyStore {
+
+    private static final String FIND_SQL = "SELECT fingerprint, status, content_type, body FROM idempotency_keys "
+            + "WHERE id = ? AND expires_at > ?";
+    private static final String INSERT_SQL = "INSERT INTO idempotency_keys "
+            + "(id, fingerprint, status, content_type, body, expires_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_EXPIRED_SQL = "DELETE FROM idempotency_keys WHERE id = ? AND expires_at <= ?";
+    private static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE expires_at <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Completed find(String key) {
+        List<Completed> rows = jdbcTemplate.query(FIND_SQL, (rs, rowNum) -> new Completed(rs.getString(1),
+                new StoredResponse(rs.getInt(2), rs.getString(3), rs.getBytes(4))),
+                key, new Timestamp(System.currentTimeMillis()));
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    @Override
+    public void save(String key, String fingerprint, StoredResponse response, long expiresAtMs) {
+        // A key reused after it expired may still have its old row until the next purge
+        jdbcTemplate.update(DELETE_EXPIRED_SQL, key, new Timestamp(System.currentTimeMillis()));
+        try {
+            jdbcTemplate.update(INSERT_SQL, key, fingerprint, response.status(), response.contentType(),
+                    response.body(), new Timestamp(expiresAtMs));
+        } catch (DuplicateKeyException e) {
+            // A live row: another instance completed the same key first, keep its response
+            log.debug("Idempotency key {} already saved", key);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.durable.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update(PURGE_SQL, new Timestamp(System.currentTimeMillis()));
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.booking.infrastructure.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Hashed timer wheel that releases expired seat holds. Scheduling a hold is one
+ * lock-free queue offer; a single thread moves new holds into the bucket of
+ * their expiry tick and, once per tick, expires the due holds of the current
+ * bucket. Holds due more than one rotation ahead stay in their bucket and are
+ * skipped until their tick comes round. Holds that were confirmed in the
+ * meantime still fire, and the expiry callback finds they are no longer the
+ * seat's claim.
+ */
+@Slf4j
+public final class HoldTimerWheel {
+
+    private final long tickMs;
+    private final int mask;
+    private final List<SeatHold>[] buckets;
+    private final Queue<SeatHold> incoming = new ConcurrentLinkedQueue<>();
+    private final Consumer<SeatHold> onExpire;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    public HoldTimerWheel(String threadName, long tickMs, int wheelSize, Consumer<SeatHold> onExpire) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMs and wheelSize must be positive");
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.tickMs = tickMs;
+        this.mask = Math.max(size, 1) - 1;
+        @SuppressWarnings("unchecked")
+        List<SeatHold>[] buckets = (List<SeatHold>[]) new List<?>[mask + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.buckets = buckets;
+        this.onExpire = onExpire;
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+    }
+
+    public void start() {
+        worker.start();
+    }
+
+    public void schedule(SeatHold hold) {
+        incoming.offer(hold);
+    }
+
+    public void stop() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long tick = System.currentTimeMillis() / tickMs;
+        while (running) {
+            long tickEnd = (tick + 1) * tickMs;
+            long waitMs = tickEnd - System.currentTimeMillis();
+            if (waitMs > 0) {
+                try {
+                    Thread.sleep(waitMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            transferIncoming(tick);
+            expire(tick, tickEnd);
+            tick++;
+        }
+    }
+
+    private void transferIncoming(long currentTick) {
+        SeatHold hold;
+        while ((hold = incoming.poll()) != null) {
+            long dueTick = Math.max(hold.expiresAtMs() / tickMs, currentTick);
+            buckets[(int) (dueTick & mask)].add(hold);
+        }
+    }
+
+    private void expire(long tick, long tickEnd) {
+        List<SeatHold> bucket = buckets[(int) (tick & mask)];
+        int kept = 0;
+        for (int i = 0; i < bucket.size(); i++) {
+            SeatHold hold = bucket.get(i);
+            if (hold.expiresAtMs() < tickEnd) {
+                try {
+                    onExpire.accept(hold);
+                } catch (RuntimeException e) {
+                    log.error("Failed to expire hold {}: {}", hold.ticketId(), e.getMessage(), e);
+                }
+            } else {
+                bucket.set(kept++, hold);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+    }
+}
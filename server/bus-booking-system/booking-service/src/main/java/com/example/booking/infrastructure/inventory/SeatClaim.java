@@ -0,0 +1,20 @@
+package com.example.booking.infrastructure.inventory;
+
+/**
+ * Who holds or bought a seat of a {@link SeatInventory}. Claims are compared by
+ * identity: whoever swaps a claim out of its slot owns the next state change.
+ */
+public sealed interface SeatClaim permits SeatHold, SeatSale {
+
+    SeatInventory inventory();
+
+    int seatIndex();
+
+    String ticketId();
+
+    Integer userId();
+
+    String paymentMethod();
+
+    long createdAtMs();
+}
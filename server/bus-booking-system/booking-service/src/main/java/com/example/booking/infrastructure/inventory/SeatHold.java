@@ -0,0 +1,9 @@
+package com.example.booking.infrastructure.inventory;
+
+/**
+ * A time-limited hold on one seat; released when it expires unless confirmed
+ * first.
+ */
+public record SeatHold(SeatInventory inventory, int seatIndex, String ticketId, Integer userId,
+        String paymentMethod, long createdAtMs, long expiresAtMs) implements SeatClaim {
+}
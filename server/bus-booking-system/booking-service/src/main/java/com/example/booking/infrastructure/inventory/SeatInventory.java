@@ -0,0 +1,277 @@
+package com.example.booking.infrastructure.inventory;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.example.booking.domain.model.Seat;
+
+/**
+ * Seat states of one schedule, packed two bits per seat (32 seats per word) and
+ * changed with compare-and-set on the word, so concurrent buyers never lock:
+ * exactly one of them moves a seat from FREE to HELD, the others see it taken.
+ *
+ * <p>Each seat also has a claim slot with its {@link SeatHold} or
+ * {@link SeatSale}. The bitmap decides who gets a free seat; the slot decides
+ * every later transition. Expiry, confirmation and cancellation first swap the
+ * claim out of the slot by identity, and only the winner updates the bits, so a
+ * hold that expires while being confirmed ends up either sold or free, never
+ * both. Seat layout (ids in ascending order, numbers, types, prices) is fixed
+ * for the life of the inventory.
+ */
+public final class SeatInventory {
+
+    public static final int FREE = 0;
+    public static final int HELD = 1;
+    public static final int SOLD = 2;
+
+    private static final int SEATS_PER_WORD = 32;
+    private static final long LOW_BITS = 0x5555555555555555L;
+
+    private final long scheduleId;
+    private final long carId;
+    private final long[] seatIds;
+    private final String[] seatNumbers;
+    private final String[] seatTypes;
+    private final BigDecimal[] prices;
+
+    private final AtomicLongArray states;
+    private final AtomicReferenceArray<SeatClaim> claims;
+
+    /**
+     * Ticket writes not yet in the database: counted by the engine when it sells
+     * or cancels, uncounted by the write-behind once flushed. Evicted only at zero.
+     */
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+    /** Engine operations in progress, or -1 once retired by idle eviction. */
+    private final AtomicInteger pins = new AtomicInteger();
+    private volatile long lastAccessMs;
+    /** Set when a ticket write was lost, so eviction reloads the schedule from the database. */
+    private volatile boolean stale;
+
+    public SeatInventory(long scheduleId, long carId, List<Seat> seats) {
+        this.scheduleId = scheduleId;
+        this.carId = carId;
+        Seat[] ordered = seats.toArray(new Seat[0]);
+        Arrays.sort(ordered, (a, b) -> Long.compare(a.getId(), b.getId()));
+        int size = ordered.length;
+        this.seatIds = new long[size];
+        this.seatNumbers = new String[size];
+        this.seatTypes = new String[size];
+        this.prices = new BigDecimal[size];
+        for (int i = 0; i < size; i++) {
+            seatIds[i] = ordered[i].getId();
+            seatNumbers[i] = ordered[i].getSeatNumber();
+            seatTypes[i] = ordered[i].getSeatType();
+            prices[i] = ordered[i].getPrice();
+        }
+        this.states = new AtomicLongArray((size + SEATS_PER_WORD - 1) / SEATS_PER_WORD);
+        this.claims = new AtomicReferenceArray<>(size);
+        this.lastAccessMs = System.currentTimeMillis();
+    }
+
+    /**
+     * Moves a free seat to HELD for the caller, or returns null when someone
+     * else got it first.
+     */
+    public SeatHold tryHold(int seatIndex, String ticketId, Integer userId, String paymentMethod,
+            long nowMs, long ttlMs) {
+        if (!transition(seatIndex, FREE, HELD)) {
+            return null;
+        }
+        // No one else can touch a HELD seat until its claim is in the slot
+        SeatHold hold = new SeatHold(this, seatIndex, ticketId, userId, paymentMethod, nowMs, nowMs + ttlMs);
+        claims.set(seatIndex, hold);
+        return hold;
+    }
+
+    /**
+     * Frees a held seat (expiry or the buyer giving up). False if the hold was
+     * already confirmed or released.
+     */
+    public boolean release(SeatHold hold) {
+        int index = hold.seatIndex();
+        if (!claims.compareAndSet(index, hold, null)) {
+            return false;
+        }
+        transition(index, HELD, FREE);
+        return true;
+    }
+
+    /**
+     * Turns a live hold into a sale. Null if the hold has expired (even if the
+     * timer has not released it yet) or is no longer the seat's claim.
+     */
+    public SeatSale confirm(SeatHold hold, long nowMs) {
+        if (nowMs >= hold.expiresAtMs()) {
+            return null;
+        }
+        SeatSale sale = new SeatSale(this, hold.seatIndex(), hold.ticketId(), hold.userId(),
+                hold.paymentMethod(), nowMs);
+        if (!claims.compareAndSet(hold.seatIndex(), hold, sale)) {
+            return null;
+        }
+        transition(hold.seatIndex(), HELD, SOLD);
+        return sale;
+    }
+
+    /**
+     * Frees a sold seat. False if the sale was already cancelled.
+     */
+    public boolean cancel(SeatSale sale) {
+        int index = sale.seatIndex();
+        if (!claims.compareAndSet(index, sale, null)) {
+            return false;
+        }
+        transition(index, SOLD, FREE);
+        return true;
+    }
+
+    /**
+     * Marks a seat sold by a ticket loaded from the database. Only used while
+     * the inventory is being built, before it is shared.
+     */
+    void restoreSale(SeatSale sale) {
+        if (transition(sale.seatIndex(), FREE, SOLD)) {
+            claims.set(sale.seatIndex(), sale);
+        }
+    }
+
+    /** Index of a seat in this inventory, or -1 if it belongs to another car. */
+    public int indexOf(long seatId) {
+        int index = Arrays.binarySearch(seatIds, seatId);
+        return index >= 0 ? index : -1;
+    }
+
+    public int state(int seatIndex) {
+        long word = states.get(seatIndex / SEATS_PER_WORD);
+        return (int) (word >>> shift(seatIndex)) & 3;
+    }
+
+    public SeatClaim claim(int seatIndex) {
+        return claims.get(seatIndex);
+    }
+
+    /** Free seats, counted a word at a time. */
+    public int available() {
+        int taken = 0;
+        for (int i = 0; i < states.length(); i++) {
+            long word = states.get(i);
+            taken += Long.bitCount((word | (word >>> 1)) & LOW_BITS);
+        }
+        return seatIds.length - taken;
+    }
+
+    /** Seats in HELD state, counted a word at a time. */
+    public int held() {
+        int held = 0;
+        for (int i = 0; i < states.length(); i++) {
+            long word = states.get(i);
+            held += Long.bitCount(word & ~(word >>> 1) & LOW_BITS);
+        }
+        return held;
+    }
+
+    public int size() {
+        return seatIds.length;
+    }
+
+    public long scheduleId() {
+        return scheduleId;
+    }
+
+    public long carId() {
+        return carId;
+    }
+
+    public long seatId(int seatIndex) {
+        return seatIds[seatIndex];
+    }
+
+    public String seatNumber(int seatIndex) {
+        return seatNumbers[seatIndex];
+    }
+
+    public String seatType(int seatIndex) {
+        return seatTypes[seatIndex];
+    }
+
+    public BigDecimal price(int seatIndex) {
+        return prices[seatIndex];
+    }
+
+    /**
+     * Registers an engine operation, which keeps idle eviction away until
+     * {@link #unpin()}. False once the inventory is retired.
+     */
+    boolean pin() {
+        int current;
+        do {
+            current = pins.get();
+            if (current < 0) {
+                return false;
+            }
+        } while (!pins.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    void unpin() {
+        pins.decrementAndGet();
+    }
+
+    /** Retires the inventory if no operation has it pinned; pins fail from then on. */
+    boolean retire() {
+        return pins.compareAndSet(0, -1);
+    }
+
+    /** Undoes {@link #retire()} when eviction decides to keep the inventory after all. */
+    void reopen() {
+        pins.set(0);
+    }
+
+    void markStale() {
+        stale = true;
+    }
+
+    boolean stale() {
+        return stale;
+    }
+
+    public AtomicInteger pendingWrites() {
+        return pendingWrites;
+    }
+
+    public long lastAccessMs() {
+        return lastAccessMs;
+    }
+
+    public void touch(long nowMs) {
+        // Plain volatile write; a slightly stale value only delays eviction
+        if (nowMs - lastAccessMs > 1000) {
+            lastAccessMs = nowMs;
+        }
+    }
+
+    private boolean transition(int seatIndex, int from, int to) {
+        int wordIndex = seatIndex / SEATS_PER_WORD;
+        int shift = shift(seatIndex);
+        long mask = 3L << shift;
+        long target = (long) to << shift;
+        while (true) {
+            long word = states.get(wordIndex);
+            if (((word >>> shift) & 3) != from) {
+                return false;
+            }
+            if (states.compareAndSet(wordIndex, word, (word & ~mask) | target)) {
+                return true;
+            }
+        }
+    }
+
+    private static int shift(int seatIndex) {
+        return (seatIndex % SEATS_PER_WORD) << 1;
+    }
+}
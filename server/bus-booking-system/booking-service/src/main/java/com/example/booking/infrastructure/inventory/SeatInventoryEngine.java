@@ -0,0 +1,407 @@
+package com.example.booking.infrastructure.inventory;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.booking.domain.model.Seat;
+import com.example.booking.domain.model.Ticket;
+import com.example.booking.domain.model.TicketStatus;
+import com.example.booking.domain.repository.SeatRepository;
+import com.example.booking.domain.repository.TicketRepository;
+import com.example.booking.infrastructure.exception.BadRequestException;
+import com.example.booking.infrastructure.exception.ConflictException;
+import com.example.booking.infrastructure.exception.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Owns the in-memory {@link SeatInventory} of every schedule in use. An
+ * inventory is built on first access from the car's seat layout and the
+ * schedule's BOOKED tickets, then serves all holds, confirmations and seat maps
+ * without touching the database; confirmed and cancelled tickets reach the
+ * database through the booking write-behind. Holds live only here, so a
+ * restart drops them (buyers hold again) and a schedule must be served by one
+ * instance. The unique (schedule, booked seat) key on tickets is the backstop
+ * if that is ever violated.
+ *
+ * <p>Live claims are also indexed by ticket id for confirm and cancel. Holds
+ * are released by a {@link HoldTimerWheel}; schedules idle for
+ * booking.inventory.idle-evict-ms with no holds and no queued writes are
+ * dropped and reloaded on next use. Every operation that changes seats pins its
+ * inventory, and eviction only retires an unpinned one, so nothing lands on an
+ * inventory after it was dropped: an operation that finds its inventory retired
+ * waits out the eviction and, if it was dropped, carries on with the reloaded
+ * one.
+ */
+@Component
+@Slf4j
+public class SeatInventoryEngine {
+
+    private final SeatRepository seatRepository;
+    private final TicketRepository ticketRepository;
+    private final long holdTtlMs;
+    private final long idleEvictMs;
+
+    private final Map<Long, SeatInventory> inventories = new ConcurrentHashMap<>();
+    private final Map<String, SeatClaim> claimsByTicket = new ConcurrentHashMap<>();
+    private final AtomicInteger activeHolds = new AtomicInteger();
+    private final HoldTimerWheel timerWheel;
+
+    private final Counter holdsGranted;
+    private final Counter holdsConflicted;
+    private final Counter holdsExpired;
+    private final Counter holdsReleased;
+    private final Counter ticketsConfirmed;
+    private final Counter ticketsCancelled;
+
+    public SeatInventoryEngine(SeatRepository seatRepository, TicketRepository ticketRepository,
+            MeterRegistry meterRegistry,
+            @Value("${booking.inventory.hold-ttl-ms:600000}") long holdTtlMs,
+            @Value("${booking.inventory.timer-tick-ms:100}") long timerTickMs,
+            @Value("${booking.inventory.timer-wheel-size:1024}") int timerWheelSize,
+            @Value("${booking.inventory.idle-evict-ms:3600000}") long idleEvictMs) {
+        this.seatRepository = seatRepository;
+        this.ticketRepository = ticketRepository;
+        this.holdTtlMs = holdTtlMs;
+        this.idleEvictMs = idleEvictMs;
+
+        this.holdsGranted = holdCounter(meterRegistry, "granted");
+        this.holdsConflicted = holdCounter(meterRegistry, "conflict");
+        this.holdsExpired = holdCounter(meterRegistry, "expired");
+        this.holdsReleased = holdCounter(meterRegistry, "released");
+        this.ticketsConfirmed = Counter.builder("booking.tickets").tag("outcome", "confirmed")
+                .description("Tickets confirmed or cancelled").register(meterRegistry);
+        this.ticketsCancelled = Counter.builder("booking.tickets").tag("outcome", "cancelled")
+                .description("Tickets confirmed or cancelled").register(meterRegistry);
+        Gauge.builder("booking.inventory.schedules", inventories, Map::size)
+                .description("Schedules with an in-memory seat inventory").register(meterRegistry);
+        Gauge.builder("booking.inventory.holds.active", activeHolds, AtomicInteger::get)
+                .description("Seat holds waiting to be confirmed or to expire").register(meterRegistry);
+
+        this.timerWheel = new HoldTimerWheel("seat-hold-timer", timerTickMs, timerWheelSize, this::expire);
+        this.timerWheel.start();
+    }
+
+    /**
+     * Inventory of a schedule, loading it for the given car if needed.
+     */
+    public SeatInventory forSchedule(long scheduleId, long carId) {
+        SeatInventory inventory = inventories.get(scheduleId);
+        if (inventory == null) {
+            inventory = load(scheduleId, carId);
+        }
+        if (inventory.carId() != carId) {
+            throw new BadRequestException("Schedule " + scheduleId + " is not served by car " + carId);
+        }
+        inventory.touch(System.currentTimeMillis());
+        return inventory;
+    }
+
+    /**
+     * Inventory of a schedule, loading it for the seat's car if needed.
+     */
+    public SeatInventory forSeat(long scheduleId, long seatId) {
+        SeatInventory inventory = inventories.get(scheduleId);
+        if (inventory == null) {
+            Seat seat = seatRepository.findById(seatId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Seat not found: " + seatId));
+            inventory = load(scheduleId, seat.getCarId());
+        }
+        if (inventory.indexOf(seatId) < 0) {
+            throw new BadRequestException("Seat " + seatId + " is not on schedule " + scheduleId);
+        }
+        inventory.touch(System.currentTimeMillis());
+        return inventory;
+    }
+
+    /**
+     * Inventory of a schedule if it is in memory, without loading it or
+     * counting as a use for idle eviction.
+     */
+    public SeatInventory loaded(long scheduleId) {
+        return inventories.get(scheduleId);
+    }
+
+    /**
+     * Holds a seat for {@code booking.inventory.hold-ttl-ms}.
+     *
+     * @throws ConflictException if the seat is already held or sold
+     */
+    public SeatHold hold(SeatInventory inventory, int seatIndex, Integer userId, String paymentMethod) {
+        SeatInventory target = inventory;
+        while (!pinLive(target)) {
+            target = forSchedule(target.scheduleId(), target.carId());
+        }
+        try {
+            SeatHold hold = target.tryHold(seatIndex, newTicketId(), userId, paymentMethod,
+                    System.currentTimeMillis(), holdTtlMs);
+            if (hold == null) {
+                holdsConflicted.increment();
+                throw new ConflictException("Seat " + target.seatNumber(seatIndex) + " is no longer available");
+            }
+            claimsByTicket.put(hold.ticketId(), hold);
+            activeHolds.incrementAndGet();
+            timerWheel.schedule(hold);
+            holdsGranted.increment();
+            return hold;
+        } finally {
+            target.unpin();
+        }
+    }
+
+    /**
+     * Turns a hold into a sale, or returns null if it expired first. An expired
+     * hold the timer has not reached yet is released here. The sale counts as a
+     * pending write until the write-behind has inserted it.
+     */
+    public SeatSale confirm(SeatHold hold) {
+        SeatInventory inventory = hold.inventory();
+        // A schedule with a hold is never dropped, so pinning only waits out an eviction attempt
+        if (!pinLive(inventory)) {
+            return null;
+        }
+        SeatSale sale;
+        try {
+            sale = inventory.confirm(hold, System.currentTimeMillis());
+            if (sale != null) {
+                inventory.pendingWrites().incrementAndGet();
+                claimsByTicket.replace(hold.ticketId(), hold, sale);
+            }
+        } finally {
+            inventory.unpin();
+        }
+        if (sale == null) {
+            expire(hold);
+            return null;
+        }
+        activeHolds.decrementAndGet();
+        ticketsConfirmed.increment();
+        return sale;
+    }
+
+    /** Gives up a hold before it expires. */
+    public boolean release(SeatHold hold) {
+        if (!releaseHold(hold)) {
+            return false;
+        }
+        holdsReleased.increment();
+        return true;
+    }
+
+    /**
+     * Frees a sold seat and returns the sale that was cancelled, or null if it
+     * already was. If the schedule was dropped since {@code sale} was read, the
+     * ticket's sale in the reloaded inventory is cancelled instead. The
+     * cancellation counts as a pending write until the write-behind has applied it.
+     */
+    public SeatSale cancel(SeatSale sale) {
+        SeatSale target = sale;
+        SeatInventory inventory = target.inventory();
+        while (!pinLive(inventory)) {
+            inventory = forSchedule(inventory.scheduleId(), inventory.carId());
+            SeatClaim reloaded = inventory.claim(target.seatIndex());
+            if (!(reloaded instanceof SeatSale reloadedSale) || !reloadedSale.ticketId().equals(sale.ticketId())) {
+                return null;
+            }
+            target = reloadedSale;
+        }
+        try {
+            if (!inventory.cancel(target)) {
+                return null;
+            }
+            inventory.pendingWrites().incrementAndGet();
+            claimsByTicket.remove(target.ticketId(), target);
+        } finally {
+            inventory.unpin();
+        }
+        ticketsCancelled.increment();
+        return target;
+    }
+
+    /**
+     * Takes back a sale whose ticket never reached the database, freeing the
+     * seat without queueing a write. False if the sale was cancelled meanwhile
+     * or its schedule was dropped.
+     */
+    public boolean revoke(SeatSale sale) {
+        SeatInventory inventory = sale.inventory();
+        if (!pinLive(inventory)) {
+            return false;
+        }
+        try {
+            if (!inventory.cancel(sale)) {
+                return false;
+            }
+            claimsByTicket.remove(sale.ticketId(), sale);
+        } finally {
+            inventory.unpin();
+        }
+        return true;
+    }
+
+    /**
+     * Marks a schedule whose seats may no longer match booking_db (a lost write,
+     * a conflicting insert). The next eviction pass drops it as soon as it has no
+     * holds or queued writes, however recently it was used, and the next request
+     * reloads it from the database.
+     */
+    public void invalidate(SeatInventory inventory) {
+        inventory.markStale();
+    }
+
+    /**
+     * Live claim of a ticket: held, or sold on a schedule that is in memory.
+     */
+    public SeatClaim claim(String ticketId) {
+        return claimsByTicket.get(ticketId);
+    }
+
+    /**
+     * Claim of a ticket read from the database, loading its schedule. Null if
+     * the seat no longer carries this ticket (e.g. a cancellation not yet
+     * written).
+     */
+    public SeatClaim claimOf(Ticket ticket) {
+        SeatInventory inventory = forSeat(ticket.getScheduleId(), ticket.getSeatId());
+        SeatClaim claim = inventory.claim(inventory.indexOf(ticket.getSeatId()));
+        return claim != null && claim.ticketId().equals(ticket.getId()) ? claim : null;
+    }
+
+    /**
+     * Drops inventories nobody used for idle-evict-ms, and invalidated ones
+     * regardless of use. Schedules with holds or queued writes are kept, so a
+     * reload always sees the tickets it sold. The inventory is retired before
+     * those checks, so no operation can add a hold or a write between the
+     * checks and the removal.
+     */
+    @Scheduled(fixedDelayString = "${booking.inventory.evict-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleEvictMs;
+        for (SeatInventory inventory : inventories.values()) {
+            if (inUse(inventory, cutoff) || !inventory.retire()) {
+                continue;
+            }
+            if (inUse(inventory, cutoff) || inventory.held() > 0
+                    || inventory.pendingWrites().get() > 0) {
+                inventory.reopen();
+                continue;
+            }
+            inventories.remove(inventory.scheduleId(), inventory);
+            for (int i = 0; i < inventory.size(); i++) {
+                SeatClaim claim = inventory.claim(i);
+                if (claim != null) {
+                    claimsByTicket.remove(claim.ticketId(), claim);
+                }
+            }
+            log.debug("Evicted idle seat inventory of schedule {}", inventory.scheduleId());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        timerWheel.stop();
+    }
+
+    private SeatInventory load(long scheduleId, long carId) {
+        List<Seat> seats = seatRepository.findByCarIdOrderByIdAsc(carId);
+        if (seats.isEmpty()) {
+            throw new ResourceNotFoundException("Car " + carId + " has no seats");
+        }
+        SeatInventory inventory = new SeatInventory(scheduleId, carId, seats);
+        List<Ticket> booked = ticketRepository.findByScheduleIdAndStatus(scheduleId, TicketStatus.BOOKED);
+        for (Ticket ticket : booked) {
+            int index = inventory.indexOf(ticket.getSeatId());
+            if (index < 0) {
+                log.warn("Ticket {} of schedule {} is for seat {}, which is not on car {}",
+                        ticket.getId(), scheduleId, ticket.getSeatId(), carId);
+                continue;
+            }
+            long createdAtMs = ticket.getCreatedAt() != null
+                    ? Timestamp.valueOf(ticket.getCreatedAt()).getTime() : 0L;
+            inventory.restoreSale(new SeatSale(inventory, index, ticket.getId(), ticket.getUserId(),
+                    ticket.getPaymentMethod(), createdAtMs));
+        }
+
+        // Concurrent first requests may both load; the first to publish wins
+        SeatInventory existing = inventories.putIfAbsent(scheduleId, inventory);
+        if (existing != null) {
+            return existing;
+        }
+        for (int i = 0; i < inventory.size(); i++) {
+            SeatClaim claim = inventory.claim(i);
+            if (claim != null) {
+                claimsByTicket.putIfAbsent(claim.ticketId(), claim);
+            }
+        }
+        log.info("Loaded seat inventory of schedule {}: {} seats, {} booked", scheduleId, inventory.size(),
+                inventory.size() - inventory.available());
+        return inventory;
+    }
+
+    private static boolean inUse(SeatInventory inventory, long cutoff) {
+        return !inventory.stale() && inventory.lastAccessMs() > cutoff;
+    }
+
+    private void expire(SeatHold hold) {
+        if (releaseHold(hold)) {
+            holdsExpired.increment();
+        }
+    }
+
+    private boolean releaseHold(SeatHold hold) {
+        SeatInventory inventory = hold.inventory();
+        if (!pinLive(inventory)) {
+            return false;
+        }
+        try {
+            if (!inventory.release(hold)) {
+                return false;
+            }
+            claimsByTicket.remove(hold.ticketId(), hold);
+        } finally {
+            inventory.unpin();
+        }
+        activeHolds.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * Pins the inventory, waiting while an eviction attempt has it retired.
+     * False if the eviction went through and the inventory was dropped.
+     */
+    private boolean pinLive(SeatInventory inventory) {
+        while (!inventory.pin()) {
+            if (inventories.get(inventory.scheduleId()) != inventory) {
+                return false;
+            }
+            Thread.onSpinWait();
+        }
+        return true;
+    }
+
+    /** Random (version 4) UUID without contending on a shared SecureRandom. */
+    private static String newTicketId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & ~(0x3L << 62)) | (0x2L << 62);
+        return new UUID(most, least).toString();
+    }
+
+    private static Counter holdCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("booking.holds").tag("outcome", outcome)
+                .description("Seat hold attempts and hold endings").register(meterRegistry);
+    }
+}
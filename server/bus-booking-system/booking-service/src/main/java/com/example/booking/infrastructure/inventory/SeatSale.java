@@ -0,0 +1,8 @@
+package com.example.booking.infrastructure.inventory;
+
+/**
+ * A confirmed booking of one seat.
+ */
+public record SeatSale(SeatInventory inventory, int seatIndex, String ticketId, Integer userId,
+        String paymentMethod, long createdAtMs) implements SeatClaim {
+}
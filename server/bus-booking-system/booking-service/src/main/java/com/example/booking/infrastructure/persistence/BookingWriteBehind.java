@@ -0,0 +1,315 @@
+package com.example.booking.infrastructure.persistence;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.booking.infrastructure.inventory.SeatInventory;
+import com.example.booking.infrastructure.inventory.SeatInventoryEngine;
+import com.example.booking.infrastructure.inventory.SeatSale;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes confirmed and cancelled tickets to booking_db in batches, off the
+ * request path. Callers reserve a slot with {@link #tryReserve()} before
+ * changing the seat inventory, so a full queue turns into a 503 before anything
+ * is promised to the buyer. One thread drains the queue: it waits linger-ms for
+ * more writes after the first, then inserts and updates up to batch-size rows
+ * in one transaction. A failed batch is retried with backoff until it commits;
+ * a batch hitting the booked-seat unique key is retried row by row.
+ *
+ * <p>A write that can never be applied (a conflicting row, a batch still failing
+ * at the shutdown deadline, an unexpected error) is counted under
+ * booking.writebehind.lost and taken back in memory: a lost insert's sale is
+ * revoked so the seat is free again, and the schedule is invalidated so it is
+ * reloaded from booking_db. The buyer was already told the ticket is booked, so
+ * each lost write is logged with its ticket id for follow-up. Queued writes
+ * are lost if the process dies before they are flushed. A normal shutdown
+ * drains the queue for up to shutdown-timeout-ms.
+ */
+@Component
+@Slf4j
+public class BookingWriteBehind {
+
+    private static final String INSERT_SQL = "INSERT INTO tickets "
+            + "(id, schedule_id, seat_id, user_id, status, payment_method, price, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, 'BOOKED', ?, ?, ?, ?)";
+    private static final String CANCEL_SQL = "UPDATE tickets SET status = 'CANCELLED', cancel_reason = ?, "
+            + "updated_at = ? WHERE id = ? AND status = 'BOOKED'";
+
+    private record PendingWrite(SeatSale sale, boolean cancel, String reason, long atMs) {
+    }
+
+    private enum Outcome {
+        COMMITTED, CONFLICT, DROPPED
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SeatInventoryEngine inventoryEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long lingerMs;
+    private final long maxBackoffMs;
+    private final long shutdownTimeoutMs;
+
+    private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+    private final Semaphore capacity;
+    private final Thread worker;
+    private volatile boolean running = true;
+    private volatile long shutdownDeadlineMs = Long.MAX_VALUE;
+
+    private final DistributionSummary batchSizes;
+    private final Timer flushTime;
+    private final Counter failures;
+    private final Counter lostConflicts;
+    private final Counter lostAtShutdown;
+    private final Counter lostOnError;
+
+    public BookingWriteBehind(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            SeatInventoryEngine inventoryEngine, MeterRegistry meterRegistry,
+            @Value("${booking.write-behind.batch-size:500}") int batchSize,
+            @Value("${booking.write-behind.linger-ms:20}") long lingerMs,
+            @Value("${booking.write-behind.queue-capacity:20000}") int queueCapacity,
+            @Value("${booking.write-behind.max-backoff-ms:5000}") long maxBackoffMs,
+            @Value("${booking.write-behind.shutdown-timeout-ms:30000}") long shutdownTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventoryEngine = inventoryEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.lingerMs = lingerMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+        this.capacity = new Semaphore(queueCapacity);
+
+        this.batchSizes = DistributionSummary.builder("booking.writebehind.batch.size")
+                .description("Ticket writes per flushed batch").register(meterRegistry);
+        this.flushTime = Timer.builder("booking.writebehind.flush.time")
+                .description("Time to write one batch of tickets").register(meterRegistry);
+        this.failures = Counter.builder("booking.writebehind.failures")
+                .description("Batches that failed and were retried").register(meterRegistry);
+        this.lostConflicts = lostCounter(meterRegistry, "conflict");
+        this.lostAtShutdown = lostCounter(meterRegistry, "shutdown");
+        this.lostOnError = lostCounter(meterRegistry, "error");
+        Gauge.builder("booking.writebehind.queued", queue, BlockingQueue::size)
+                .description("Ticket writes waiting to be flushed").register(meterRegistry);
+
+        this.worker = new Thread(this::run, "booking-write-behind");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Reserves room for one write; false when the queue is full.
+     */
+    public boolean tryReserve() {
+        return capacity.tryAcquire();
+    }
+
+    /** Returns a reservation that was not used. */
+    public void unreserve() {
+        capacity.release();
+    }
+
+    /** Queues the insert of a confirmed ticket; needs a reservation. */
+    public void insert(SeatSale sale) {
+        enqueue(new PendingWrite(sale, false, null, sale.createdAtMs()));
+    }
+
+    /** Queues the cancellation of a booked ticket; needs a reservation. */
+    public void cancel(SeatSale sale, String reason) {
+        enqueue(new PendingWrite(sale, true, reason, System.currentTimeMillis()));
+    }
+
+    @PreDestroy
+    public void stop() {
+        shutdownDeadlineMs = System.currentTimeMillis() + shutdownTimeoutMs;
+        running = false;
+        try {
+            worker.join(shutdownTimeoutMs + 1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            log.error("Shutting down with {} ticket writes not flushed", queue.size());
+        }
+    }
+
+    /** The engine already counted the write in the inventory's pendingWrites. */
+    private void enqueue(PendingWrite write) {
+        queue.add(write);
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        Deque<PendingWrite> unresolved = new ArrayDeque<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                if (running && lingerMs > 0 && queue.size() < batchSize - 1) {
+                    Thread.sleep(lingerMs);
+                }
+                queue.drainTo(batch, batchSize - 1);
+                unresolved.addAll(batch);
+                flushWithRetry(batch, unresolved);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // writeUntilCommitted retries every failure; this is a bug, keep the worker alive
+                log.error("Ticket write-behind dropped {} writes after an unexpected error", unresolved.size(), e);
+                for (PendingWrite write : unresolved) {
+                    lost(write, lostOnError);
+                }
+            } finally {
+                // Lost writes are taken back above, before eviction may drop their schedule
+                for (PendingWrite write : batch) {
+                    write.sale().inventory().pendingWrites().decrementAndGet();
+                }
+                capacity.release(batch.size());
+                batch.clear();
+                unresolved.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes the batch, falling back to one row at a time on a conflict.
+     * Takes each write off {@code unresolved} (the batch, in order) once it is
+     * committed or lost.
+     */
+    private void flushWithRetry(List<PendingWrite> batch, Deque<PendingWrite> unresolved)
+            throws InterruptedException {
+        Outcome outcome = writeUntilCommitted(batch);
+        if (outcome == Outcome.CONFLICT) {
+            for (PendingWrite write : batch) {
+                Outcome rowOutcome = writeUntilCommitted(List.of(write));
+                if (rowOutcome != Outcome.COMMITTED) {
+                    lost(write, rowOutcome == Outcome.CONFLICT ? lostConflicts : lostAtShutdown);
+                }
+                unresolved.pollFirst();
+            }
+        } else {
+            if (outcome == Outcome.DROPPED) {
+                for (PendingWrite write : batch) {
+                    lost(write, lostAtShutdown);
+                }
+            }
+            unresolved.clear();
+        }
+        batchSizes.record(batch.size());
+    }
+
+    /**
+     * Takes back a write that will never reach booking_db: a lost insert's sale
+     * is revoked, and the schedule is reloaded from the database on the next
+     * eviction pass either way.
+     */
+    private void lost(PendingWrite write, Counter counter) {
+        SeatSale sale = write.sale();
+        SeatInventory inventory = sale.inventory();
+        counter.increment();
+        boolean revoked = !write.cancel() && inventoryEngine.revoke(sale);
+        inventoryEngine.invalidate(inventory);
+        log.error("Lost ticket {} ({}, {}) for seat {} on schedule {}{}", sale.ticketId(),
+                write.cancel() ? "cancel" : "insert", counter.getId().getTag("reason"),
+                inventory.seatId(sale.seatIndex()), inventory.scheduleId(),
+                revoked ? "; sale revoked, seat freed" : "; needs reconciliation");
+    }
+
+    /**
+     * Retries with backoff until the rows commit. CONFLICT if they violate a
+     * constraint, which no retry will fix; DROPPED if they still fail past the
+     * shutdown deadline. Every other failure is retried, including the
+     * TransactionException thrown when no connection can be had while the
+     * database is down.
+     */
+    private Outcome writeUntilCommitted(List<PendingWrite> rows) throws InterruptedException {
+        long backoffMs = 100;
+        while (true) {
+            try {
+                flushTime.record(() -> write(rows));
+                return Outcome.COMMITTED;
+            } catch (DataIntegrityViolationException e) {
+                return Outcome.CONFLICT;
+            } catch (RuntimeException e) {
+                failures.increment();
+                if (System.currentTimeMillis() > shutdownDeadlineMs) {
+                    log.error("Dropping {} ticket writes at shutdown: {}", rows.size(), e.getMessage());
+                    return Outcome.DROPPED;
+                }
+                log.warn("Ticket batch of {} failed, retrying in {} ms: {}", rows.size(), backoffMs,
+                        e.getMessage());
+                Thread.sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            }
+        }
+    }
+
+    private void write(List<PendingWrite> batch) {
+        // Inserts first: a cancel in the same batch may be for a ticket inserted in it
+        List<PendingWrite> inserts = new ArrayList<>(batch.size());
+        List<PendingWrite> cancels = new ArrayList<>();
+        for (PendingWrite write : batch) {
+            (write.cancel() ? cancels : inserts).add(write);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!inserts.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, inserts, inserts.size(), (ps, write) -> bindInsert(ps, write));
+            }
+            if (!cancels.isEmpty()) {
+                jdbcTemplate.batchUpdate(CANCEL_SQL, cancels, cancels.size(), (ps, write) -> bindCancel(ps, write));
+            }
+        });
+    }
+
+    private void bindInsert(PreparedStatement ps, PendingWrite write) throws SQLException {
+        SeatSale sale = write.sale();
+        SeatInventory inventory = sale.inventory();
+        Timestamp createdAt = new Timestamp(sale.createdAtMs());
+        ps.setString(1, sale.ticketId());
+        ps.setLong(2, inventory.scheduleId());
+        ps.setLong(3, inventory.seatId(sale.seatIndex()));
+        ps.setInt(4, sale.userId());
+        ps.setString(5, sale.paymentMethod());
+        ps.setBigDecimal(6, inventory.price(sale.seatIndex()));
+        ps.setTimestamp(7, createdAt);
+        ps.setTimestamp(8, createdAt);
+    }
+
+    private void bindCancel(PreparedStatement ps, PendingWrite write) throws SQLException {
+        ps.setString(1, write.reason());
+        ps.setTimestamp(2, new Timestamp(write.atMs()));
+        ps.setString(3, write.sale().ticketId());
+    }
+
+    private static Counter lostCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("booking.writebehind.lost").tag("reason", reason)
+                .description("Ticket writes that never reached the database").register(meterRegistry);
+    }
+}
@@ -0,0 +1,458 @@
+package com.example.booking.infrastructure.search;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.booking.domain.model.Schedule;
+import com.example.booking.domain.model.ScheduleStatus;
+import com.example.booking.domain.repository.ScheduleRepository;
+import com.example.booking.infrastructure.inventory.SeatInventory;
+import com.example.booking.infrastructure.inventory.SeatInventoryEngine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory index behind the ticket search, replacing a filtered and sorted
+ * query over schedules with a seat count per row:
+ * - active schedules from today on are grouped by (departure station, arrival
+ *   station, service day), the key every search is made with
+ * - each group holds its schedules sorted by departure time and, separately,
+ *   by base fare, so a search is one hash lookup, a binary search for the
+ *   departure-time window and a walk of the requested page in either order;
+ *   a search without both stations (browsing a day) merges the day's groups
+ * - seats left come from the schedule's seat inventory while it is in memory,
+ *   so holds and sales show up at once, otherwise from the car's seat count
+ *   minus the schedule's BOOKED tickets
+ * The index is built on startup, refreshed incrementally from the schedules
+ * (updated_at, id) watermark and by recounting schedules whose tickets changed,
+ * and fully rebuilt periodically to drop departed days.
+ */
+@Component
+@Slf4j
+public class ScheduleSearchIndex {
+
+    private static final String SEATS_PER_CAR_SQL = "SELECT car_id, COUNT(*) FROM seats GROUP BY car_id";
+    private static final String SEATS_OF_CAR_SQL = "SELECT COUNT(*) FROM seats WHERE car_id = ?";
+    private static final String BOOKED_PER_SCHEDULE_SQL =
+            "SELECT schedule_id, COUNT(*) FROM tickets WHERE status = 'BOOKED' GROUP BY schedule_id";
+    // Every schedule with a ticket written since the cutoff, with its BOOKED count (possibly 0)
+    private static final String BOOKED_OF_CHANGED_SQL = "SELECT schedule_id, "
+            + "SUM(CASE WHEN status = 'BOOKED' THEN 1 ELSE 0 END) FROM tickets "
+            + "WHERE schedule_id IN (SELECT schedule_id FROM tickets WHERE updated_at >= ?) GROUP BY schedule_id";
+
+    /** Result orders a search can ask for. */
+    public enum Order {
+        DEPARTURE_ASC,
+        DEPARTURE_DESC,
+        FARE_ASC,
+        FARE_DESC
+    }
+
+    private final ScheduleRepository scheduleRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final SeatInventoryEngine inventoryEngine;
+    private final int batchSize;
+    private final long ticketOverlapMs;
+    private final Timer searchTimer;
+
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean ready;
+    private LocalDateTime watermark = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private long watermarkId;
+    private LocalDateTime ticketsCheckedAt = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public ScheduleSearchIndex(
+            ScheduleRepository scheduleRepository,
+            JdbcTemplate jdbcTemplate,
+            SeatInventoryEngine inventoryEngine,
+            @Value("${search.schedules.batch-size:1000}") int batchSize,
+            @Value("${search.schedules.ticket-overlap-ms:60000}") long ticketOverlapMs,
+            MeterRegistry meterRegistry) {
+        this.scheduleRepository = scheduleRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventoryEngine = inventoryEngine;
+        this.batchSize = batchSize;
+        this.ticketOverlapMs = ticketOverlapMs;
+        this.searchTimer = Timer.builder("search.schedules.query").register(meterRegistry);
+        Gauge.builder("search.schedules.documents", this, index -> index.snapshot.schedules.size())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the whole index from a keyset scan by id and swaps it in atomically.
+     */
+    @Scheduled(fixedDelayString = "${search.schedules.rebuild-interval-ms:3600000}",
+            initialDelayString = "${search.schedules.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        LocalDateTime checkedAt = LocalDateTime.now();
+        Snapshot fresh = new Snapshot();
+        jdbcTemplate.query(SEATS_PER_CAR_SQL, rs -> {
+            fresh.seatsByCar.put(rs.getLong(1), rs.getInt(2));
+        });
+        jdbcTemplate.query(BOOKED_PER_SCHEDULE_SQL, rs -> {
+            fresh.bookedBySchedule.put(rs.getLong(1), rs.getInt(2));
+        });
+
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        LocalDateTime maxUpdatedAt = watermark;
+        long maxUpdatedId = watermarkId;
+        Map<RouteDay, List<IndexedSchedule>> groups = new HashMap<>();
+        long afterId = 0;
+        List<Schedule> batch;
+        do {
+            batch = scheduleRepository.findDepartingAfterId(ScheduleStatus.ACTIVE, from, afterId,
+                    PageRequest.of(0, batchSize));
+            for (Schedule schedule : batch) {
+                IndexedSchedule indexed = IndexedSchedule.of(schedule);
+                fresh.schedules.put(indexed.id(), indexed);
+                groups.computeIfAbsent(indexed.key(), key -> new ArrayList<>()).add(indexed);
+                afterId = schedule.getId();
+                if (schedule.getUpdatedAt() != null && schedule.getUpdatedAt().isAfter(maxUpdatedAt)) {
+                    maxUpdatedAt = schedule.getUpdatedAt();
+                    maxUpdatedId = schedule.getId();
+                }
+            }
+        } while (batch.size() == batchSize);
+        groups.forEach((key, schedules) -> fresh.groups.put(key, Group.of(schedules)));
+
+        snapshot = fresh;
+        watermark = maxUpdatedAt;
+        watermarkId = maxUpdatedId;
+        ticketsCheckedAt = checkedAt;
+        ready = true;
+        log.info("Schedule search index rebuilt: {} schedules in {} route-days in {}ms", fresh.schedules.size(),
+                fresh.groups.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies schedules changed since the last watermark and recounts the
+     * booked seats of schedules with tickets written since the last refresh.
+     * Ticket rows carry the time of the confirmation or cancellation, which the
+     * write-behind commits a little later, so the ticket check looks back
+     * ticket-overlap-ms further than the previous one.
+     */
+    @Scheduled(fixedDelayString = "${search.schedules.refresh-interval-ms:5000}",
+            initialDelayString = "${search.schedules.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        if (!ready) {
+            return;
+        }
+        Snapshot current = snapshot;
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        int applied = 0;
+        List<Schedule> batch;
+        do {
+            batch = scheduleRepository.findChangedSince(watermark, watermarkId, PageRequest.of(0, batchSize));
+            for (Schedule schedule : batch) {
+                if (schedule.getStatus() == ScheduleStatus.ACTIVE && !schedule.getDepartureTime().isBefore(from)) {
+                    current.seatsByCar.computeIfAbsent(schedule.getCarId(),
+                            carId -> jdbcTemplate.queryForObject(SEATS_OF_CAR_SQL, Integer.class, carId));
+                    current.put(IndexedSchedule.of(schedule));
+                } else {
+                    current.remove(schedule.getId());
+                }
+                watermark = schedule.getUpdatedAt();
+                watermarkId = schedule.getId();
+                applied++;
+            }
+        } while (batch.size() == batchSize);
+
+        LocalDateTime checkedAt = LocalDateTime.now();
+        Timestamp since = Timestamp.valueOf(ticketsCheckedAt.minusNanos(ticketOverlapMs * 1_000_000));
+        int[] recounted = new int[1];
+        jdbcTemplate.query(BOOKED_OF_CHANGED_SQL, rs -> {
+            long scheduleId = rs.getLong(1);
+            if (current.schedules.containsKey(scheduleId)) {
+                current.bookedBySchedule.put(scheduleId, rs.getInt(2));
+                recounted[0]++;
+            }
+        }, since);
+        ticketsCheckedAt = checkedAt;
+
+        if (applied > 0 || recounted[0] > 0) {
+            log.debug("Schedule search index refreshed with {} changed schedules, {} recounted", applied,
+                    recounted[0]);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Schedules from {@code origin} to {@code destination} departing on
+     * {@code day} at or after {@code from} and before {@code to} (either may be
+     * null for no bound), in the given order, skipping {@code offset} and
+     * returning at most {@code limit}, with the total in the window. A null
+     * station matches every station; that scans all groups of the day instead
+     * of looking one up.
+     */
+    public SearchResult search(Long origin, Long destination, LocalDate day, LocalTime from, LocalTime to,
+            Order order, int offset, int limit) {
+        long start = System.nanoTime();
+        try {
+            return doSearch(origin, destination, day, from, to, order, offset, limit);
+        } finally {
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private SearchResult doSearch(Long origin, Long destination, LocalDate day, LocalTime from, LocalTime to,
+            Order order, int offset, int limit) {
+        Snapshot current = snapshot;
+        LocalDateTime windowStart = from == null ? null : day.atTime(from);
+        LocalDateTime windowEnd = to == null ? null : day.atTime(to);
+        if (origin == null || destination == null) {
+            return searchDay(current, origin, destination, day, windowStart, windowEnd, order, offset, limit);
+        }
+        Group group = current.groups.get(new RouteDay(origin, destination, day));
+        if (group == null) {
+            return new SearchResult(Collections.emptyList(), 0);
+        }
+
+        IndexedSchedule[] byDeparture = group.byDeparture;
+        int lo = windowStart == null ? 0 : firstDepartingAt(byDeparture, windowStart);
+        int hi = windowEnd == null ? byDeparture.length : firstDepartingAt(byDeparture, windowEnd);
+        int total = Math.max(0, hi - lo);
+        if (offset >= total) {
+            return new SearchResult(Collections.emptyList(), total);
+        }
+
+        List<Hit> hits = new ArrayList<>(Math.min(limit, total - offset));
+        switch (order) {
+            case DEPARTURE_ASC -> {
+                // offset < total, so lo + offset stays below hi
+                for (int i = lo + offset; i < hi && hits.size() < limit; i++) {
+                    hits.add(hit(current, byDeparture[i]));
+                }
+            }
+            case DEPARTURE_DESC -> {
+                for (int i = hi - 1 - offset; i >= lo && hits.size() < limit; i--) {
+                    hits.add(hit(current, byDeparture[i]));
+                }
+            }
+            case FARE_ASC, FARE_DESC -> {
+                // The fare order is not sorted by time, so a narrowed window is filtered on the way
+                IndexedSchedule[] byFare = group.byFare;
+                boolean ascending = order == Order.FARE_ASC;
+                int skipped = 0;
+                for (int n = 0; n < byFare.length && hits.size() < limit; n++) {
+                    IndexedSchedule schedule = byFare[ascending ? n : byFare.length - 1 - n];
+                    if (!schedule.departsWithin(windowStart, windowEnd)) {
+                        continue;
+                    }
+                    if (skipped < offset) {
+                        skipped++;
+                        continue;
+                    }
+                    hits.add(hit(current, schedule));
+                }
+            }
+        }
+        return new SearchResult(hits, total);
+    }
+
+    /** Collects the window from every group of the day matching the given stations, then sorts and pages. */
+    private SearchResult searchDay(Snapshot current, Long origin, Long destination, LocalDate day,
+            LocalDateTime windowStart, LocalDateTime windowEnd, Order order, int offset, int limit) {
+        List<IndexedSchedule> matching = new ArrayList<>();
+        for (Map.Entry<RouteDay, Group> entry : current.groups.entrySet()) {
+            RouteDay key = entry.getKey();
+            if (!key.day().equals(day)
+                    || (origin != null && key.departureStationId() != origin)
+                    || (destination != null && key.arrivalStationId() != destination)) {
+                continue;
+            }
+            for (IndexedSchedule schedule : entry.getValue().byDeparture) {
+                if (schedule.departsWithin(windowStart, windowEnd)) {
+                    matching.add(schedule);
+                }
+            }
+        }
+        matching.sort(switch (order) {
+            case DEPARTURE_ASC -> IndexedSchedule.BY_DEPARTURE;
+            case DEPARTURE_DESC -> IndexedSchedule.BY_DEPARTURE.reversed();
+            case FARE_ASC -> IndexedSchedule.BY_FARE;
+            case FARE_DESC -> IndexedSchedule.BY_FARE.reversed();
+        });
+
+        List<Hit> hits = new ArrayList<>();
+        for (int i = offset; i < matching.size() && hits.size() < limit; i++) {
+            hits.add(hit(current, matching.get(i)));
+        }
+        return new SearchResult(hits, matching.size());
+    }
+
+    private Hit hit(Snapshot current, IndexedSchedule schedule) {
+        SeatInventory inventory = inventoryEngine.loaded(schedule.id());
+        if (inventory != null && inventory.carId() == schedule.carId()) {
+            return new Hit(schedule, inventory.available(), inventory.size());
+        }
+        int seats = current.seatsByCar.getOrDefault(schedule.carId(), 0);
+        int booked = current.bookedBySchedule.getOrDefault(schedule.id(), 0);
+        return new Hit(schedule, Math.max(0, seats - booked), seats);
+    }
+
+    /** Index of the first schedule departing at or after {@code time}. */
+    private static int firstDepartingAt(IndexedSchedule[] byDeparture, LocalDateTime time) {
+        int lo = 0;
+        int hi = byDeparture.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (byDeparture[mid].departureTime().isBefore(time)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    public record SearchResult(List<Hit> hits, int total) {
+    }
+
+    /** A schedule with its seats left at search time. */
+    public record Hit(IndexedSchedule schedule, int seatsLeft, int seats) {
+    }
+
+    public record RouteDay(long departureStationId, long arrivalStationId, LocalDate day) {
+    }
+
+    public record IndexedSchedule(long id, Long routeId, long carId, long departureStationId,
+            long arrivalStationId, LocalDateTime departureTime, LocalDateTime arrivalTime, BigDecimal basePrice) {
+
+        private static final Comparator<IndexedSchedule> BY_DEPARTURE = Comparator
+                .comparing(IndexedSchedule::departureTime).thenComparingLong(IndexedSchedule::id);
+        private static final Comparator<IndexedSchedule> BY_FARE = Comparator
+                .comparing(IndexedSchedule::basePrice).thenComparing(BY_DEPARTURE);
+
+        static IndexedSchedule of(Schedule schedule) {
+            return new IndexedSchedule(schedule.getId(), schedule.getRouteId(), schedule.getCarId(),
+                    schedule.getDepartureStationId(), schedule.getArrivalStationId(), schedule.getDepartureTime(),
+                    schedule.getArrivalTime(),
+                    schedule.getBasePrice() != null ? schedule.getBasePrice() : BigDecimal.ZERO);
+        }
+
+        RouteDay key() {
+            return new RouteDay(departureStationId, arrivalStationId, departureTime.toLocalDate());
+        }
+
+        boolean departsWithin(LocalDateTime start, LocalDateTime end) {
+            return (start == null || !departureTime.isBefore(start)) && (end == null || departureTime.isBefore(end));
+        }
+    }
+
+    /**
+     * The schedules of one route-day in both orders. Immutable: changes build
+     * a new group, so searches never see a half-sorted array.
+     */
+    private static final class Group {
+        private final IndexedSchedule[] byDeparture;
+        private final IndexedSchedule[] byFare;
+
+        private Group(IndexedSchedule[] byDeparture, IndexedSchedule[] byFare) {
+            this.byDeparture = byDeparture;
+            this.byFare = byFare;
+        }
+
+        static Group of(List<IndexedSchedule> schedules) {
+            IndexedSchedule[] byDeparture = schedules.toArray(new IndexedSchedule[0]);
+            IndexedSchedule[] byFare = byDeparture.clone();
+            Arrays.sort(byDeparture, IndexedSchedule.BY_DEPARTURE);
+            Arrays.sort(byFare, IndexedSchedule.BY_FARE);
+            return new Group(byDeparture, byFare);
+        }
+
+        Group with(IndexedSchedule schedule) {
+            List<IndexedSchedule> schedules = new ArrayList<>(byDeparture.length + 1);
+            for (IndexedSchedule existing : byDeparture) {
+                if (existing.id() != schedule.id()) {
+                    schedules.add(existing);
+                }
+            }
+            schedules.add(schedule);
+            return of(schedules);
+        }
+
+        /** Null when the group would be empty. */
+        Group without(long scheduleId) {
+            List<IndexedSchedule> schedules = new ArrayList<>(byDeparture.length);
+            for (IndexedSchedule existing : byDeparture) {
+                if (existing.id() != scheduleId) {
+                    schedules.add(existing);
+                }
+            }
+            return schedules.isEmpty() ? null : of(schedules);
+        }
+    }
+
+    /**
+     * Groups by route-day, schedules by id and the seat counts. Only the
+     * (synchronized) refresh and rebuild write; searches read concurrently.
+     */
+    private static final class Snapshot {
+        private final Map<RouteDay, Group> groups = new ConcurrentHashMap<>();
+        private final Map<Long, IndexedSchedule> schedules = new ConcurrentHashMap<>();
+        private final Map<Long, Integer> seatsByCar = new ConcurrentHashMap<>();
+        private final Map<Long, Integer> bookedBySchedule = new ConcurrentHashMap<>();
+
+        void put(IndexedSchedule schedule) {
+            IndexedSchedule previous = schedules.put(schedule.id(), schedule);
+            if (previous != null && !previous.key().equals(schedule.key())) {
+                detach(previous);
+            }
+            Group group = groups.get(schedule.key());
+            groups.put(schedule.key(), group == null ? Group.of(List.of(schedule)) : group.with(schedule));
+        }
+
+        void remove(long scheduleId) {
+            IndexedSchedule previous = schedules.remove(scheduleId);
+            if (previous != null) {
+                detach(previous);
+                bookedBySchedule.remove(scheduleId);
+            }
+        }
+
+        private void detach(IndexedSchedule schedule) {
+            Group group = groups.get(schedule.key());
+            if (group == null) {
+                return;
+            }
+            Group remaining = group.without(schedule.id());
+            if (remaining == null) {
+                groups.remove(schedule.key());
+            } else {
+                groups.put(schedule.key(), remaining);
+            }
+        }
+    }
+}
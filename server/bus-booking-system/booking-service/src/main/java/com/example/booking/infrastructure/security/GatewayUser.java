@@ -0,0 +1,17 @@
+package com.example.booking.infrastructure.security;
+
+import lombok.Value;
+
+/**
+ * Caller identity taken from the gateway's signed X-User-* headers.
+ */
+@Value
+public class GatewayUser {
+    Integer id;
+    String email;
+    String role;
+
+    public boolean isAdmin() {
+        return "admin".equalsIgnoreCase(role);
+    }
+}
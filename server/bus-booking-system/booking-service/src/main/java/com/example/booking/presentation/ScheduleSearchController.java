@@ -0,0 +1,47 @@
+package com.example.booking.presentation;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.booking.application.ScheduleSearchService;
+import com.example.booking.presentation.dto.ScheduleSearchResponse;
+import com.example.booking.presentation.dto.ServiceResponse;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleSearchController {
+
+    private final ScheduleSearchService scheduleSearchService;
+
+    /**
+     * Schedules between two stations on a day with their seats left, e.g.
+     * {@code /vehicle-schedules?departure=1&destination=2&departureDate=2026-02-14&sortBy=price:asc},
+     * in the envelope the bus list reads ({@code responseObject.results}).
+     * {@code departAfter}/{@code departBefore} (HH:mm) narrow the departure time.
+     */
+    @GetMapping("/vehicle-schedules")
+    public ResponseEntity<ServiceResponse<ScheduleSearchResponse>> search(
+            @RequestParam(required = false) Long departure,
+            @RequestParam(required = false) Long destination,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate departureDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime departAfter,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "HH:mm") LocalTime departBefore,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer limit) {
+        log.debug("GET /vehicle-schedules - departure={}, destination={}, date={}, sortBy={}", departure, destination,
+                departureDate, sortBy);
+        return ResponseEntity.ok(ServiceResponse.ok("Schedules found", scheduleSearchService.search(departure,
+                destination, departureDate, departAfter, departBefore, sortBy, page, limit)));
+    }
+}
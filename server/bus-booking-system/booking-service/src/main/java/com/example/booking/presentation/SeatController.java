@@ -0,0 +1,35 @@
+package com.example.booking.presentation;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.booking.application.SeatQueryService;
+import com.example.booking.presentation.dto.SeatResponse;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/seats")
+@RequiredArgsConstructor
+@Slf4j
+public class SeatController {
+
+    private final SeatQueryService seatQueryService;
+
+    /**
+     * Seats of a car; pass {@code scheduleId} to get AVAILABLE/HELD/BOOKED per seat.
+     */
+    @GetMapping("/{carId}")
+    public ResponseEntity<List<SeatResponse>> getSeats(@PathVariable Long carId,
+            @RequestParam(name = "scheduleId", required = false) Long scheduleId) {
+        log.debug("GET /seats/{} - scheduleId={}", carId, scheduleId);
+        return ResponseEntity.ok(seatQueryService.seats(carId, scheduleId));
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.booking.presentation;
+
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.booking.application.TicketService;
+import com.example.booking.infrastructure.security.GatewayIdentityFilter;
+import com.example.booking.infrastructure.security.GatewayUser;
+import com.example.booking.presentation.dto.BookTicketRequest;
+import com.example.booking.presentation.dto.CancelTicketRequest;
+import com.example.booking.presentation.dto.TicketResponse;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/tickets")
+@RequiredArgsConstructor
+@Slf4j
+public class TicketController {
+
+    private final TicketService ticketService;
+
+    /**
+     * Holds a seat; the returned HELD ticket must be confirmed before holdExpiresAt.
+     */
+    @PostMapping("/booking")
+    public ResponseEntity<TicketResponse> book(
+            @RequestAttribute(name = GatewayIdentityFilter.USER_ATTR, required = false) GatewayUser user,
+            @Valid @RequestBody BookTicketRequest request) {
+        log.info("POST /tickets/booking - schedule={}, seat={}", request.getScheduleId(), request.getSeatId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(ticketService.book(user, request));
+    }
+
+    /**
+     * Confirms a held ticket once it is paid.
+     */
+    @PostMapping("/{ticketId}/confirm")
+    public ResponseEntity<TicketResponse> confirm(
+            @RequestAttribute(name = GatewayIdentityFilter.USER_ATTR, required = false) GatewayUser user,
+            @PathVariable String ticketId) {
+        log.info("POST /tickets/{}/confirm", ticketId);
+        return ResponseEntity.ok(ticketService.confirm(user, ticketId));
+    }
+
+    @PutMapping("/cancel/{ticketId}")
+    public ResponseEntity<TicketResponse> cancel(
+            @RequestAttribute(name = GatewayIdentityFilter.USER_ATTR, required = false) GatewayUser user,
+            @PathVariable String ticketId,
+            @Valid @RequestBody(required = false) CancelTicketRequest request) {
+        log.info("PUT /tickets/cancel/{}", ticketId);
+        return ResponseEntity.ok(ticketService.cancel(user, ticketId, request != null ? request.getReason() : null));
+    }
+
+    /**
+     * Held and booked tickets of a schedule with passenger names; admins only.
+     */
+    @GetMapping("/schedule/{scheduleId}")
+    public ResponseEntity<List<TicketResponse>> passengers(
+            @RequestAttribute(name = GatewayIdentityFilter.USER_ATTR, required = false) GatewayUser user,
+            @PathVariable Long scheduleId) {
+        log.info("GET /tickets/schedule/{}", scheduleId);
+        return ResponseEntity.ok(ticketService.passengers(user, scheduleId));
+    }
+
+    @GetMapping("/payment/status/{ticketId}")
+    public ResponseEntity<TicketResponse> status(
+            @RequestAttribute(name = GatewayIdentityFilter.USER_ATTR, required = false) GatewayUser user,
+            @PathVariable String ticketId) {
+        return ResponseEntity.ok(ticketService.status(user, ticketId));
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.booking.presentation.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class BookTicketRequest {
+    @NotNull
+    @JsonProperty("schedule_id")
+    private Long scheduleId;
+
+    @NotNull
+    @JsonProperty("seat_id")
+    private Long seatId;
+
+    @Size(max = 20)
+    @JsonProperty("payment_method")
+    private String paymentMethod;
+}
@@ -0,0 +1,10 @@
+package com.example.booking.presentation.dto;
+
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class CancelTicketRequest {
+    @Size(max = 255)
+    private String reason;
+}
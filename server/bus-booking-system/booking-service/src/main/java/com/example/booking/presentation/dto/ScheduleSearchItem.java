@@ -0,0 +1,67 @@
+package com.example.booking.presentation.dto;
+
+import com.example.booking.infrastructure.search.ScheduleSearchIndex;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One schedule in the ticket search results, named like the schedule objects
+ * the bus list already renders.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleSearchItem {
+    private Long id;
+
+    @JsonProperty("route_id")
+    private Long routeId;
+
+    @JsonProperty("car_id")
+    private Long carId;
+
+    @JsonProperty("departure_station_id")
+    private Long departureStationId;
+
+    @JsonProperty("arrival_station_id")
+    private Long arrivalStationId;
+
+    @JsonProperty("departure_time")
+    private LocalDateTime departureTime;
+
+    @JsonProperty("arrival_time")
+    private LocalDateTime arrivalTime;
+
+    @JsonProperty("base_price")
+    private BigDecimal basePrice;
+
+    @JsonProperty("available_seats")
+    private int availableSeats;
+
+    @JsonProperty("total_seats")
+    private int totalSeats;
+
+    public static ScheduleSearchItem fromHit(ScheduleSearchIndex.Hit hit) {
+        ScheduleSearchIndex.IndexedSchedule schedule = hit.schedule();
+        return ScheduleSearchItem.builder()
+                .id(schedule.id())
+                .routeId(schedule.routeId())
+                .carId(schedule.carId())
+                .departureStationId(schedule.departureStationId())
+                .arrivalStationId(schedule.arrivalStationId())
+                .departureTime(schedule.departureTime())
+                .arrivalTime(schedule.arrivalTime())
+                .basePrice(schedule.basePrice())
+                .availableSeats(hit.seatsLeft())
+                .totalSeats(hit.seats())
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.booking.presentation.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleSearchResponse {
+    private List<ScheduleSearchItem> results;
+    private int page;
+    private int limit;
+
+    /** Schedules matching the search, across all pages. */
+    @JsonProperty("total_results")
+    private int totalResults;
+
+    @JsonProperty("total_pages")
+    private int totalPages;
+}
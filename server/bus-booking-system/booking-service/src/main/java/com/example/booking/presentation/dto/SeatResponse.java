@@ -0,0 +1,52 @@
+package com.example.booking.presentation.dto;
+
+import com.example.booking.domain.model.Seat;
+import com.example.booking.infrastructure.inventory.SeatInventory;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * One seat of a car; status (AVAILABLE, HELD or BOOKED) is only set when the
+ * seat map was asked for a schedule.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SeatResponse {
+    private Long id;
+    private Long carId;
+    private String seatNumber;
+    private String seatType;
+    private BigDecimal price;
+    private String status;
+
+    public static SeatResponse fromEntity(Seat seat) {
+        return SeatResponse.builder()
+                .id(seat.getId())
+                .carId(seat.getCarId())
+                .seatNumber(seat.getSeatNumber())
+                .seatType(seat.getSeatType())
+                .price(seat.getPrice())
+                .build();
+    }
+
+    public static SeatResponse fromInventory(SeatInventory inventory, int seatIndex) {
+        int state = inventory.state(seatIndex);
+        return SeatResponse.builder()
+                .id(inventory.seatId(seatIndex))
+                .carId(inventory.carId())
+                .seatNumber(inventory.seatNumber(seatIndex))
+                .seatType(inventory.seatType(seatIndex))
+                .price(inventory.price(seatIndex))
+                .status(state == SeatInventory.FREE ? "AVAILABLE" : state == SeatInventory.HELD ? "HELD" : "BOOKED")
+                .build();
+    }
+}
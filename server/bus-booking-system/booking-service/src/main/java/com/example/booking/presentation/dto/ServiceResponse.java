@@ -0,0 +1,30 @@
+package com.example.booking.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envelope the web clients read catalog endpoints in
+ * ({@code res.data.responseObject}), for endpoints that replace one of them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ServiceResponse<T> {
+    private boolean success;
+    private String message;
+    private T responseObject;
+    private int statusCode;
+
+    public static <T> ServiceResponse<T> ok(String message, T responseObject) {
+        return ServiceResponse.<T>builder()
+                .success(true)
+                .message(message)
+                .responseObject(responseObject)
+                .statusCode(200)
+                .build();
+    }
+}
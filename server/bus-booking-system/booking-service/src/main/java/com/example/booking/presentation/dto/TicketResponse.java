@@ -0,0 +1,73 @@
+package com.example.booking.presentation.dto;
+
+import com.example.booking.domain.model.Ticket;
+import com.example.booking.domain.model.TicketStatus;
+import com.example.booking.infrastructure.inventory.SeatClaim;
+import com.example.booking.infrastructure.inventory.SeatHold;
+import com.example.booking.infrastructure.inventory.SeatInventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketResponse {
+    private String id;
+    private Long scheduleId;
+    private Long seatId;
+    private String seatNumber;
+    private Integer userId;
+    private TicketStatus status;
+    private String paymentMethod;
+    private BigDecimal price;
+    /** Pay before this time or the seat is released; only for HELD tickets. */
+    private LocalDateTime holdExpiresAt;
+    private LocalDateTime createdAt;
+    /** Passenger details; only in an admin's passenger list. */
+    private String passengerName;
+    private String passengerEmail;
+
+    public static TicketResponse fromClaim(SeatClaim claim, TicketStatus status) {
+        SeatInventory inventory = claim.inventory();
+        int seatIndex = claim.seatIndex();
+        return TicketResponse.builder()
+                .id(claim.ticketId())
+                .scheduleId(inventory.scheduleId())
+                .seatId(inventory.seatId(seatIndex))
+                .seatNumber(inventory.seatNumber(seatIndex))
+                .userId(claim.userId())
+                .status(status)
+                .paymentMethod(claim.paymentMethod())
+                .price(inventory.price(seatIndex))
+                .holdExpiresAt(claim instanceof SeatHold hold && status == TicketStatus.HELD
+                        ? toLocalDateTime(hold.expiresAtMs()) : null)
+                .createdAt(toLocalDateTime(claim.createdAtMs()))
+                .build();
+    }
+
+    public static TicketResponse fromEntity(Ticket ticket) {
+        return TicketResponse.builder()
+                .id(ticket.getId())
+                .scheduleId(ticket.getScheduleId())
+                .seatId(ticket.getSeatId())
+                .userId(ticket.getUserId())
+                .status(ticket.getStatus())
+                .paymentMethod(ticket.getPaymentMethod())
+                .price(ticket.getPrice())
+                .createdAt(ticket.getCreatedAt())
+                .build();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+}
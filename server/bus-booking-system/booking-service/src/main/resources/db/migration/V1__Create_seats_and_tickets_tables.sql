@@ -0,0 +1,35 @@
+-- Flyway migration V1__Create_seats_and_tickets_tables.sql
+-- Seat layouts per car and the tickets sold on each schedule
+
+CREATE TABLE IF NOT EXISTS seats (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    car_id BIGINT NOT NULL,
+    seat_number VARCHAR(10) NOT NULL,
+    seat_type VARCHAR(20) NOT NULL DEFAULT 'STANDARD',
+    price DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    UNIQUE KEY uk_seats_car_number (car_id, seat_number)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Ids are assigned by the service when the seat is held, so confirmed tickets
+-- can be returned before the write-behind has inserted them.
+CREATE TABLE IF NOT EXISTS tickets (
+    id CHAR(36) PRIMARY KEY,
+    schedule_id BIGINT NOT NULL,
+    seat_id BIGINT NOT NULL,
+    user_id INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(20),
+    price DECIMAL(12, 2) NOT NULL,
+    cancel_reason VARCHAR(255),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    -- Backstop for the in-memory inventory: one BOOKED ticket per seat and schedule
+    booked_seat_id BIGINT AS (IF(status = 'BOOKED', seat_id, NULL)) STORED,
+
+    UNIQUE KEY uk_tickets_schedule_booked_seat (schedule_id, booked_seat_id),
+    INDEX idx_tickets_schedule_status (schedule_id, status),
+    INDEX idx_tickets_user (user_id, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,23 @@
+-- Flyway migration V2__Create_schedules_table.sql
+-- Departures sold by this service: the car that runs them, the stations they
+-- connect and the base fare. Read by the ticket search index, which reloads
+-- rows by (updated_at, id) and recounts seats of schedules whose tickets changed.
+
+CREATE TABLE IF NOT EXISTS schedules (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    route_id BIGINT,
+    car_id BIGINT NOT NULL,
+    departure_station_id BIGINT NOT NULL,
+    arrival_station_id BIGINT NOT NULL,
+    departure_time DATETIME NOT NULL,
+    arrival_time DATETIME,
+    base_price DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL DEFAULT 'ACTIVE',
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    INDEX idx_schedules_departure (departure_time, id),
+    INDEX idx_schedules_updated (updated_at, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE INDEX idx_tickets_updated ON tickets (updated_at);
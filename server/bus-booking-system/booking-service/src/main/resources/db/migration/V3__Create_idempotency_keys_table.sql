@@ -0,0 +1,16 @@
+-- Flyway migration V3__Create_idempotency_keys_table.sql
+-- Responses to requests sent with an Idempotency-Key, replayed to retries.
+-- Only used with idempotency.durable.enabled; rows are purged after expires_at.
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    -- user id and the client's key, e.g. "42:3f1c..."
+    id VARCHAR(300) PRIMARY KEY,
+    fingerprint CHAR(64) NOT NULL,
+    status INT NOT NULL,
+    content_type VARCHAR(100),
+    body MEDIUMBLOB,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    INDEX idx_idempotency_keys_expires (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,198 @@
+package com.example.booking.perf;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.example.booking.domain.model.Seat;
+import com.example.booking.infrastructure.inventory.HoldTimerWheel;
+import com.example.booking.infrastructure.inventory.SeatHold;
+import com.example.booking.infrastructure.inventory.SeatInventory;
+import com.example.booking.infrastructure.inventory.SeatSale;
+
+/**
+ * Races thousands of buyers for the seats of one schedule, the holiday-peak
+ * case: every buyer thread is released at once and keeps trying random seats
+ * until it holds one or none are left. One in ten abandons its hold instead of
+ * confirming, so the timer wheel has to release those seats mid-round and the
+ * remaining buyers race for them again.
+ *
+ * <p>After each round the inventory is checked against what the buyers were
+ * told: every confirmed seat is SOLD to exactly one buyer, no seat is left
+ * HELD once the abandoned holds expired, and the rest are FREE. Reported per
+ * round: hold-attempt latency (p50/p99/p999/max), attempts and conflicts, and
+ * time until every buyer had an answer.
+ *
+ *   ./gradlew seatContention -Pbuyers=4000 -Pseats=40 -Prounds=20 -PholdTtlMs=200
+ */
+public final class SeatContentionBenchmark {
+
+    private static final double ABANDON_RATE = 0.1;
+
+    public static void main(String[] args) throws Exception {
+        int buyers = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        int seats = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        long holdTtlMs = args.length > 3 ? Long.parseLong(args[3]) : 200;
+
+        List<Seat> layout = new ArrayList<>(seats);
+        for (int i = 0; i < seats; i++) {
+            layout.add(Seat.builder().id((long) i + 1).carId(1L).seatNumber("A" + (i + 1))
+                    .seatType("STANDARD").price(BigDecimal.valueOf(250_000)).build());
+        }
+        HoldTimerWheel timerWheel = new HoldTimerWheel("seat-hold-timer", 10, 512, hold -> {
+            hold.inventory().release(hold);
+        });
+        timerWheel.start();
+
+        System.out.printf("%d buyers racing for %d seats, %d rounds, holds expire after %d ms, %d%% abandoned%n",
+                buyers, seats, rounds, holdTtlMs, (int) (ABANDON_RATE * 100));
+        System.out.printf("%-6s %10s %10s %10s %10s %10s %10s %8s %8s %10s  %s%n", "round", "p50 us", "p99 us",
+                "p999 us", "max us", "attempts", "conflicts", "sold", "expired", "answer ms", "check");
+
+        Histogram total = new Histogram(TimeUnit.SECONDS.toNanos(10), 3);
+        boolean allValid = true;
+        for (int round = 1; round <= rounds; round++) {
+            SeatInventory inventory = new SeatInventory(round, 1L, layout);
+            Round result = race(inventory, timerWheel, buyers, holdTtlMs);
+
+            // Let the abandoned holds run out before checking the final state
+            long deadline = System.currentTimeMillis() + holdTtlMs * 5 + 1000;
+            while (inventory.held() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            String check = verify(inventory, result.sales);
+            allValid &= check.equals("ok");
+            Histogram histogram = result.latencies;
+            total.add(histogram);
+            System.out.printf("%-6d %10.1f %10.1f %10.1f %10.1f %10d %10d %8d %8d %10d  %s%n", round,
+                    histogram.getValueAtPercentile(50) / 1000.0, histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0, histogram.getMaxValue() / 1000.0,
+                    result.attempts, result.conflicts, result.sales.size(), result.abandoned,
+                    result.elapsedMs, check);
+        }
+        timerWheel.stop();
+
+        System.out.printf("all rounds: hold p50 %.1f us, p99 %.1f us, p999 %.1f us, max %.1f us; %s%n",
+                total.getValueAtPercentile(50) / 1000.0, total.getValueAtPercentile(99) / 1000.0,
+                total.getValueAtPercentile(99.9) / 1000.0, total.getMaxValue() / 1000.0,
+                allValid ? "no seat sold twice" : "INVENTORY CHECK FAILED");
+        if (!allValid) {
+            System.exit(1);
+        }
+    }
+
+    private record Round(Histogram latencies, Queue<SeatSale> sales, long attempts, long conflicts,
+            long abandoned, long elapsedMs) {
+    }
+
+    private static Round race(SeatInventory inventory, HoldTimerWheel timerWheel, int buyers,
+            long holdTtlMs) throws InterruptedException {
+        Recorder recorder = new Recorder(3);
+        Queue<SeatSale> sales = new ConcurrentLinkedQueue<>();
+        LongAdder attempts = new LongAdder();
+        LongAdder conflicts = new LongAdder();
+        LongAdder abandoned = new LongAdder();
+        CountDownLatch ready = new CountDownLatch(buyers);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(buyers);
+
+        for (int b = 0; b < buyers; b++) {
+            int userId = b + 1;
+            Thread buyer = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    buy(inventory, timerWheel, userId, holdTtlMs, recorder, sales, attempts, conflicts, abandoned);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "buyer-" + userId);
+            buyer.setDaemon(true);
+            buyer.start();
+        }
+
+        ready.await();
+        long started = System.nanoTime();
+        start.countDown();
+        done.await();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        return new Round(recorder.getIntervalHistogram(), sales, attempts.sum(), conflicts.sum(), abandoned.sum(),
+                elapsedMs);
+    }
+
+    /**
+     * One buyer: random free-looking seats until a hold succeeds or the
+     * schedule is sold out (no free seats and no holds that could still expire).
+     */
+    private static void buy(SeatInventory inventory, HoldTimerWheel timerWheel, int userId, long holdTtlMs,
+            Recorder recorder, Queue<SeatSale> sales, LongAdder attempts, LongAdder conflicts, LongAdder abandoned)
+            throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            if (inventory.available() == 0) {
+                if (inventory.held() == 0) {
+                    return;
+                }
+                // Only holds left: wait for one to be confirmed or expire
+                Thread.sleep(1);
+                continue;
+            }
+            int seatIndex = random.nextInt(inventory.size());
+            long now = System.currentTimeMillis();
+            long t0 = System.nanoTime();
+            SeatHold hold = inventory.tryHold(seatIndex, "t-" + userId, userId, "ONLINE", now, holdTtlMs);
+            recorder.recordValue(System.nanoTime() - t0);
+            attempts.increment();
+            if (hold == null) {
+                conflicts.increment();
+                continue;
+            }
+            timerWheel.schedule(hold);
+            if (random.nextDouble() < ABANDON_RATE) {
+                // Walks away; the timer wheel releases the seat
+                abandoned.increment();
+                return;
+            }
+            SeatSale sale = inventory.confirm(hold, System.currentTimeMillis());
+            if (sale != null) {
+                sales.add(sale);
+                return;
+            }
+            // Hold expired before payment (only with very short TTLs): try again
+        }
+    }
+
+    private static String verify(SeatInventory inventory, Queue<SeatSale> sales) {
+        BitSet sold = new BitSet(inventory.size());
+        for (SeatSale sale : sales) {
+            if (sold.get(sale.seatIndex())) {
+                return "seat " + inventory.seatNumber(sale.seatIndex()) + " sold twice";
+            }
+            sold.set(sale.seatIndex());
+            if (inventory.state(sale.seatIndex()) != SeatInventory.SOLD || inventory.claim(sale.seatIndex()) != sale) {
+                return "seat " + inventory.seatNumber(sale.seatIndex()) + " lost its sale";
+            }
+        }
+        for (int i = 0; i < inventory.size(); i++) {
+            int state = inventory.state(i);
+            if (!sold.get(i) && state != SeatInventory.FREE) {
+                return "seat " + inventory.seatNumber(i) + " is " + (state == SeatInventory.HELD ? "HELD" : "SOLD")
+                        + " without a buyer";
+            }
+        }
+        return "ok";
+    }
+}
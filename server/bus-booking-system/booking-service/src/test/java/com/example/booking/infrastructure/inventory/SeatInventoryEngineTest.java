@@ -0,0 +1,230 @@
+package com.example.booking.infrastructure.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.booking.domain.model.Seat;
+import com.example.booking.domain.model.Ticket;
+import com.example.booking.domain.model.TicketStatus;
+import com.example.booking.domain.repository.SeatRepository;
+import com.example.booking.domain.repository.TicketRepository;
+import com.example.booking.infrastructure.exception.ConflictException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Races buyers against idle eviction. Tickets "reach the database" by going
+ * into a map the mocked repository serves reloads from, in the order the
+ * write-behind uses: row committed, then the pending write uncounted.
+ */
+class SeatInventoryEngineTest {
+
+    private static final long SCHEDULE = 1;
+    private static final long CAR = 1;
+    private static final List<Seat> LAYOUT = SeatInventoryTest.seats(32);
+
+    private final Map<String, Ticket> database = new ConcurrentHashMap<>();
+    private final SeatRepository seatRepository = mock(SeatRepository.class);
+    private final TicketRepository ticketRepository = mock(TicketRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SeatInventoryEngine engine;
+
+    @AfterEach
+    void tearDown() {
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    @Test
+    void exactlyOneBuyerHoldsTheSameSeatWhileEvictionRuns() throws Exception {
+        engine = newEngine(0);
+        for (int round = 0; round < 50; round++) {
+            AtomicInteger granted = new AtomicInteger();
+            AtomicInteger conflicted = new AtomicInteger();
+            List<SeatHold> holds = new ArrayList<>();
+            Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+            runWithEviction(16, buyer -> {
+                SeatInventory inventory = engine.forSchedule(SCHEDULE, CAR);
+                try {
+                    SeatHold hold = engine.hold(inventory, 5, buyer, "CASH");
+                    granted.incrementAndGet();
+                    synchronized (holds) {
+                        holds.add(hold);
+                    }
+                } catch (ConflictException e) {
+                    conflicted.incrementAndGet();
+                }
+            }, errors);
+
+            assertThat(errors).isEmpty();
+            assertThat(granted.get()).isEqualTo(1);
+            assertThat(conflicted.get()).isEqualTo(15);
+            // The held schedule was never dropped, so the hold is on the live inventory
+            SeatHold hold = holds.get(0);
+            assertThat(engine.loaded(SCHEDULE)).isSameAs(hold.inventory());
+            assertThat(engine.release(hold)).isTrue();
+        }
+        assertThat(activeHolds()).isZero();
+    }
+
+    @Test
+    void holdConfirmCancelRacingEvictionLoseNothing() throws Exception {
+        engine = newEngine(0);
+        int buyers = 8;
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        runWithEviction(buyers, buyer -> {
+            for (int i = 0; i < 300; i++) {
+                // Each buyer has its own seats, so every step must succeed
+                long seatId = LAYOUT.get(buyer + buyers * (i % (LAYOUT.size() / buyers))).getId();
+                SeatInventory inventory = engine.forSeat(SCHEDULE, seatId);
+                SeatHold hold = engine.hold(inventory, inventory.indexOf(seatId), buyer, "CASH");
+                SeatSale sale = engine.confirm(hold);
+                assertThat(sale).as("confirm of a live hold").isNotNull();
+                writeBehind(sale, false);
+
+                SeatClaim claim = engine.claim(sale.ticketId());
+                if (claim == null) {
+                    // Evicted since the sale; read it back like the ticket service does
+                    claim = engine.claimOf(database.get(sale.ticketId()));
+                }
+                assertThat(claim).as("claim of a booked ticket").isInstanceOf(SeatSale.class);
+                SeatSale cancelled = engine.cancel((SeatSale) claim);
+                assertThat(cancelled).as("cancel of a booked ticket").isNotNull();
+                writeBehind(cancelled, true);
+            }
+        }, errors);
+
+        assertThat(errors).isEmpty();
+        assertThat(database).isEmpty();
+        assertThat(activeHolds()).isZero();
+        SeatInventory inventory = engine.forSchedule(SCHEDULE, CAR);
+        assertThat(inventory.available()).isEqualTo(LAYOUT.size());
+        assertThat(inventory.held()).isZero();
+        // Eviction really did drop and reload the schedule during the race
+        verify(seatRepository, atLeast(2)).findByCarIdOrderByIdAsc(CAR);
+    }
+
+    @Test
+    void scheduleWithPendingWritesOrHoldsIsNotEvicted() {
+        engine = newEngine(0);
+        SeatInventory inventory = engine.forSchedule(SCHEDULE, CAR);
+        SeatHold hold = engine.hold(inventory, 0, 1, "CASH");
+
+        engine.evictIdle();
+        assertThat(engine.loaded(SCHEDULE)).isSameAs(inventory);
+
+        SeatSale sale = engine.confirm(hold);
+        engine.evictIdle();
+        assertThat(engine.loaded(SCHEDULE)).isSameAs(inventory);
+
+        writeBehind(sale, false);
+        engine.evictIdle();
+        assertThat(engine.loaded(SCHEDULE)).isNull();
+        SeatInventory reloaded = engine.forSchedule(SCHEDULE, CAR);
+        assertThat(reloaded.state(0)).isEqualTo(SeatInventory.SOLD);
+        assertThat(engine.claim(sale.ticketId())).isInstanceOf(SeatSale.class);
+    }
+
+    @Test
+    void revokedSaleFreesTheSeatAndInvalidatedScheduleIsReloaded() {
+        engine = newEngine(TimeUnit.HOURS.toMillis(1));
+        SeatInventory inventory = engine.forSchedule(SCHEDULE, CAR);
+        SeatSale sale = engine.confirm(engine.hold(inventory, 3, 1, "CASH"));
+
+        assertThat(engine.revoke(sale)).isTrue();
+        assertThat(engine.revoke(sale)).isFalse();
+        assertThat(inventory.state(3)).isEqualTo(SeatInventory.FREE);
+        assertThat(engine.claim(sale.ticketId())).isNull();
+
+        engine.invalidate(inventory);
+        engine.evictIdle();
+        // Recently used, but kept only until its lost write is uncounted
+        assertThat(engine.loaded(SCHEDULE)).isSameAs(inventory);
+        inventory.pendingWrites().decrementAndGet();
+        engine.evictIdle();
+        assertThat(engine.loaded(SCHEDULE)).isNull();
+    }
+
+    private SeatInventoryEngine newEngine(long idleEvictMs) {
+        when(seatRepository.findByCarIdOrderByIdAsc(CAR)).thenReturn(LAYOUT);
+        when(seatRepository.findById(anyLong())).thenAnswer(invocation -> LAYOUT.stream()
+                .filter(seat -> seat.getId().equals(invocation.getArgument(0))).findFirst());
+        when(ticketRepository.findByScheduleIdAndStatus(eq(SCHEDULE), eq(TicketStatus.BOOKED)))
+                .thenAnswer(invocation -> new ArrayList<>(database.values()));
+        return new SeatInventoryEngine(seatRepository, ticketRepository, meterRegistry, 60_000, 10, 64,
+                idleEvictMs);
+    }
+
+    /** Applies a write the way the write-behind does: commit first, then uncount it. */
+    private void writeBehind(SeatSale sale, boolean cancel) {
+        if (cancel) {
+            database.remove(sale.ticketId());
+        } else {
+            database.put(sale.ticketId(), Ticket.builder().id(sale.ticketId()).scheduleId(SCHEDULE)
+                    .seatId(sale.inventory().seatId(sale.seatIndex())).userId(sale.userId())
+                    .status(TicketStatus.BOOKED).paymentMethod(sale.paymentMethod()).build());
+        }
+        sale.inventory().pendingWrites().decrementAndGet();
+    }
+
+    private double activeHolds() {
+        return meterRegistry.get("booking.inventory.holds.active").gauge().value();
+    }
+
+    private interface Buyer {
+        void run(int buyer) throws Exception;
+    }
+
+    /** Runs the buyers together while another thread calls evictIdle in a loop. */
+    private void runWithEviction(int buyers, Buyer body, Queue<Throwable> errors) throws Exception {
+        AtomicBoolean done = new AtomicBoolean();
+        Thread evictor = new Thread(() -> {
+            while (!done.get()) {
+                engine.evictIdle();
+            }
+        }, "evictor");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(buyers);
+        for (int i = 0; i < buyers; i++) {
+            int buyer = i;
+            threads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    body.run(buyer);
+                } catch (Throwable e) {
+                    errors.add(e);
+                }
+            }, "buyer-" + i));
+        }
+        evictor.start();
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        done.set(true);
+        evictor.join();
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.booking.infrastructure.inventory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.booking.domain.model.Seat;
+
+class SeatInventoryTest {
+
+    private static final long TTL_MS = 60_000;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void exactlyOneOfManyBuyersHoldsTheSameSeat() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            SeatInventory inventory = new SeatInventory(1, 1, seats(40));
+            List<SeatHold> holds = race(16, buyer ->
+                    inventory.tryHold(7, "t" + buyer, buyer, "CASH", now(), TTL_MS));
+
+            assertThat(holds).filteredOn(hold -> hold != null).hasSize(1);
+            assertThat(inventory.state(7)).isEqualTo(SeatInventory.HELD);
+            assertThat(inventory.held()).isEqualTo(1);
+            assertThat(inventory.available()).isEqualTo(39);
+        }
+    }
+
+    @Test
+    void confirmRacingReleaseEndsSoldOrFreeNeverBoth() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            SeatInventory inventory = new SeatInventory(1, 1, seats(4));
+            SeatHold hold = inventory.tryHold(2, "t", 1, "CASH", now(), TTL_MS);
+            List<Object> results = race(2, buyer -> buyer == 0
+                    ? inventory.confirm(hold, now())
+                    : (inventory.release(hold) ? Boolean.TRUE : null));
+
+            SeatSale sale = (SeatSale) results.get(0);
+            boolean released = results.get(1) != null;
+            assertThat(sale != null).isNotEqualTo(released);
+            if (sale != null) {
+                assertThat(inventory.state(2)).isEqualTo(SeatInventory.SOLD);
+                assertThat(inventory.claim(2)).isSameAs(sale);
+            } else {
+                assertThat(inventory.state(2)).isEqualTo(SeatInventory.FREE);
+                assertThat(inventory.claim(2)).isNull();
+            }
+            assertThat(inventory.held()).isZero();
+        }
+    }
+
+    @Test
+    void cancelFreesASoldSeatOnce() {
+        SeatInventory inventory = new SeatInventory(1, 1, seats(4));
+        SeatHold hold = inventory.tryHold(0, "t", 1, "CASH", now(), TTL_MS);
+        SeatSale sale = inventory.confirm(hold, now());
+
+        assertThat(inventory.cancel(sale)).isTrue();
+        assertThat(inventory.cancel(sale)).isFalse();
+        assertThat(inventory.state(0)).isEqualTo(SeatInventory.FREE);
+        assertThat(inventory.tryHold(0, "t2", 2, "CASH", now(), TTL_MS)).isNotNull();
+    }
+
+    @Test
+    void expiredHoldCannotBeConfirmed() {
+        SeatInventory inventory = new SeatInventory(1, 1, seats(4));
+        long start = now();
+        SeatHold hold = inventory.tryHold(1, "t", 1, "CASH", start, 100);
+
+        assertThat(inventory.confirm(hold, start + 100)).isNull();
+        assertThat(inventory.state(1)).isEqualTo(SeatInventory.HELD);
+        assertThat(inventory.release(hold)).isTrue();
+        assertThat(inventory.state(1)).isEqualTo(SeatInventory.FREE);
+    }
+
+    @Test
+    void countsSeatsAcrossWords() {
+        SeatInventory inventory = new SeatInventory(1, 1, seats(70));
+        inventory.tryHold(0, "a", 1, "CASH", now(), TTL_MS);
+        inventory.tryHold(31, "b", 1, "CASH", now(), TTL_MS);
+        inventory.confirm(inventory.tryHold(32, "c", 1, "CASH", now(), TTL_MS), now());
+        inventory.confirm(inventory.tryHold(69, "d", 1, "CASH", now(), TTL_MS), now());
+
+        assertThat(inventory.held()).isEqualTo(2);
+        assertThat(inventory.available()).isEqualTo(66);
+        assertThat(inventory.state(31)).isEqualTo(SeatInventory.HELD);
+        assertThat(inventory.state(32)).isEqualTo(SeatInventory.SOLD);
+        assertThat(inventory.state(33)).isEqualTo(SeatInventory.FREE);
+    }
+
+    @Test
+    void seatsAreIndexedInIdOrder() {
+        List<Seat> layout = new ArrayList<>(seats(3));
+        Collections.reverse(layout);
+        SeatInventory inventory = new SeatInventory(1, 1, layout);
+
+        assertThat(inventory.indexOf(101)).isZero();
+        assertThat(inventory.indexOf(103)).isEqualTo(2);
+        assertThat(inventory.seatNumber(2)).isEqualTo("A3");
+        assertThat(inventory.indexOf(999)).isEqualTo(-1);
+    }
+
+    static List<Seat> seats(int count) {
+        List<Seat> seats = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            seats.add(Seat.builder().id(101L + i).carId(1L).seatNumber("A" + (i + 1))
+                    .seatType("STANDARD").price(BigDecimal.valueOf(250_000)).build());
+        }
+        return seats;
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+
+    /** Runs one call per buyer, all released at once; results in buyer order. */
+    private <T> List<T> race(int buyers, IntFunction<T> call) throws Exception {
+        CountDownLatch ready = new CountDownLatch(buyers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>(buyers);
+        for (int i = 0; i < buyers; i++) {
+            int buyer = i;
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                start.await();
+                return call.apply(buyer);
+            }));
+        }
+        ready.await();
+        start.countDown();
+        List<T> results = new ArrayList<>(buyers);
+        for (Future<T> future : futures) {
+            results.add(future.get(10, TimeUnit.SECONDS));
+        }
+        return results;
+    }
+}
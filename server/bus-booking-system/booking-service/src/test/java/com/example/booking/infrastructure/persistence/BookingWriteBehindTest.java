@@ -0,0 +1,94 @@
+package com.example.booking.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.example.booking.domain.model.Seat;
+import com.example.booking.domain.repository.SeatRepository;
+import com.example.booking.domain.repository.TicketRepository;
+import com.example.booking.infrastructure.inventory.SeatInventory;
+import com.example.booking.infrastructure.inventory.SeatInventoryEngine;
+import com.example.booking.infrastructure.inventory.SeatSale;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BookingWriteBehindTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SeatRepository seatRepository = mock(SeatRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SeatInventoryEngine engine;
+    private BookingWriteBehind writeBehind;
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.stop();
+        engine.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void conflictingInsertIsRevokedAndCounted() throws Exception {
+        when(seatRepository.findByCarIdOrderByIdAsc(1L)).thenReturn(List.of(
+                Seat.builder().id(1L).carId(1L).seatNumber("A1").seatType("STANDARD").build(),
+                Seat.builder().id(2L).carId(1L).seatNumber("A2").seatType("STANDARD").build()));
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        // The booked-seat unique key rejects any batch holding the first seat's ticket
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(invocation -> {
+                    Collection<Object> rows = invocation.getArgument(1);
+                    if (rows.stream().anyMatch(row -> row.toString().contains("seatIndex=0"))) {
+                        throw new DataIntegrityViolationException("Duplicate entry for uk_tickets_booked_seat");
+                    }
+                    return new int[0][];
+                });
+        engine = new SeatInventoryEngine(seatRepository, mock(TicketRepository.class), meterRegistry,
+                60_000, 10, 64, TimeUnit.HOURS.toMillis(1));
+        writeBehind = new BookingWriteBehind(jdbcTemplate, transactionManager, engine, meterRegistry,
+                100, 0, 100, 100, 1000);
+
+        SeatInventory inventory = engine.forSchedule(1, 1);
+        SeatSale conflicting = confirm(inventory, 0);
+        SeatSale written = confirm(inventory, 1);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (inventory.pendingWrites().get() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(inventory.pendingWrites().get()).isZero();
+        assertThat(meterRegistry.get("booking.writebehind.lost").tag("reason", "conflict").counter().count())
+                .isEqualTo(1);
+        assertThat(inventory.state(0)).isEqualTo(SeatInventory.FREE);
+        assertThat(engine.claim(conflicting.ticketId())).isNull();
+        assertThat(inventory.state(1)).isEqualTo(SeatInventory.SOLD);
+        assertThat(engine.claim(written.ticketId())).isSameAs(written);
+
+        // Invalidated: dropped for a reload from booking_db though it was just used
+        engine.evictIdle();
+        assertThat(engine.loaded(1)).isNull();
+    }
+
+    private SeatSale confirm(SeatInventory inventory, int seatIndex) {
+        assertThat(writeBehind.tryReserve()).isTrue();
+        SeatSale sale = engine.confirm(engine.hold(inventory, seatIndex, 1, "CASH"));
+        writeBehind.insert(sale);
+        return sale;
+    }
+}
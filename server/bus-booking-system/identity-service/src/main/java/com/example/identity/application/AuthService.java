@@ -1,18 +1,25 @@
 package com.example.identity.application;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.example.identity.domain.model.User;
 import com.example.identity.domain.repository.UserRepository;
 import com.example.identity.infrastructure.exception.ConflictException;
 import com.example.identity.infrastructure.exception.InvalidCredentialsException;
 import com.example.identity.infrastructure.exception.ResourceNotFoundException;
+import com.example.identity.infrastructure.outbox.OutboxWriter;
 import com.example.identity.infrastructure.security.JwtTokenProvider;
+import com.example.identity.infrastructure.security.PasswordHashingService;
 import com.example.identity.presentation.dto.LoginRequest;
 import com.example.identity.presentation.dto.LoginResponse;
 import com.example.identity.presentation.dto.RegisterRequest;
 import com.example.identity.presentation.dto.RegisterResponse;
+import com.example.shared.event.UserCreatedEvent;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,9 +29,16 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AuthService {
 
-    private final PasswordEncoder passwordEncoder;
+    private static final String EMAIL_CONSTRAINT = "uk_users_email";
+    private static final String USERNAME_CONSTRAINT = "uk_users_username";
+    private static final int MAX_USERNAME_ATTEMPTS = 3;
+    private static final String USER_AGGREGATE = "user";
+
+    private final PasswordHashingService passwordHashingService;
     private final UserRepository userRepository;
     private final JwtTokenProvider jwtTokenProvider;
+    private final OutboxWriter outboxWriter;
+    private final TransactionTemplate transactionTemplate;
 
     public LoginResponse login(LoginRequest request) {
         log.info("Login attempt for email: {}", request.getEmail());
@@ -35,12 +49,16 @@ public class AuthService {
                     return new ResourceNotFoundException("User not found with email: " + request.getEmail());
                 });
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             log.warn("Login failed - invalid password for email: {}", request.getEmail());
             throw new InvalidCredentialsException("Invalid password");
         }
 
-        String token = jwtTokenProvider.generateAccessToken(user.getEmail());
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            upgradePasswordHash(user, request.getPassword());
+        }
+
+        String token = jwtTokenProvider.generateAccessToken(user.getEmail(), user.getId(), user.getRole());
         log.info("Login successful for user: {} (id={})", user.getEmail(), user.getId());
 
         return LoginResponse.builder()
@@ -52,39 +70,120 @@ public class AuthService {
                 .build();
     }
 
+    /**
+     * Rehashes an outdated password hash with the current encoder settings off the
+     * request path. Failures are only logged; the next login tries again.
+     */
+    private void upgradePasswordHash(User user, String rawPassword) {
+        Integer userId = user.getId();
+        String oldHash = user.getPassword();
+        passwordHashingService.encodeInBackground(rawPassword)
+                .thenAccept(newHash -> {
+                    int updated = userRepository.replacePasswordHash(userId, oldHash, newHash);
+                    log.debug("Password hash upgraded for user id={} (rows updated: {})", userId, updated);
+                })
+                .exceptionally(e -> {
+                    log.debug("Password hash upgrade skipped for user id={}: {}", userId, e.getMessage());
+                    return null;
+                });
+    }
+
+    /**
+     * Registers a user with a single INSERT. Duplicate emails and usernames are
+     * detected from the uk_users_email / uk_users_username violations instead of
+     * separate exists queries, which also closes the check-then-insert race.
+     * The UserCreatedEvent goes to the outbox in the same transaction, so it is
+     * published if and only if the user was stored.
+     */
     public RegisterResponse register(RegisterRequest request) {
         log.info("Registration attempt for email: {}", request.getEmail());
 
-        // Check if email already exists
-        if (userRepository.existsByEmail(request.getEmail())) {
-            log.warn("Registration failed - email already exists: {}", request.getEmail());
-            throw new ConflictException("Email already exists: " + request.getEmail());
+        boolean generatedUsername = request.getUsername() == null || request.getUsername().isBlank();
+        String passwordHash = passwordHashingService.encode(request.getPassword());
+
+        for (int attempt = 1; ; attempt++) {
+            String username = generatedUsername ? generateUsername(request.getEmail()) : request.getUsername();
+            User user = User.builder()
+                    .username(username)
+                    .email(request.getEmail())
+                    .password(passwordHash)
+                    .phone(request.getPhone())
+                    .age(request.getAge())
+                    .role("user")
+                    .isActive(1)
+                    .build();
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    userRepository.save(user);
+                    outboxWriter.append(USER_AGGREGATE, user.getId(), UserCreatedEvent.builder()
+                            .userId(user.getId())
+                            .username(user.getUsername())
+                            .email(user.getEmail())
+                            .role(user.getRole())
+                            .createdAt(user.getCreatedAt())
+                            .build());
+                });
+            } catch (DataIntegrityViolationException ex) {
+                String constraint = violatedConstraint(ex);
+                if (EMAIL_CONSTRAINT.equals(constraint)) {
+                    log.warn("Registration failed - email already exists: {}", request.getEmail());
+                    throw new ConflictException("Email already exists: " + request.getEmail());
+                }
+                if (USERNAME_CONSTRAINT.equals(constraint)) {
+                    if (generatedUsername && attempt < MAX_USERNAME_ATTEMPTS) {
+                        log.debug("Generated username {} already taken, retrying", username);
+                        continue;
+                    }
+                    log.warn("Registration failed - username already exists: {}", username);
+                    throw new ConflictException("Username already exists: " + username);
+                }
+                throw ex;
+            }
+
+            log.info("User registered successfully: {}", user.getEmail());
+            return RegisterResponse.builder()
+                    .message("User registered successfully")
+                    .email(user.getEmail())
+                    .username(user.getUsername())
+                    .build();
         }
+    }
 
-        // Check if username already exists
-        if (userRepository.existsByUsername(request.getUsername())) {
-            log.warn("Registration failed - username already exists: {}", request.getUsername());
-            throw new ConflictException("Username already exists: " + request.getUsername());
+    /**
+     * Builds "<email local part>_<random base36 suffix>", capped to the 50-char
+     * username column. The suffix makes collisions rare enough that a retry on
+     * uk_users_username is practically never needed.
+     */
+    private String generateUsername(String email) {
+        String localPart = email != null && email.contains("@") ? email.substring(0, email.indexOf('@')) : "user";
+        String base = localPart.replaceAll("[^A-Za-z0-9._-]", "");
+        if (base.isEmpty()) {
+            base = "user";
         }
+        String suffix = Long.toString(ThreadLocalRandom.current().nextLong(1L << 40, 1L << 41), 36);
+        int maxBaseLength = 50 - suffix.length() - 1;
+        if (base.length() > maxBaseLength) {
+            base = base.substring(0, maxBaseLength);
+        }
+        return base + "_" + suffix;
+    }
 
-        User user = User.builder()
-                .username("")
-                .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .phone(request.getPhone())
-                .age(request.getAge())
-                .role("user")
-                .isActive(1)
-                .build();
-
-        userRepository.save(user);
-        log.info("User registered successfully: {}", user.getEmail());
-
-        return RegisterResponse.builder()
-                .message("User registered successfully")
-                .email(user.getEmail())
-                .username(user.getUsername())
-                .build();
+    private String violatedConstraint(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                String name = violation.getConstraintName();
+                return name.substring(name.lastIndexOf('.') + 1);
+            }
+            String message = cause.getMessage();
+            if (message != null && message.contains(EMAIL_CONSTRAINT)) {
+                return EMAIL_CONSTRAINT;
+            }
+            if (message != null && message.contains(USERNAME_CONSTRAINT)) {
+                return USERNAME_CONSTRAINT;
+            }
+        }
+        return null;
     }
 
     public User getUserByEmail(String email) {
@@ -0,0 +1,117 @@
+package com.example.identity.application;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+
+import com.example.identity.domain.model.User;
+import com.example.identity.domain.repository.UserRepository;
+import com.example.identity.infrastructure.exception.BadRequestException;
+import com.example.identity.infrastructure.exception.ServiceBusyException;
+import com.example.identity.infrastructure.search.UserSearchIndex;
+import com.example.identity.presentation.dto.UserBatchResponse;
+import com.example.identity.presentation.dto.UserResponseDTO;
+import com.example.identity.presentation.dto.UserSearchResponse;
+import com.example.shared.dto.UserInfo;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserQueryService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_IDS = 500;
+
+    private final UserSearchIndex userSearchIndex;
+    private final UserRepository userRepository;
+
+    /**
+     * Admin user search served from the in-memory index. Pages either by id
+     * cursor ({@code after}) or by page number, which the admin dashboard uses
+     * together with {@code sortBy} ("id:asc", "id:desc", "email:asc" or
+     * "email:desc"); the cursor only applies to the id orders.
+     */
+    public UserSearchResponse searchUsers(String query, boolean prefix, Integer afterId, Integer page,
+            Integer limit, String sortBy) {
+        if (limit != null && limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be at most " + MAX_PAGE_SIZE);
+        }
+        if (page != null && page < 1) {
+            throw new BadRequestException("page must be 1 or greater");
+        }
+        if (afterId != null && page != null) {
+            throw new BadRequestException("Pass either after or page, not both");
+        }
+        UserSearchIndex.SortOrder order = parseSort(sortBy);
+        if (afterId != null && (order == UserSearchIndex.SortOrder.EMAIL_ASC
+                || order == UserSearchIndex.SortOrder.EMAIL_DESC)) {
+            throw new BadRequestException("after can only be used with sortBy id:asc or id:desc");
+        }
+        if (!userSearchIndex.isReady()) {
+            throw new ServiceBusyException("User search index is still loading, please retry", 1);
+        }
+
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : limit;
+        long offset = page == null ? 0 : (page - 1L) * pageSize;
+        log.debug("Searching users: query='{}', prefix={}, after={}, page={}, limit={}, sort={}",
+                query, prefix, afterId, page, pageSize, order);
+        UserSearchIndex.SearchResult result = userSearchIndex.search(query, prefix, afterId, offset, pageSize, order);
+
+        return UserSearchResponse.builder()
+                .users(result.users().stream().map(UserResponseDTO::fromIndexed).toList())
+                .nextCursor(result.nextCursor())
+                .estimatedTotal(result.estimatedTotal())
+                .build();
+    }
+
+    private static UserSearchIndex.SortOrder parseSort(String sortBy) {
+        if (sortBy == null || sortBy.isBlank()) {
+            return UserSearchIndex.SortOrder.ID_ASC;
+        }
+        return switch (sortBy.trim().toLowerCase(Locale.ROOT)) {
+            case "id:asc" -> UserSearchIndex.SortOrder.ID_ASC;
+            case "id:desc" -> UserSearchIndex.SortOrder.ID_DESC;
+            case "email:asc" -> UserSearchIndex.SortOrder.EMAIL_ASC;
+            case "email:desc" -> UserSearchIndex.SortOrder.EMAIL_DESC;
+            default -> throw new BadRequestException(
+                    "sortBy must be one of id:asc, id:desc, email:asc, email:desc");
+        };
+    }
+
+    /**
+     * Resolves many user ids with one IN query, for services that show user
+     * data next to their own rows. Duplicates are collapsed and ids that do not
+     * exist are left out of the result.
+     */
+    public UserBatchResponse findUsers(List<Integer> ids) {
+        Set<Integer> distinct = ids == null ? Set.of()
+                : ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (distinct.size() > MAX_BATCH_IDS) {
+            throw new BadRequestException("At most " + MAX_BATCH_IDS + " ids per batch, got " + distinct.size());
+        }
+        if (distinct.isEmpty()) {
+            return new UserBatchResponse(List.of());
+        }
+
+        List<UserInfo> users = userRepository.findAllById(distinct).stream()
+                .sorted(Comparator.comparing(User::getId))
+                .map(user -> UserInfo.builder()
+                        .id(user.getId())
+                        .username(user.getUsername())
+                        .email(user.getEmail())
+                        .role(user.getRole())
+                        .build())
+                .toList();
+        log.debug("Batch user lookup: {} ids, {} found", distinct.size(), users.size());
+        return new UserBatchResponse(users);
+    }
+}
@@ -3,10 +3,16 @@ package com.example.identity.domain.model;
 import jakarta.persistence.*;
 import lombok.*;
 
+import com.example.identity.infrastructure.security.UserStatusInvalidationListener;
+
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_users_email", columnNames = "email"),
+        @UniqueConstraint(name = "uk_users_username", columnNames = "username")
+})
+@EntityListeners(UserStatusInvalidationListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,6 +31,7 @@ public class User {
     @Column(nullable = true, length = 30)
     private String email;
 
+    @ToString.Exclude
     @Column(nullable = false)
     private String password;
 
@@ -0,0 +1,13 @@
+package com.example.identity.domain.model;
+
+/**
+ * Projection of the columns needed to authorize a request: no password hash,
+ * no profile data.
+ */
+public interface UserStatus {
+    Integer getId();
+
+    String getRole();
+
+    Integer getIsActive();
+}
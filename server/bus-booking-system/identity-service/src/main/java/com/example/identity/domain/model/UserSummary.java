@@ -0,0 +1,27 @@
+package com.example.identity.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection of a user row without the password hash, used to feed the
+ * in-memory search index.
+ */
+public interface UserSummary {
+    Integer getId();
+
+    String getUsername();
+
+    String getEmail();
+
+    String getPhone();
+
+    Integer getAge();
+
+    String getRole();
+
+    Integer getIsActive();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
@@ -1,11 +1,18 @@
 package com.example.identity.domain.repository;
 
 import com.example.identity.domain.model.User;
-import org.springframework.data.domain.Page;
+import com.example.identity.domain.model.UserStatus;
+import com.example.identity.domain.model.UserSummary;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,9 +22,37 @@ public interface UserRepository extends JpaRepository<User, Integer> {
 
     Optional<User> findByUsername(String username);
 
-    Page<User> findByEmailContainingIgnoreCase(String email, Pageable pageable);
+    Optional<UserStatus> findStatusByEmail(String email);
+
+    /**
+     * Keyset scan by id, used to (re)build the user search index.
+     */
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.phone AS phone, u.age AS age, " +
+            "u.role AS role, u.isActive AS isActive, u.createdAt AS createdAt, u.updatedAt AS updatedAt " +
+            "FROM User u WHERE u.id > :afterId ORDER BY u.id ASC")
+    List<UserSummary> findSummariesAfterId(@Param("afterId") Integer afterId, Pageable pageable);
+
+    /**
+     * Rows updated at or after {@code since}, paged by id, used to keep the user
+     * search index up to date incrementally.
+     */
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.phone AS phone, u.age AS age, " +
+            "u.role AS role, u.isActive AS isActive, u.createdAt AS createdAt, u.updatedAt AS updatedAt " +
+            "FROM User u WHERE u.updatedAt >= :since AND u.id > :afterId ORDER BY u.id ASC")
+    List<UserSummary> findSummariesUpdatedSince(@Param("since") LocalDateTime since,
+            @Param("afterId") Integer afterId, Pageable pageable);
 
     boolean existsByEmail(String email);
 
     boolean existsByUsername(String username);
+
+    /**
+     * Replaces the password hash only if it is still the one that was verified,
+     * so a background rehash never overwrites a concurrent password change.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int replacePasswordHash(@Param("id") Integer id, @Param("oldHash") String oldHash,
+            @Param("newHash") String newHash);
 }
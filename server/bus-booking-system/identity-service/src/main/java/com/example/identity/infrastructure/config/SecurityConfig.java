@@ -1,5 +1,6 @@
 package com.example.identity.infrastructure.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -8,17 +9,22 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.example.identity.infrastructure.security.JwtAuthenticationFilter;
+import com.example.identity.infrastructure.security.ServiceAuthenticationFilter;
 
 import lombok.RequiredArgsConstructor;
 
+import java.util.Map;
+
 @Configuration
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ServiceAuthenticationFilter serviceAuthenticationFilter;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -36,17 +42,33 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/auth/register").permitAll()
                         .requestMatchers(HttpMethod.POST, "/auth/logout").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
+                        // Probed by the gateway's active health checks (services[].health.path in routes.yml)
+                        .requestMatchers("/actuator/health").permitAll()
+                        // Batched lookups are also for other services (ServiceToken credential)
+                        .requestMatchers(HttpMethod.POST, "/users/batch")
+                        .hasAnyRole("ADMIN", ServiceAuthenticationFilter.ROLE)
+                        .requestMatchers("/users/**").hasRole("ADMIN")
                         .anyRequest().authenticated());
 
-        // JWT filter
+        // JWT filter, and the service credential for service-to-service calls
         http.addFilterBefore(jwtAuthenticationFilter,
                 UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(serviceAuthenticationFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Delegating encoder: new hashes are written as {bcrypt} with the configured
+     * cost; legacy un-prefixed bcrypt hashes still match and are reported as
+     * needing an upgrade, so AuthService rehashes them on the next login.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(
+            @Value("${auth.password-hashing.bcrypt-strength:10}") int bcryptStrength) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return encoder;
     }
 }
@@ -0,0 +1,25 @@
+package com.example.identity.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.identity.infrastructure.tracing.TracingInterceptor;
+
+/**
+ * Registers MVC interceptors (request tracing).
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final TracingInterceptor tracingInterceptor;
+
+    public WebMvcConfig(TracingInterceptor tracingInterceptor) {
+        this.tracingInterceptor = tracingInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(tracingInterceptor);
+    }
+}
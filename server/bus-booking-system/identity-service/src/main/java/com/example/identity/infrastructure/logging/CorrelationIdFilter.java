@@ -13,16 +13,19 @@ import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
+import com.example.identity.infrastructure.tracing.Tracer;
+import com.example.shared.tracing.TraceContext;
+
 import java.io.IOException;
-import java.util.UUID;
 
 /**
- * Filter that adds correlation ID to each request for distributed tracing.
- * The correlation ID is:
- * 1. Extracted from X-Correlation-ID header (if present from gateway)
- * 2. Generated as a new UUID (if not present)
- * 3. Added to MDC for logging context
- * 4. Added to response header for client reference
+ * Filter that adds correlation ID and trace context to each request.
+ * 1. Starts the request's server span, continuing the W3C traceparent sent by
+ *    the gateway (or starting a new trace)
+ * 2. Takes the correlation ID from the X-Correlation-ID header (if present from
+ *    gateway), otherwise uses the trace ID
+ * 3. Adds it to MDC for logging context
+ * 4. Adds it to response header for client reference
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE)
@@ -31,6 +34,12 @@ public class CorrelationIdFilter implements Filter {
     public static final String CORRELATION_ID_HEADER = "X-Correlation-ID";
     public static final String CORRELATION_ID_MDC_KEY = "correlationId";
 
+    private final Tracer tracer;
+
+    public CorrelationIdFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException {
@@ -38,11 +47,13 @@ public class CorrelationIdFilter implements Filter {
         HttpServletRequest httpRequest = (HttpServletRequest) request;
         HttpServletResponse httpResponse = (HttpServletResponse) response;
 
-        try {
-            // Extract or generate correlation ID
+        TraceContext incoming = TraceContext.parse(httpRequest.getHeader(TraceContext.HEADER));
+        try (Tracer.Scope scope = tracer.startServerSpan(incoming,
+                httpRequest.getMethod() + " " + httpRequest.getRequestURI())) {
+            // Extract correlation ID, defaulting to the trace ID
             String correlationId = httpRequest.getHeader(CORRELATION_ID_HEADER);
             if (correlationId == null || correlationId.isBlank()) {
-                correlationId = UUID.randomUUID().toString().substring(0, 8);
+                correlationId = scope.context().traceId();
             }
 
             // Add to MDC for logging
@@ -51,7 +62,16 @@ public class CorrelationIdFilter implements Filter {
             // Add to response header
             httpResponse.setHeader(CORRELATION_ID_HEADER, correlationId);
 
-            chain.doFilter(request, response);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                if (scope.span() != null) {
+                    scope.span()
+                            .attribute("http.method", httpRequest.getMethod())
+                            .attribute("http.target", httpRequest.getRequestURI())
+                            .attribute("http.status_code", httpResponse.getStatus());
+                }
+            }
         } finally {
             // Clean up MDC to prevent memory leaks
             MDC.remove(CORRELATION_ID_MDC_KEY);
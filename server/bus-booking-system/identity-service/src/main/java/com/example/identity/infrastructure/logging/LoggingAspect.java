@@ -8,54 +8,81 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
- * AOP Aspect for automatic logging of method entry, exit, and exceptions.
- * Logs are generated at:
- * - DEBUG level: method entry with parameters, method exit with result
- * - ERROR level: exceptions with stack traces
+ * AOP Aspect for method timing and sampled entry/exit logging.
+ * - Every call is timed with System.nanoTime() into a per-join-point Timer
+ *   ("app.method.execution", tags class/method) with a percentile histogram,
+ *   exposed at /actuator/metrics. Loggers and meters are resolved once per
+ *   join point, so the hot path does no lookups and no string building.
+ * - DEBUG level: a sampled fraction of calls (logging.aspect.sample-rate) logs
+ *   parameters and results, masking sensitive data
+ * - ERROR level: exceptions, also counted in "app.method.errors"
  */
 @Aspect
 @Component
 public class LoggingAspect {
 
+    private final MeterRegistry meterRegistry;
+    private final double sampleRate;
+    private final Map<JoinPoint.StaticPart, MethodInstrumentation> instrumentation = new ConcurrentHashMap<>();
+
+    public LoggingAspect(MeterRegistry meterRegistry,
+            @Value("${logging.aspect.sample-rate:0.01}") double sampleRate) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+    }
+
     /**
      * Pointcut for all public methods in application, presentation, and service
-     * layers.
+     * layers. Servlet filters are excluded: proxying them leaves the final
+     * GenericFilterBean.init() running on an uninitialized CGLIB instance.
      */
-    @Pointcut("within(com.example.identity.application..*) || " +
+    @Pointcut("(within(com.example.identity.application..*) || " +
             "within(com.example.identity.presentation..*) || " +
-            "within(com.example.identity.infrastructure.security..*)")
+            "within(com.example.identity.infrastructure.security..*)) && " +
+            "!within(jakarta.servlet.Filter+)")
     public void applicationPackagePointcut() {
         // Method is empty as this is just a Pointcut definition
     }
 
     /**
-     * Logs method entry, execution time, and exit.
+     * Times the method and, for sampled calls, logs entry and exit.
      */
     @Around("applicationPackagePointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringType());
-        String methodName = joinPoint.getSignature().getName();
+        MethodInstrumentation method = instrumentationFor(joinPoint.getStaticPart());
+        boolean sampled = method.log.isDebugEnabled() && isSampled();
 
         // Log method entry with parameters (masking sensitive data)
-        if (log.isDebugEnabled()) {
-            Object[] args = joinPoint.getArgs();
-            String params = formatParameters(args);
-            log.debug(">>> {}() called with: {}", methodName, params);
+        if (sampled) {
+            method.log.debug(">>> {}() called with: {}", method.name, formatParameters(joinPoint.getArgs()));
         }
 
-        long startTime = System.currentTimeMillis();
-        Object result = joinPoint.proceed();
-        long executionTime = System.currentTimeMillis() - startTime;
+        long startTime = System.nanoTime();
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } finally {
+            method.timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
 
         // Log method exit with result summary
-        if (log.isDebugEnabled()) {
-            String resultSummary = formatResult(result);
-            log.debug("<<< {}() completed in {}ms, returned: {}", methodName, executionTime, resultSummary);
+        if (sampled) {
+            method.log.debug("<<< {}() completed in {}us, returned: {}", method.name,
+                    TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startTime), formatResult(result));
         }
 
         return result;
@@ -66,15 +93,42 @@ public class LoggingAspect {
      */
     @AfterThrowing(pointcut = "applicationPackagePointcut()", throwing = "exception")
     public void logException(JoinPoint joinPoint, Throwable exception) {
-        Logger log = LoggerFactory.getLogger(joinPoint.getSignature().getDeclaringType());
-        String methodName = joinPoint.getSignature().getName();
+        MethodInstrumentation method = instrumentationFor(joinPoint.getStaticPart());
+        method.errors.increment();
 
-        log.error("!!! {}() threw exception: {} - {}",
-                methodName,
+        method.log.error("!!! {}() threw exception: {} - {}",
+                method.name,
                 exception.getClass().getSimpleName(),
                 exception.getMessage());
     }
 
+    private MethodInstrumentation instrumentationFor(JoinPoint.StaticPart staticPart) {
+        MethodInstrumentation method = instrumentation.get(staticPart);
+        if (method == null) {
+            method = instrumentation.computeIfAbsent(staticPart, this::register);
+        }
+        return method;
+    }
+
+    private MethodInstrumentation register(JoinPoint.StaticPart staticPart) {
+        Class<?> declaringType = staticPart.getSignature().getDeclaringType();
+        String methodName = staticPart.getSignature().getName();
+        Timer timer = Timer.builder("app.method.execution")
+                .tag("class", declaringType.getSimpleName())
+                .tag("method", methodName)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Counter errors = Counter.builder("app.method.errors")
+                .tag("class", declaringType.getSimpleName())
+                .tag("method", methodName)
+                .register(meterRegistry);
+        return new MethodInstrumentation(LoggerFactory.getLogger(declaringType), methodName, timer, errors);
+    }
+
+    private boolean isSampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
     /**
      * Formats parameters, masking sensitive data like passwords.
      */
@@ -116,4 +170,7 @@ public class LoggingAspect {
         }
         return resultStr;
     }
+
+    private record MethodInstrumentation(Logger log, String name, Timer timer, Counter errors) {
+    }
 }
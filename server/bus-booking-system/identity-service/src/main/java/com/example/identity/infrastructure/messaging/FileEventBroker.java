@@ -0,0 +1,382 @@
+package com.example.identity.infrastructure.messaging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.example.identity.infrastructure.outbox.EventTransport;
+import com.example.identity.infrastructure.outbox.OutboxEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Embedded, file-backed stand-in for a message broker, the default
+ * {@link EventTransport} (outbox.transport=file). Each topic (the outbox
+ * aggregate type) is an append-only log of JSON lines under events.broker.dir,
+ * split into segments named by the byte offset they start at. A published
+ * batch is one write and one fsync per topic.
+ *
+ * <p>Consumers {@link #subscribe} by name and read from their own committed
+ * offset, kept in {@code <topic>/offsets/<consumer>}. The offset is committed
+ * after the handler returns, so a crash or a failing handler means the batch is
+ * delivered again: at least once, like the relay in front of it. Closed
+ * segments every consumer has read past are deleted.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.transport", havingValue = "file", matchIfMissing = true)
+@Slf4j
+public class FileEventBroker implements EventTransport, DisposableBean {
+
+    private static final int READ_CHUNK_BYTES = 1 << 20;
+    private static final long MAX_BACKOFF_MS = 5000;
+
+    /** One event delivered to a consumer; {@code nextOffset} is where the next one starts. */
+    public record Delivery(long nextOffset, long eventId, String type, String key, String payload,
+            LocalDateTime createdAt) {
+    }
+
+    @FunctionalInterface
+    public interface Handler {
+        void handle(List<Delivery> batch) throws Exception;
+    }
+
+    private final Path dir;
+    private final long segmentBytes;
+    private final long pollIntervalMs;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Topic> topics = new ConcurrentHashMap<>();
+    private final List<Thread> consumers = new CopyOnWriteArrayList<>();
+    private volatile boolean running = true;
+
+    public FileEventBroker(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+            @Value("${events.broker.dir:./data/events}") String dir,
+            @Value("${events.broker.segment-bytes:67108864}") long segmentBytes,
+            @Value("${events.broker.poll-interval-ms:200}") long pollIntervalMs) {
+        this.dir = Path.of(dir);
+        this.segmentBytes = segmentBytes;
+        this.pollIntervalMs = pollIntervalMs;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void publish(List<OutboxEvent> batch) throws IOException {
+        Map<String, StringBuilder> byTopic = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            ObjectNode line = objectMapper.createObjectNode();
+            line.put("id", event.id());
+            line.put("type", event.eventType());
+            line.put("key", event.aggregateId());
+            line.put("createdAt", event.createdAt().toString());
+            line.set("payload", objectMapper.readTree(event.payload()));
+            byTopic.computeIfAbsent(event.aggregateType(), topic -> new StringBuilder())
+                    .append(objectMapper.writeValueAsString(line)).append('\n');
+        }
+        for (Map.Entry<String, StringBuilder> entry : byTopic.entrySet()) {
+            topic(entry.getKey()).append(entry.getValue().toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Starts a thread that feeds {@code handler} batches of up to
+     * {@code maxBatch} events of {@code topicName}, from where
+     * {@code consumer} last committed (or the oldest retained event).
+     */
+    public void subscribe(String consumer, String topicName, int maxBatch, Handler handler) {
+        Topic topic = topic(topicName);
+        meterRegistry.gauge("events.broker.consumer.lag", Tags.of("topic", topicName, "consumer", consumer),
+                topic, t -> t.endOffset - t.committed(consumer));
+        Thread thread = new Thread(() -> consume(topic, consumer, maxBatch, handler),
+                "events-" + topicName + "-" + consumer);
+        thread.setDaemon(true);
+        consumers.add(thread);
+        thread.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        for (Thread consumer : consumers) {
+            consumer.interrupt();
+            consumer.join(2000);
+        }
+        for (Topic topic : topics.values()) {
+            topic.close();
+        }
+    }
+
+    private void consume(Topic topic, String consumer, int maxBatch, Handler handler) {
+        long offset = topic.committed(consumer);
+        long backoffMs = 100;
+        while (running) {
+            try {
+                List<Delivery> batch = topic.read(offset, maxBatch);
+                if (batch.isEmpty()) {
+                    Thread.sleep(pollIntervalMs);
+                    continue;
+                }
+                handler.handle(batch);
+                offset = batch.get(batch.size() - 1).nextOffset();
+                topic.commit(consumer, offset);
+                backoffMs = 100;
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.warn("Consumer {} of {} failed at offset {}, retrying in {} ms: {}", consumer, topic.name,
+                        offset, backoffMs, e.getMessage());
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+    }
+
+    private Topic topic(String name) {
+        return topics.computeIfAbsent(name, topicName -> {
+            try {
+                return new Topic(topicName);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open event topic " + topicName + " in " + dir, e);
+            }
+        });
+    }
+
+    private static String segmentName(long baseOffset) {
+        return String.format("%020d.log", baseOffset);
+    }
+
+    /**
+     * Segments of one topic. Appends are serialized; readers only read below
+     * {@code endOffset}, which moves after the bytes are written and synced,
+     * so they never see half a line. A failed append is cut back to
+     * {@code endOffset}, so the publisher's retry starts at the offset readers
+     * expect.
+     */
+    private final class Topic {
+        private final String name;
+        private final Path topicDir;
+        private final Path offsetsDir;
+        private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+        private FileChannel active;
+        private long activeBase;
+        private volatile long endOffset;
+        /** A failed append could not be cut back yet; done before the next write. */
+        private boolean dirty;
+
+        Topic(String name) throws IOException {
+            this.name = name;
+            this.topicDir = dir.resolve(name);
+            this.offsetsDir = topicDir.resolve("offsets");
+            Files.createDirectories(offsetsDir);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(topicDir, "*.log")) {
+                for (Path file : files) {
+                    String fileName = file.getFileName().toString();
+                    segments.put(Long.parseLong(fileName.substring(0, fileName.length() - 4)), file);
+                }
+            }
+            if (segments.isEmpty()) {
+                segments.put(0L, topicDir.resolve(segmentName(0)));
+            }
+            activeBase = segments.lastKey();
+            active = FileChannel.open(segments.lastEntry().getValue(), StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            active.position(truncateToLastLine(active));
+            endOffset = activeBase + active.position();
+        }
+
+        synchronized void append(byte[] data) throws IOException {
+            if (dirty) {
+                truncateToEnd();
+            }
+            if (endOffset > activeBase && endOffset - activeBase + data.length > segmentBytes) {
+                roll();
+            }
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    active.write(buffer);
+                }
+                active.force(false);
+            } catch (IOException | RuntimeException e) {
+                dirty = true;
+                try {
+                    truncateToEnd();
+                } catch (IOException truncateFailure) {
+                    e.addSuppressed(truncateFailure);
+                }
+                throw e;
+            }
+            endOffset += data.length;
+        }
+
+        List<Delivery> read(long offset, int max) throws IOException {
+            List<Delivery> batch = new ArrayList<>();
+            long end = endOffset;
+            if (offset < segments.firstKey()) {
+                log.warn("Offset {} of topic {} was deleted, continuing at {}", offset, name, segments.firstKey());
+                offset = segments.firstKey();
+            }
+            while (offset < end && batch.size() < max) {
+                Map.Entry<Long, Path> segment = segments.floorEntry(offset);
+                Long nextBase = segments.higherKey(segment.getKey());
+                long segmentEnd = nextBase != null ? nextBase : end;
+                if (offset >= segmentEnd) {
+                    offset = segmentEnd;
+                    continue;
+                }
+                int length = (int) Math.min(segmentEnd - offset, READ_CHUNK_BYTES);
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                try (FileChannel channel = FileChannel.open(segment.getValue(), StandardOpenOption.READ)) {
+                    long position = offset - segment.getKey();
+                    while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+                        // keep reading
+                    }
+                }
+                byte[] bytes = buffer.array();
+                int lineStart = 0;
+                for (int i = 0; i < buffer.position() && batch.size() < max; i++) {
+                    if (bytes[i] == '\n') {
+                        String line = new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8);
+                        batch.add(decode(line, offset + i + 1));
+                        lineStart = i + 1;
+                    }
+                }
+                if (lineStart == 0) {
+                    throw new IOException("Event at offset " + offset + " of " + name + " exceeds "
+                            + READ_CHUNK_BYTES + " bytes");
+                }
+                offset += lineStart;
+            }
+            return batch;
+        }
+
+        long committed(String consumer) {
+            Path file = offsetsDir.resolve(consumer);
+            try {
+                if (Files.exists(file)) {
+                    return Long.parseLong(Files.readString(file).trim());
+                }
+            } catch (IOException | NumberFormatException e) {
+                log.warn("Unreadable offset for consumer {} of {}, starting from the oldest event: {}", consumer,
+                        name, e.getMessage());
+            }
+            return segments.firstKey();
+        }
+
+        void commit(String consumer, long offset) throws IOException {
+            Path file = offsetsDir.resolve(consumer);
+            Path temp = offsetsDir.resolve(consumer + ".tmp");
+            Files.writeString(temp, Long.toString(offset));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteConsumedSegments();
+        }
+
+        synchronized void close() {
+            try {
+                active.close();
+            } catch (IOException e) {
+                log.debug("Closing topic {}: {}", name, e.getMessage());
+            }
+        }
+
+        private synchronized void roll() throws IOException {
+            active.close();
+            activeBase = endOffset;
+            Path next = topicDir.resolve(segmentName(activeBase));
+            active = FileChannel.open(next, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            segments.put(activeBase, next);
+        }
+
+        /** Drops closed segments that every consumer with an offset file has read past. */
+        private synchronized void deleteConsumedSegments() throws IOException {
+            long minCommitted = Long.MAX_VALUE;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(offsetsDir)) {
+                for (Path file : files) {
+                    String fileName = file.getFileName().toString();
+                    if (!fileName.endsWith(".tmp")) {
+                        minCommitted = Math.min(minCommitted, committed(fileName));
+                    }
+                }
+            }
+            Map.Entry<Long, Path> oldest;
+            while ((oldest = segments.firstEntry()) != null && oldest.getKey() != activeBase) {
+                Long nextBase = segments.higherKey(oldest.getKey());
+                if (nextBase == null || nextBase > minCommitted) {
+                    return;
+                }
+                Files.deleteIfExists(oldest.getValue());
+                segments.remove(oldest.getKey());
+                log.debug("Deleted consumed segment {} of topic {}", oldest.getValue().getFileName(), name);
+            }
+        }
+
+        /** Drops whatever a failed append left in the active segment past endOffset. */
+        private void truncateToEnd() throws IOException {
+            long size = endOffset - activeBase;
+            if (active.size() > size) {
+                log.warn("Truncating {} bytes of a failed append to topic {}", active.size() - size, name);
+                active.truncate(size);
+            }
+            active.position(size);
+            active.force(false);
+            dirty = false;
+        }
+
+        /** Cuts a line left half-written by a crash; returns the new size. */
+        private long truncateToLastLine(FileChannel channel) throws IOException {
+            long size = channel.size();
+            ByteBuffer one = ByteBuffer.allocate(1);
+            long end = size;
+            while (end > 0) {
+                one.clear();
+                channel.read(one, end - 1);
+                if (one.get(0) == '\n') {
+                    break;
+                }
+                end--;
+            }
+            if (end < size) {
+                log.warn("Truncating {} bytes of a partial event at the end of topic {}", size - end, name);
+                channel.truncate(end);
+            }
+            return end;
+        }
+
+        private Delivery decode(String line, long nextOffset) throws IOException {
+            JsonNode node = objectMapper.readTree(line);
+            return new Delivery(nextOffset, node.path("id").asLong(), node.path("type").asText(),
+                    node.path("key").asText(), node.path("payload").toString(),
+                    LocalDateTime.parse(node.path("createdAt").asText()));
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.identity.infrastructure.outbox;
+
+import java.util.List;
+
+/**
+ * Where the outbox relay delivers events (a message broker client, or the
+ * embedded file broker). {@link #publish} must return only once every event of
+ * the batch is durably accepted; a failure makes the relay retry the whole
+ * batch, so the same event may be delivered more than once.
+ */
+public interface EventTransport {
+
+    void publish(List<OutboxEvent> batch) throws Exception;
+}
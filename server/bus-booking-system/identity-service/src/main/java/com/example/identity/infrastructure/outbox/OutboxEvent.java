@@ -0,0 +1,12 @@
+package com.example.identity.infrastructure.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the outbox: an event about an aggregate (e.g. user 42), with its
+ * payload already serialized to JSON. The aggregate type is the topic it is
+ * published to; the id orders events and lets consumers drop redeliveries.
+ */
+public record OutboxEvent(long id, String aggregateType, String aggregateId, String eventType, String payload,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,110 @@
+package com.example.identity.infrastructure.outbox;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves outbox rows to the {@link EventTransport}: reads up to batch-size
+ * unpublished rows in id order, publishes them as one batch and marks them
+ * published with one batched update. Rows are selected by published_at rather
+ * than by "id after the last one", so a row whose transaction commits after a
+ * higher id was relayed is still picked up. A failed publish is retried on the
+ * next poll, and a crash between publish and mark republishes the batch:
+ * delivery is at least once and consumers skip event ids they have seen.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String SELECT_SQL = "SELECT id, aggregate_type, aggregate_id, event_type, payload, "
+            + "created_at FROM outbox_events WHERE published_at IS NULL ORDER BY id LIMIT ?";
+    private static final String MARK_SQL = "UPDATE outbox_events SET published_at = ? WHERE id = ?";
+    private static final String PURGE_SQL = "DELETE FROM outbox_events WHERE published_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventTransport transport;
+    private final int batchSize;
+    private final long retentionMs;
+
+    private final Counter published;
+    private final Counter failures;
+    private final DistributionSummary batchSizes;
+    private final Timer lag;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, EventTransport transport, MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.retention-ms:604800000}") long retentionMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transport = transport;
+        this.batchSize = batchSize;
+        this.retentionMs = retentionMs;
+
+        this.published = Counter.builder("outbox.relay.published")
+                .description("Outbox events handed to the transport").register(meterRegistry);
+        this.failures = Counter.builder("outbox.relay.failures")
+                .description("Outbox batches the transport rejected").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Outbox events per published batch").register(meterRegistry);
+        this.lag = Timer.builder("outbox.relay.lag")
+                .description("Time from outbox insert to publish").register(meterRegistry);
+    }
+
+    /**
+     * Publishes everything pending, a batch at a time.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:500}")
+    public synchronized void relay() {
+        List<OutboxEvent> batch;
+        do {
+            batch = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new OutboxEvent(rs.getLong(1), rs.getString(2),
+                    rs.getString(3), rs.getString(4), rs.getString(5), rs.getTimestamp(6).toLocalDateTime()),
+                    batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                transport.publish(batch);
+            } catch (Exception e) {
+                failures.increment();
+                log.warn("Publishing {} outbox events failed, retrying on the next poll: {}", batch.size(),
+                        e.getMessage());
+                return;
+            }
+
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            jdbcTemplate.batchUpdate(MARK_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setTimestamp(1, now);
+                ps.setLong(2, event.id());
+            });
+            LocalDateTime publishedAt = now.toLocalDateTime();
+            for (OutboxEvent event : batch) {
+                lag.record(Duration.between(event.createdAt(), publishedAt));
+            }
+            published.increment(batch.size());
+            batchSizes.record(batch.size());
+            log.debug("Published {} outbox events up to id {}", batch.size(), batch.get(batch.size() - 1).id());
+        } while (batch.size() == batchSize);
+    }
+
+    /** Deletes published rows older than retention-ms. */
+    @Scheduled(fixedDelayString = "${outbox.relay.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        int purged = jdbcTemplate.update(PURGE_SQL, new Timestamp(System.currentTimeMillis() - retentionMs));
+        if (purged > 0) {
+            log.debug("Purged {} published outbox events", purged);
+        }
+    }
+}
@@ -0,0 +1,348 @@
+package com.example.identity.infrastructure.search;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.identity.domain.model.UserSummary;
+import com.example.identity.domain.repository.UserRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory trigram index over user email and username for the admin user search.
+ * Replaces {@code LIKE '%x%'} scans of the users table:
+ * - documents are kept in id order, so results are paged by keyset (id > cursor),
+ *   and also in email order for the admin list's email sort
+ * - each lowercase trigram maps to the ids containing it; a query intersects the
+ *   postings implicitly by walking the smallest one and verifying candidates
+ * - queries shorter than three characters walk the documents directly
+ * The index is built on startup and fully rebuilt periodically to drop deleted
+ * rows. In between, each refresh re-reads, by id, every row updated since the
+ * newest updated_at already seen minus refresh-overlap-ms: updated_at is taken
+ * when the statement runs, not when it commits, so a transaction that commits
+ * late lands behind the newest timestamp and a strict watermark would skip it.
+ */
+@Component
+@Slf4j
+public class UserSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final Comparator<IndexedUser> BY_EMAIL =
+            Comparator.comparing(IndexedUser::searchEmail).thenComparing(IndexedUser::id);
+
+    private final UserRepository userRepository;
+    private final int batchSize;
+    private final Duration refreshOverlap;
+    private final Timer searchTimer;
+
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean ready;
+    /** Newest updated_at seen so far, in database time. */
+    private LocalDateTime watermark = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    public UserSearchIndex(
+            UserRepository userRepository,
+            @Value("${search.users.batch-size:1000}") int batchSize,
+            @Value("${search.users.refresh-overlap-ms:60000}") long refreshOverlapMs,
+            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.batchSize = batchSize;
+        this.refreshOverlap = Duration.ofMillis(refreshOverlapMs);
+        this.searchTimer = Timer.builder("search.users.query").register(meterRegistry);
+        Gauge.builder("search.users.documents", this, index -> index.snapshot.documents.size())
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds the whole index from a keyset scan by id and swaps it in atomically.
+     */
+    @Scheduled(fixedDelayString = "${search.users.rebuild-interval-ms:3600000}",
+            initialDelayString = "${search.users.rebuild-interval-ms:3600000}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        Snapshot fresh = new Snapshot();
+        LocalDateTime maxUpdatedAt = watermark;
+
+        int afterId = 0;
+        List<UserSummary> batch;
+        do {
+            batch = userRepository.findSummariesAfterId(afterId, PageRequest.of(0, batchSize));
+            for (UserSummary user : batch) {
+                fresh.put(IndexedUser.of(user));
+                afterId = user.getId();
+                if (user.getUpdatedAt() != null && user.getUpdatedAt().isAfter(maxUpdatedAt)) {
+                    maxUpdatedAt = user.getUpdatedAt();
+                }
+            }
+        } while (batch.size() == batchSize);
+
+        snapshot = fresh;
+        watermark = maxUpdatedAt;
+        ready = true;
+        log.info("User search index rebuilt: {} users in {}ms", fresh.documents.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Applies rows updated within the overlap window before the watermark or
+     * later. Rows already indexed unchanged are skipped by {@link Snapshot#put}.
+     */
+    @Scheduled(fixedDelayString = "${search.users.refresh-interval-ms:5000}",
+            initialDelayString = "${search.users.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        if (!ready) {
+            return;
+        }
+        Snapshot current = snapshot;
+        LocalDateTime since = watermark.minus(refreshOverlap);
+        LocalDateTime maxUpdatedAt = watermark;
+        int applied = 0;
+
+        int afterId = 0;
+        List<UserSummary> batch;
+        do {
+            batch = userRepository.findSummariesUpdatedSince(since, afterId, PageRequest.of(0, batchSize));
+            for (UserSummary user : batch) {
+                if (current.put(IndexedUser.of(user))) {
+                    applied++;
+                }
+                afterId = user.getId();
+                if (user.getUpdatedAt() != null && user.getUpdatedAt().isAfter(maxUpdatedAt)) {
+                    maxUpdatedAt = user.getUpdatedAt();
+                }
+            }
+        } while (batch.size() == batchSize);
+        watermark = maxUpdatedAt;
+
+        if (applied > 0) {
+            log.debug("User search index refreshed with {} changed users", applied);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns up to {@code limit} users whose email or username contains (or, with
+     * {@code prefix}, starts with) the query, in the given order, skipping the
+     * first {@code offset} matches. {@code afterId} continues an id-ordered scan
+     * from a previous page's cursor and is ignored for the email orders, which
+     * page by offset only.
+     */
+    public SearchResult search(String query, boolean prefix, Integer afterId, long offset, int limit,
+            SortOrder order) {
+        long start = System.nanoTime();
+        try {
+            return doSearch(query, prefix, afterId, offset, limit, order);
+        } finally {
+            searchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private SearchResult doSearch(String query, boolean prefix, Integer afterId, long offset, int limit,
+            SortOrder order) {
+        Snapshot current = snapshot;
+        String needle = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+
+        // Candidate ids in ascending order: the smallest trigram posting, or every document
+        NavigableSet<Integer> candidates = current.documents.navigableKeySet();
+        boolean narrowed = false;
+        if (needle.length() >= GRAM) {
+            for (String gram : trigrams(needle)) {
+                NavigableSet<Integer> posting = current.postings.get(gram);
+                if (posting == null) {
+                    return new SearchResult(Collections.emptyList(), null, 0);
+                }
+                if (posting.size() < candidates.size()) {
+                    candidates = posting;
+                    narrowed = true;
+                }
+            }
+        }
+
+        boolean byId = order == SortOrder.ID_ASC || order == SortOrder.ID_DESC;
+        Integer cursor = byId ? afterId : null;
+        Iterable<IndexedUser> ordered = ordered(current, candidates, narrowed, cursor, order);
+
+        List<IndexedUser> matches = new ArrayList<>(limit);
+        int checked = 0;
+        long matched = 0;
+        boolean exhausted = true;
+        for (IndexedUser user : ordered) {
+            if (matches.size() == limit) {
+                exhausted = false;
+                break;
+            }
+            checked++;
+            if (user != null && user.matches(needle, prefix) && matched++ >= offset) {
+                matches.add(user);
+            }
+        }
+
+        Integer nextCursor = !byId || exhausted || matches.isEmpty() ? null : matches.get(matches.size() - 1).id();
+        return new SearchResult(matches, nextCursor,
+                estimateTotal(candidates.size(), checked, matched, cursor == null && exhausted));
+    }
+
+    /**
+     * The candidates as documents in scan order. A posting list narrowed by a
+     * trigram is small, so for the email orders it is sorted on the spot;
+     * otherwise the email-ordered view of all documents is walked.
+     */
+    private static Iterable<IndexedUser> ordered(Snapshot current, NavigableSet<Integer> candidates,
+            boolean narrowed, Integer cursor, SortOrder order) {
+        switch (order) {
+            case ID_ASC -> {
+                NavigableSet<Integer> ids = cursor == null ? candidates : candidates.tailSet(cursor, false);
+                return () -> ids.stream().map(current.documents::get).iterator();
+            }
+            case ID_DESC -> {
+                NavigableSet<Integer> ids = cursor == null ? candidates.descendingSet()
+                        : candidates.headSet(cursor, false).descendingSet();
+                return () -> ids.stream().map(current.documents::get).iterator();
+            }
+            default -> {
+                boolean descending = order == SortOrder.EMAIL_DESC;
+                if (!narrowed) {
+                    NavigableSet<IndexedUser> keys = descending ? current.byEmail.descendingSet() : current.byEmail;
+                    return () -> keys.stream().map(key -> current.documents.get(key.id())).iterator();
+                }
+                List<IndexedUser> users = new ArrayList<>(candidates.size());
+                for (Integer id : candidates) {
+                    IndexedUser user = current.documents.get(id);
+                    if (user != null) {
+                        users.add(user);
+                    }
+                }
+                users.sort(descending ? BY_EMAIL.reversed() : BY_EMAIL);
+                return users;
+            }
+        }
+    }
+
+    /**
+     * Extrapolates the selectivity seen while scanning to the whole candidate set
+     * instead of running a COUNT(*).
+     */
+    private long estimateTotal(int candidateCount, int checked, long matched, boolean exact) {
+        if (exact || checked == 0) {
+            return matched;
+        }
+        return Math.round(candidateCount * (matched / (double) checked));
+    }
+
+    private static Set<String> trigrams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    public enum SortOrder {
+        ID_ASC, ID_DESC, EMAIL_ASC, EMAIL_DESC
+    }
+
+    public record SearchResult(List<IndexedUser> users, Integer nextCursor, long estimatedTotal) {
+    }
+
+    public record IndexedUser(Integer id, String username, String email, String phone, Integer age, String role,
+            Integer isActive, LocalDateTime createdAt, LocalDateTime updatedAt, String searchEmail,
+            String searchUsername) {
+
+        static IndexedUser of(UserSummary user) {
+            return new IndexedUser(user.getId(), user.getUsername(), user.getEmail(), user.getPhone(),
+                    user.getAge(), user.getRole(), user.getIsActive(), user.getCreatedAt(), user.getUpdatedAt(),
+                    lower(user.getEmail()), lower(user.getUsername()));
+        }
+
+        boolean matches(String needle, boolean prefix) {
+            if (prefix) {
+                return searchEmail.startsWith(needle) || searchUsername.startsWith(needle);
+            }
+            return searchEmail.contains(needle) || searchUsername.contains(needle);
+        }
+
+        Set<String> trigrams() {
+            Set<String> grams = UserSearchIndex.trigrams(searchEmail);
+            grams.addAll(UserSearchIndex.trigrams(searchUsername));
+            return grams;
+        }
+
+        private static String lower(String value) {
+            return value == null ? "" : value.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Documents by id, their email order and trigram postings. Only the (synchronized)
+     * refresh and rebuild write; searches read concurrently and re-verify every
+     * candidate, so a posting that is briefly ahead of or behind its document is
+     * harmless.
+     */
+    private static final class Snapshot {
+        private final NavigableMap<Integer, IndexedUser> documents = new ConcurrentSkipListMap<>();
+        private final NavigableSet<IndexedUser> byEmail = new ConcurrentSkipListSet<>(BY_EMAIL);
+        private final Map<String, NavigableSet<Integer>> postings = new ConcurrentHashMap<>();
+
+        /** Returns false if the user was already indexed as is. */
+        boolean put(IndexedUser user) {
+            IndexedUser previous = documents.put(user.id(), user);
+            if (user.equals(previous)) {
+                return false;
+            }
+            // byEmail only orders ids; readers take the record from documents
+            if (previous == null || BY_EMAIL.compare(previous, user) != 0) {
+                byEmail.add(user);
+                if (previous != null) {
+                    byEmail.remove(previous);
+                }
+            }
+            Set<String> grams = user.trigrams();
+            if (previous != null) {
+                for (String gram : previous.trigrams()) {
+                    if (!grams.contains(gram)) {
+                        NavigableSet<Integer> posting = postings.get(gram);
+                        if (posting != null) {
+                            posting.remove(user.id());
+                        }
+                    }
+                }
+            }
+            for (String gram : grams) {
+                postings.computeIfAbsent(gram, g -> new ConcurrentSkipListSet<>()).add(user.id());
+            }
+            return true;
+        }
+    }
+}
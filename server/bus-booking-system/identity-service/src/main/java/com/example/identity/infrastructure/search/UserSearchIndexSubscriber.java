@@ -0,0 +1,40 @@
+package com.example.identity.infrastructure.search;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.example.identity.infrastructure.messaging.FileEventBroker;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Refreshes the user search index as soon as user events are published,
+ * instead of waiting for the next scheduled refresh. A consumer of the
+ * embedded broker's "user" topic; without it the scheduled refresh still runs.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserSearchIndexSubscriber {
+
+    private static final String CONSUMER = "user-search-index";
+
+    private final ObjectProvider<FileEventBroker> broker;
+    private final UserSearchIndex userSearchIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        FileEventBroker fileBroker = broker.getIfAvailable();
+        if (fileBroker == null) {
+            return;
+        }
+        fileBroker.subscribe(CONSUMER, "user", 100, batch -> {
+            // The refresh reads every changed row, so one per batch covers all its events
+            userSearchIndex.refresh();
+            log.debug("Search index refreshed for {} user events", batch.size());
+        });
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.identity.infrastructure.security;
+
+import java.security.Principal;
+
+import lombok.Value;
+
+/**
+ * Principal stored in the security context for token-authenticated requests.
+ * Built from token claims plus the cached user status, never from the users row.
+ */
+@Value
+public class AuthenticatedUser implements Principal {
+    Integer id;
+    String email;
+    String role;
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.identity.infrastructure.security;
+
+import java.util.Arrays;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Benchmark mode for choosing {@code auth.password-hashing.bcrypt-strength}.
+ * Enabled with {@code auth.password-hashing.benchmark.enabled=true}; on startup it
+ * measures single-hash latency for increasing bcrypt costs on the current host and
+ * logs the highest cost whose p99 stays within the target. Queueing in
+ * {@link PasswordHashingService} adds to this under load, so leave headroom.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.password-hashing.benchmark.enabled", havingValue = "true")
+@Slf4j
+public class BcryptCostBenchmark implements ApplicationRunner {
+
+    private static final int MIN_COST = 4;
+    private static final int MAX_COST = 16;
+    private static final String SAMPLE_PASSWORD = "benchmark-password-1234";
+
+    private final long targetP99Ms;
+    private final int samples;
+
+    public BcryptCostBenchmark(
+            @Value("${auth.password-hashing.benchmark.target-p99-ms:250}") long targetP99Ms,
+            @Value("${auth.password-hashing.benchmark.samples:20}") int samples) {
+        this.targetP99Ms = targetP99Ms;
+        this.samples = Math.max(samples, 1);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        log.info("Running bcrypt cost benchmark: target p99 {}ms, {} samples per cost, {} cores",
+                targetP99Ms, samples, Runtime.getRuntime().availableProcessors());
+
+        int recommended = MIN_COST;
+        for (int cost = MIN_COST; cost <= MAX_COST; cost++) {
+            long[] latenciesNanos = measure(cost);
+            double p50 = percentileMs(latenciesNanos, 0.50);
+            double p99 = percentileMs(latenciesNanos, 0.99);
+            log.info("bcrypt cost {}: p50={}ms p99={}ms", cost, format(p50), format(p99));
+
+            if (p99 > targetP99Ms) {
+                break;
+            }
+            recommended = cost;
+        }
+
+        log.info("Recommended auth.password-hashing.bcrypt-strength: {} (target p99 {}ms)",
+                recommended, targetP99Ms);
+    }
+
+    private long[] measure(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        // Warm-up so JIT compilation is not counted
+        String hash = encoder.encode(SAMPLE_PASSWORD);
+
+        long[] latencies = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            encoder.matches(SAMPLE_PASSWORD, hash);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    private double percentileMs(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private String format(double millis) {
+        return String.format("%.1f", millis);
+    }
+}
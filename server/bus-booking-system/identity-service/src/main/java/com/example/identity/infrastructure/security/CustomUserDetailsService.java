@@ -34,7 +34,7 @@ public class CustomUserDetailsService implements UserDetailsService {
                 authorities);
     }
 
-    private Collection<? extends GrantedAuthority> mapRole(String role) {
+    public static Collection<? extends GrantedAuthority> mapRole(String role) {
         if (role != null && "admin".equalsIgnoreCase(role)) {
             return List.of(new SimpleGrantedAuthority("ROLE_ADMIN"));
         }
@@ -4,8 +4,6 @@ import java.io.IOException;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,7 +21,7 @@ import lombok.RequiredArgsConstructor;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -42,18 +40,35 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String jwt = resolveToken(request);
 
-        if (jwt != null && tokenProvider.validateToken(jwt)) {
-            String username = tokenProvider.getSubject(jwt);
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
-            authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+        JwtPrincipal principal = jwt != null ? tokenProvider.verify(jwt).orElse(null) : null;
+
+        if (principal != null) {
+            authenticate(request, principal);
         }
 
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Builds the authentication from token claims and the cached user status.
+     * The cached role wins over the token claim so demotions apply before the
+     * token expires; inactive or deleted users are left unauthenticated.
+     */
+    private void authenticate(HttpServletRequest request, JwtPrincipal principal) {
+        UserStatusCache.CachedStatus status = userStatusCache.get(principal.getSubject());
+        if (status == null || !status.active()) {
+            logger.debug("Rejecting token for inactive or unknown user");
+            return;
+        }
+
+        String role = status.role() != null ? status.role() : principal.getRole();
+        AuthenticatedUser user = new AuthenticatedUser(status.id(), principal.getSubject(), role);
+        UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                user, null, CustomUserDetailsService.mapRole(role));
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
     private String resolveToken(HttpServletRequest request) {
         // Try Authorization header first (forwarded by gateway)
         String bearerToken = request.getHeader("Authorization");
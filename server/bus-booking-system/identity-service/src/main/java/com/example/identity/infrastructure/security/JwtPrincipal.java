@@ -0,0 +1,24 @@
+package com.example.identity.infrastructure.security;
+
+import java.time.Instant;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Immutable result of a successful JWT verification.
+ * Holds only the claims the service needs so callers never re-parse the token.
+ */
+@Value
+@Builder
+public class JwtPrincipal {
+    String subject;
+    Integer userId;
+    String role;
+    Instant issuedAt;
+    Instant expiresAt;
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
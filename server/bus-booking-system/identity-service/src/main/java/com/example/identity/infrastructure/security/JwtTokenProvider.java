@@ -3,13 +3,16 @@ package com.example.identity.infrastructure.security;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.Date;
 import java.util.Base64;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -21,26 +24,46 @@ import javax.crypto.SecretKey;
 @Slf4j
 public class JwtTokenProvider {
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+
     private final SecretKey secretKey;
+    private final JwtParser parser;
+    private final VerifiedTokenCache tokenCache;
     private final long accessTokenValidityMs;
     private final long refreshTokenValidityMs;
 
     public JwtTokenProvider(
             @Value("${jwt.secret}") String secret,
             @Value("${jwt.access.expiration:90000000}") long accessTokenValidityMs,
-            @Value("${jwt.refresh.expiration:604800000}") long refreshTokenValidityMs) {
+            @Value("${jwt.refresh.expiration:604800000}") long refreshTokenValidityMs,
+            VerifiedTokenCache tokenCache) {
         this.secretKey = createSecureKey(secret);
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .build();
+        this.tokenCache = tokenCache;
         this.accessTokenValidityMs = accessTokenValidityMs;
         this.refreshTokenValidityMs = refreshTokenValidityMs;
         log.info("JwtTokenProvider initialized with access token validity: {}ms", accessTokenValidityMs);
     }
 
     public String generateAccessToken(String subject) {
+        return generateAccessToken(subject, null, null);
+    }
+
+    /**
+     * Issues an access token that also carries the user id and role, so
+     * downstream code can authorize without loading the user.
+     */
+    public String generateAccessToken(String subject, Integer userId, String role) {
         log.debug("Generating access token for subject: {}", subject);
         Date now = new Date();
         Date expiry = new Date(now.getTime() + accessTokenValidityMs);
         String token = Jwts.builder()
                 .setSubject(subject)
+                .claim(USER_ID_CLAIM, userId)
+                .claim(ROLE_CLAIM, role)
                 .setIssuedAt(now)
                 .setExpiration(expiry)
                 .signWith(secretKey, SignatureAlgorithm.HS256)
@@ -61,27 +84,58 @@ public class JwtTokenProvider {
                 .compact();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Verifies the token once and returns its principal, or empty if the token is
+     * malformed, has a bad signature or is expired. Verified tokens are served from
+     * {@link VerifiedTokenCache} until they expire.
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+
+        JwtPrincipal cached = tokenCache.get(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
         try {
-            getClaims(token);
+            JwtPrincipal principal = toPrincipal(getClaims(token));
+            tokenCache.put(token, principal);
             log.debug("Token validation successful");
-            return true;
+            return Optional.of(principal);
         } catch (Exception e) {
             log.warn("Token validation failed: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
 
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
     public String getSubject(String token) {
-        return getClaims(token).getSubject();
+        return verify(token)
+                .map(JwtPrincipal::getSubject)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid or expired token"));
     }
 
     private Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private JwtPrincipal toPrincipal(Claims claims) {
+        return JwtPrincipal.builder()
+                .subject(claims.getSubject())
+                .userId(claims.get(USER_ID_CLAIM, Integer.class))
+                .role(claims.get(ROLE_CLAIM, String.class))
+                .issuedAt(toInstant(claims.getIssuedAt()))
+                .expiresAt(toInstant(claims.getExpiration()))
+                .build();
+    }
+
+    private Instant toInstant(Date date) {
+        return date != null ? date.toInstant() : null;
     }
 
     private SecretKey createSecureKey(String secret) {
@@ -0,0 +1,173 @@
+package com.example.identity.infrastructure.security;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.example.identity.infrastructure.exception.ServiceBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs password hashing on a dedicated, fixed-size pool with a bounded queue.
+ * Bcrypt work therefore cannot occupy every servlet thread, and once the queue
+ * is full callers fail fast with {@link ServiceBusyException} (503 + Retry-After)
+ * instead of piling up behind each other.
+ */
+@Component
+@Slf4j
+public class PasswordHashingService {
+
+    /** Cost field of a bcrypt hash, with or without the {bcrypt} prefix. */
+    private static final Pattern BCRYPT_COST = Pattern.compile("^(?:\\{bcrypt})?\\$2[abxy]?\\$(\\d{2})\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final int bcryptStrength;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+
+    private final Timer waitTimer;
+    private final Timer hashTimer;
+    private final Counter rejections;
+
+    public PasswordHashingService(
+            PasswordEncoder passwordEncoder,
+            @Value("${auth.password-hashing.threads:0}") int threads,
+            @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password-hashing.retry-after-seconds:1}") long retryAfterSeconds,
+            @Value("${auth.password-hashing.bcrypt-strength:10}") int bcryptStrength,
+            MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.passwordEncoder = passwordEncoder;
+        this.bcryptStrength = bcryptStrength;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new HashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.waitTimer = Timer.builder("auth.password.hash.wait").register(meterRegistry);
+        this.hashTimer = Timer.builder("auth.password.hash.time").register(meterRegistry);
+        this.rejections = Counter.builder("auth.password.hash.rejections").register(meterRegistry);
+        Gauge.builder("auth.password.hash.queue.depth", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+
+        log.info("PasswordHashingService initialized with {} threads, queue capacity {}", poolSize, queueCapacity);
+    }
+
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * True when the stored hash uses an older scheme or a cost other than the
+     * configured bcrypt-strength and should be replaced after a successful match.
+     * Lowering the strength (e.g. after running the cost benchmark on smaller
+     * hosts) therefore rehashes down as well as up.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (passwordEncoder.upgradeEncoding(encodedPassword)) {
+            return true;
+        }
+        Matcher cost = BCRYPT_COST.matcher(encodedPassword == null ? "" : encodedPassword);
+        return cost.find() && Integer.parseInt(cost.group(1)) != bcryptStrength;
+    }
+
+    /**
+     * Hashes on the pool without blocking the caller. Background work never takes
+     * priority over interactive requests: if the queue is full the returned future
+     * fails with {@link RejectedExecutionException} and the caller simply retries
+     * on a later login.
+     */
+    public CompletableFuture<String> encodeInBackground(CharSequence rawPassword) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(timed(System.nanoTime(), () -> passwordEncoder.encode(rawPassword)));
+                } catch (Exception e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private <T> T timed(long enqueuedAt, Callable<T> task) throws Exception {
+        long startedAt = System.nanoTime();
+        waitTimer.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+        try {
+            return task.call();
+        } finally {
+            hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timed(enqueuedAt, task));
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new ServiceBusyException("Too many concurrent authentication requests, please retry",
+                    retryAfterSeconds);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class HashingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.identity.infrastructure.security;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.shared.security.ServiceToken;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Authenticates other services calling with a {@link ServiceToken}
+ * ({@code Authorization: Service ...}) as ROLE_SERVICE, with the service name
+ * as principal. SecurityConfig only lets that role reach the endpoints meant
+ * for services.
+ */
+@Component
+@Slf4j
+public class ServiceAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String ROLE = "SERVICE";
+
+    private final ServiceToken serviceToken;
+
+    public ServiceAuthenticationFilter(@Value("${services.auth.secret}") String secret) {
+        this.serviceToken = new ServiceToken(secret);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        String authorization = request.getHeader("Authorization");
+        if (authorization != null && authorization.startsWith(ServiceToken.SCHEME)) {
+            String service = serviceToken.verify(authorization);
+            if (service != null) {
+                SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                        service, null, List.of(new SimpleGrantedAuthority("ROLE_" + ROLE))));
+            } else {
+                log.debug("Rejecting service token with a bad signature or past its expiry");
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.identity.infrastructure.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.identity.domain.model.UserStatus;
+import com.example.identity.domain.repository.UserRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded in-process cache of per-user role and active flag, keyed by email.
+ * Entries are reloaded once they are older than the staleness bound, and are
+ * dropped immediately when the user row is updated through JPA (see
+ * {@link UserStatusInvalidationListener}), so a deactivated user is rejected
+ * at most {@code auth.user-cache.staleness-ms} after the change.
+ */
+@Component
+@Slf4j
+public class UserStatusCache {
+
+    private final UserRepository userRepository;
+    private final Map<String, CachedStatus> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long stalenessMs;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public UserStatusCache(
+            UserRepository userRepository,
+            @Value("${auth.user-cache.max-size:10000}") int maxSize,
+            @Value("${auth.user-cache.staleness-ms:30000}") long stalenessMs,
+            MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.maxSize = maxSize;
+        this.stalenessMs = stalenessMs;
+        FunctionCounter.builder("auth.user.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("auth.user.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("auth.user.cache.invalidations", invalidations, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("auth.user.cache.size", entries, Map::size).register(meterRegistry);
+        log.info("UserStatusCache initialized with max size: {}, staleness: {}ms", maxSize, stalenessMs);
+    }
+
+    /**
+     * Returns the current status for the user, or null if the user no longer exists.
+     */
+    public CachedStatus get(String email) {
+        long now = System.currentTimeMillis();
+        CachedStatus cached = entries.get(email);
+        if (cached != null && now - cached.loadedAt() < stalenessMs) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        CachedStatus loaded = userRepository.findStatusByEmail(email)
+                .map(status -> CachedStatus.of(status, now))
+                .orElse(null);
+        if (loaded == null) {
+            entries.remove(email);
+            return null;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(email, loaded);
+        return loaded;
+    }
+
+    public void invalidate(String email) {
+        if (email != null && entries.remove(email) != null) {
+            invalidations.increment();
+            log.debug("Invalidated cached status for user: {}", email);
+        }
+    }
+
+    private void makeRoom() {
+        int toRemove = Math.max(1, maxSize / 10);
+        Iterator<String> it = entries.keySet().iterator();
+        while (toRemove-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    public record CachedStatus(Integer id, String role, boolean active, long loadedAt) {
+
+        static CachedStatus of(UserStatus status, long loadedAt) {
+            boolean active = status.getIsActive() != null && status.getIsActive() == 1;
+            return new CachedStatus(status.getId(), status.getRole(), active, loadedAt);
+        }
+    }
+}
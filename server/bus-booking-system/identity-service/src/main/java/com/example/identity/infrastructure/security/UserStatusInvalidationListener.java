@@ -0,0 +1,31 @@
+package com.example.identity.infrastructure.security;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.example.identity.domain.model.User;
+
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JPA entity listener that evicts a user's cached status whenever the row is
+ * updated or deleted, so role and isActive changes are seen on the next request.
+ * Bulk JPQL/SQL updates bypass entity listeners and are only picked up once the
+ * staleness bound of {@link UserStatusCache} expires.
+ * The cache is looked up lazily because Hibernate instantiates listeners while
+ * the EntityManagerFactory (which the cache depends on) is still being built.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserStatusInvalidationListener {
+
+    private final ObjectProvider<UserStatusCache> userStatusCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        userStatusCache.ifAvailable(cache -> cache.invalidate(user.getEmail()));
+    }
+}
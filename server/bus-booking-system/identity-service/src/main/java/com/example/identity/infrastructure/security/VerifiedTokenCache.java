@@ -0,0 +1,133 @@
+package com.example.identity.infrastructure.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Bounded cache of already verified JWTs.
+ * Entries are keyed by the SHA-256 of the raw token (the token itself is never
+ * stored) and are dropped once the token expires, so a hot token costs one hash
+ * lookup instead of a full base64 + JSON + HMAC verification.
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private static final Base64.Encoder KEY_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final Map<String, JwtPrincipal> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(
+            @Value("${jwt.cache.max-size:10000}") int maxSize,
+            MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        FunctionCounter.builder("jwt.cache.hits", hits, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.misses", misses, LongAdder::sum).register(meterRegistry);
+        FunctionCounter.builder("jwt.cache.evictions", evictions, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("jwt.cache.size", entries, Map::size).register(meterRegistry);
+        log.info("VerifiedTokenCache initialized with max size: {}", maxSize);
+    }
+
+    /**
+     * Returns the cached principal for the token, or null when the token has not
+     * been verified yet or its cached entry has expired.
+     */
+    public JwtPrincipal get(String token) {
+        String key = keyOf(token);
+        JwtPrincipal principal = entries.get(key);
+        if (principal == null) {
+            misses.increment();
+            return null;
+        }
+        if (principal.isExpired(Instant.now())) {
+            if (entries.remove(key, principal)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return principal;
+    }
+
+    public void put(String token, JwtPrincipal principal) {
+        if (maxSize <= 0 || principal.getExpiresAt() == null) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            makeRoom();
+        }
+        entries.put(keyOf(token), principal);
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drops expired entries first; if the cache is still full, drops an arbitrary
+     * tenth of it so the cost of a full sweep is amortized over many inserts.
+     */
+    private void makeRoom() {
+        Instant now = Instant.now();
+        entries.entrySet().removeIf(e -> {
+            if (e.getValue().isExpired(now)) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+
+        if (entries.size() < maxSize) {
+            return;
+        }
+        int toRemove = entries.size() - maxSize + Math.max(1, maxSize / 10);
+        Iterator<String> it = entries.keySet().iterator();
+        while (toRemove-- > 0 && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private String keyOf(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return KEY_ENCODER.encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.identity.infrastructure.threading;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reports virtual-thread pinning while the virtual-thread execution mode
+ * ({@code spring.threads.virtual.enabled=true}) is on.
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event in-process: every pin
+ * longer than the threshold (e.g. a virtual thread blocking inside a
+ * {@code synchronized} block of the JDBC driver or a Logback appender) is
+ * counted, timed and logged with its top application frame.
+ * Virtual threads require a JDK 21+ runtime; on older runtimes Spring keeps the
+ * platform thread pool and this monitor only logs a warning.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Duration threshold;
+    private final Counter pinnedEvents;
+    private final Timer pinnedTime;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            @Value("${virtual-threads.pinning-threshold-ms:20}") long thresholdMs,
+            MeterRegistry meterRegistry) {
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.pinnedEvents = Counter.builder("threads.virtual.pinned").register(meterRegistry);
+        this.pinnedTime = Timer.builder("threads.virtual.pinned.time").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        int runtimeVersion = Runtime.version().feature();
+        if (runtimeVersion < 21) {
+            log.warn("Virtual threads requested but running on Java {}; requests stay on the platform thread pool",
+                    runtimeVersion);
+            return;
+        }
+
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Virtual-thread execution enabled; reporting pinning longer than {}ms", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedEvents.increment();
+        pinnedTime.record(event.getDuration());
+        if (log.isWarnEnabled()) {
+            log.warn("Virtual thread pinned for {}ms at {}", event.getDuration().toMillis(), topFrame(event));
+        }
+    }
+
+    private String topFrame(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && !frame.getMethod().getType().getName().startsWith("java.")) {
+                return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber();
+            }
+        }
+        RecordedFrame frame = stackTrace.getFrames().get(0);
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.identity.infrastructure.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.shared.tracing.Span;
+import com.example.shared.tracing.SpanExporter;
+import com.example.shared.tracing.TraceContext;
+
+/**
+ * Keeps the current span of the request thread and starts child spans under it.
+ * Spans are opened with try-with-resources; closing a {@link Scope} ends and
+ * exports its span and makes the parent current again. When there is no
+ * sampled trace on the thread, {@link #startSpan} returns null, which
+ * try-with-resources accepts, so untraced calls cost one ThreadLocal read.
+ */
+@Component
+public class Tracer {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private final SpanExporter exporter;
+    private final double sampleRate;
+
+    public Tracer(SpanExporter exporter, @Value("${tracing.sample-rate:0.05}") double sampleRate) {
+        this.exporter = exporter;
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * Starts the request's server span, continuing {@code incoming} (the caller's
+     * traceparent) or starting a new trace. Always returns a scope, so the trace
+     * id is available even when the trace is not sampled.
+     */
+    public Scope startServerSpan(TraceContext incoming, String name) {
+        TraceContext context = incoming != null
+                ? incoming.withSpanId(TraceContext.newSpanId())
+                : TraceContext.newTrace(TraceContext.sample(sampleRate));
+        Span span = context.sampled()
+                ? new Span(context.traceId(), incoming, context.spanId(), name, "SERVER", System.nanoTime())
+                : null;
+        return open(context, span);
+    }
+
+    /** Starts a child of the current span, or returns null if the thread has no sampled trace. */
+    public Scope startSpan(String name, String kind) {
+        Scope parent = CURRENT.get();
+        if (parent == null || parent.span == null) {
+            return null;
+        }
+        TraceContext context = parent.context.withSpanId(TraceContext.newSpanId());
+        return open(context, new Span(context.traceId(), parent.context, context.spanId(), name, kind, System.nanoTime()));
+    }
+
+    /** The innermost open scope on this thread, or null. */
+    public Scope current() {
+        return CURRENT.get();
+    }
+
+    /** Exports a span that was timed by the caller (e.g. one reconstructed from timestamps). */
+    public void export(Span span) {
+        exporter.export(span);
+    }
+
+    private Scope open(TraceContext context, Span span) {
+        Scope scope = new Scope(context, span, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /** An open span and its trace context; current until closed. */
+    public final class Scope implements AutoCloseable {
+
+        private final TraceContext context;
+        private final Span span;
+        private final Scope previous;
+
+        private Scope(TraceContext context, Span span, Scope previous) {
+            this.context = context;
+            this.span = span;
+            this.previous = previous;
+        }
+
+        public TraceContext context() {
+            return context;
+        }
+
+        /** The span, or null if the trace is not sampled. */
+        public Span span() {
+            return span;
+        }
+
+        @Override
+        public void close() {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+            if (span != null) {
+                span.end();
+                exporter.export(span);
+            }
+        }
+    }
+}
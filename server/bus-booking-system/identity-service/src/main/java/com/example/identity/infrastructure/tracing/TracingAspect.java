@@ -0,0 +1,71 @@
+package com.example.identity.infrastructure.tracing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.aspectj.lang.JoinPoint;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.stereotype.Component;
+
+/**
+ * Opens a span around controller and application service methods, password
+ * hashing (queue wait plus bcrypt, usually most of a login) and every repository
+ * call (the JPA query, including Hibernate's own work), when the request is
+ * being traced. Span names are resolved once per join point.
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    private final Tracer tracer;
+    private final Map<JoinPoint.StaticPart, String> names = new ConcurrentHashMap<>();
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Pointcut("within(com.example.identity.presentation..*) || within(com.example.identity.application..*) || " +
+            "within(com.example.identity.infrastructure.security.PasswordHashingService)")
+    public void servicePointcut() {
+        // Method is empty as this is just a Pointcut definition
+    }
+
+    @Pointcut("this(com.example.identity.domain.repository.UserRepository)")
+    public void repositoryPointcut() {
+        // Method is empty as this is just a Pointcut definition
+    }
+
+    @Around("servicePointcut()")
+    public Object traceMethod(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "INTERNAL");
+    }
+
+    @Around("repositoryPointcut()")
+    public Object traceQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "CLIENT");
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String kind) throws Throwable {
+        if (tracer.current() == null) {
+            return joinPoint.proceed();
+        }
+        String name = names.computeIfAbsent(joinPoint.getStaticPart(), TracingAspect::nameOf);
+        try (Tracer.Scope scope = tracer.startSpan(name, kind)) {
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable e) {
+                if (scope != null) {
+                    scope.span().attribute("error", e.getClass().getSimpleName());
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static String nameOf(JoinPoint.StaticPart staticPart) {
+        return staticPart.getSignature().getDeclaringType().getSimpleName() + "." + staticPart.getSignature().getName();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.identity.infrastructure.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.example.shared.tracing.Span;
+import com.example.shared.tracing.TraceContext;
+
+/**
+ * Records the time between the start of the server span and the controller
+ * being invoked, i.e. the servlet filter chain (security, JWT verification), as
+ * a {@code servlet.filters} span.
+ */
+@Component
+public class TracingInterceptor implements HandlerInterceptor {
+
+    private static final String RECORDED_ATTR = TracingInterceptor.class.getName() + ".recorded";
+
+    private final Tracer tracer;
+
+    public TracingInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Tracer.Scope server = tracer.current();
+        if (server == null || server.span() == null || request.getAttribute(RECORDED_ATTR) != null) {
+            return true;
+        }
+        request.setAttribute(RECORDED_ATTR, Boolean.TRUE);
+        TraceContext context = server.context();
+        Span filters = new Span(context.traceId(), context, TraceContext.newSpanId(), "servlet.filters",
+                "INTERNAL", server.span().getStartNanos());
+        filters.end();
+        tracer.export(filters);
+        return true;
+    }
+}
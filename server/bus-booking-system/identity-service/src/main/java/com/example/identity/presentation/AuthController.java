@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import com.example.identity.application.AuthService;
 import com.example.identity.domain.model.User;
 import com.example.identity.infrastructure.security.CookieUtil;
+import com.example.identity.infrastructure.security.JwtPrincipal;
 import com.example.identity.infrastructure.security.JwtTokenProvider;
 import com.example.identity.presentation.dto.LoginRequest;
 import com.example.identity.presentation.dto.LoginResponse;
@@ -68,8 +69,9 @@ public class AuthController {
             throw new RuntimeException("No authentication token found");
         }
 
-        String email = jwtTokenProvider.getSubject(token);
-        User user = authService.getUserByEmail(email);
+        JwtPrincipal principal = jwtTokenProvider.verify(token)
+                .orElseThrow(() -> new RuntimeException("Invalid or expired authentication token"));
+        User user = authService.getUserByEmail(principal.getSubject());
 
         return ResponseEntity.ok(UserResponseDTO.fromEntity(user));
     }
@@ -102,11 +104,11 @@ public class AuthController {
             return ResponseEntity.ok(response);
         }
 
-        boolean isValid = jwtTokenProvider.validateToken(token);
-        response.put("valid", isValid);
+        JwtPrincipal principal = jwtTokenProvider.verify(token).orElse(null);
+        response.put("valid", principal != null);
 
-        if (isValid) {
-            String email = jwtTokenProvider.getSubject(token);
+        if (principal != null) {
+            String email = principal.getSubject();
             User user = authService.getUserByEmail(email);
             response.put("email", email);
             response.put("username", user.getUsername());
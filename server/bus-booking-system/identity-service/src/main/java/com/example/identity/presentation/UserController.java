@@ -0,0 +1,57 @@
+package com.example.identity.presentation;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.identity.application.UserQueryService;
+import com.example.identity.presentation.dto.UserBatchRequest;
+import com.example.identity.presentation.dto.UserBatchResponse;
+import com.example.identity.presentation.dto.UserSearchResponse;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+@Slf4j
+public class UserController {
+
+    private final UserQueryService userQueryService;
+
+    /**
+     * Admin user search by email/username substring (or prefix). Keyset-paginated:
+     * pass the returned nextCursor as {@code after} to get the next page; or, as
+     * the admin dashboard does, pass {@code page} (1-based) with {@code sortBy}.
+     * {@code email} is accepted as another name for {@code q}. {@code limit} is
+     * at most 100.
+     */
+    @GetMapping
+    public ResponseEntity<UserSearchResponse> searchUsers(
+            @RequestParam(name = "q", required = false) String query,
+            @RequestParam(name = "email", required = false) String email,
+            @RequestParam(name = "prefix", defaultValue = "false") boolean prefix,
+            @RequestParam(name = "after", required = false) Integer after,
+            @RequestParam(name = "page", required = false) Integer page,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "sortBy", required = false) String sortBy) {
+        String search = query != null && !query.isBlank() ? query : email;
+        log.info("GET /users - query='{}', after={}, page={}, sortBy={}", search, after, page, sortBy);
+        return ResponseEntity.ok(userQueryService.searchUsers(search, prefix, after, page, limit, sortBy));
+    }
+
+    /**
+     * Looks up many users by id in one call (at most 500 distinct ids). POST so
+     * a large id list does not end up in the URL.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<UserBatchResponse> findUsers(@RequestBody UserBatchRequest request) {
+        log.debug("POST /users/batch - {} ids", request.getIds() == null ? 0 : request.getIds().size());
+        return ResponseEntity.ok(userQueryService.findUsers(request.getIds()));
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.identity.presentation.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class UserBatchRequest {
+    private List<Integer> ids;
+}
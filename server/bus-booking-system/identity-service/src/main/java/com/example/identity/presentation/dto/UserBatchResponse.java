@@ -0,0 +1,19 @@
+package com.example.identity.presentation.dto;
+
+import com.example.shared.dto.UserInfo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchResponse {
+    /** Users found, in id order; ids that do not exist are left out. */
+    private List<UserInfo> users;
+}
@@ -1,6 +1,7 @@
 package com.example.identity.presentation.dto;
 
 import com.example.identity.domain.model.User;
+import com.example.identity.infrastructure.search.UserSearchIndex;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -36,4 +37,18 @@ public class UserResponseDTO {
                 .updatedAt(user.getUpdatedAt())
                 .build();
     }
+
+    public static UserResponseDTO fromIndexed(UserSearchIndex.IndexedUser user) {
+        return UserResponseDTO.builder()
+                .id(user.id())
+                .username(user.username())
+                .email(user.email())
+                .phone(user.phone())
+                .age(user.age())
+                .role(user.role())
+                .isActive(user.isActive())
+                .createdAt(user.createdAt())
+                .updatedAt(user.updatedAt())
+                .build();
+    }
 }
@@ -0,0 +1,20 @@
+package com.example.identity.presentation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSearchResponse {
+    private List<UserResponseDTO> users;
+    /** Pass as {@code after} to fetch the next page; null on the last page. */
+    private Integer nextCursor;
+    /** Estimated number of matching users (not an exact COUNT). */
+    private long estimatedTotal;
+}
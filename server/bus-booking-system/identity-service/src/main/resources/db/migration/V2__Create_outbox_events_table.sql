@@ -0,0 +1,17 @@
+-- Flyway migration V2__Create_outbox_events_table.sql
+-- Transactional outbox: events are inserted in the same transaction as the
+-- change they describe and relayed to the event transport in id order.
+-- published_at is set once the transport accepted the event; published rows
+-- are purged after outbox.relay.retention-ms.
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id VARCHAR(64) NOT NULL,
+    event_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL,
+    published_at TIMESTAMP(3) NULL,
+
+    INDEX idx_outbox_events_published (published_at, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
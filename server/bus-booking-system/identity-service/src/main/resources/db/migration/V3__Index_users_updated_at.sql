@@ -0,0 +1,5 @@
+-- Flyway migration V3__Index_users_updated_at.sql
+-- The user search index re-reads the rows updated within its overlap window
+-- every few seconds; without this index that is a full scan of users.
+
+CREATE INDEX idx_users_updated_at ON users (updated_at, id);
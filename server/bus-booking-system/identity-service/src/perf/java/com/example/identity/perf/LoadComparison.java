@@ -0,0 +1,148 @@
+package com.example.identity.perf;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-model load driver for comparing identity-service execution modes.
+ * Logs in once, then keeps {@code concurrency} clients calling GET /auth/profile
+ * (token check + one JPA query) for {@code durationSeconds} and prints throughput,
+ * latency percentiles and the service's own thread, Hikari and pinning metrics.
+ *
+ * Run it twice against the same database and Hikari pool size, once with
+ * VIRTUAL_THREADS_ENABLED=false and once with true:
+ *
+ *   ./gradlew loadComparison -PbaseUrl=http://localhost:8081 -Pemail=a@b.c -Ppassword=secret \
+ *       -Pconcurrency=400 -PdurationSeconds=30
+ */
+public final class LoadComparison {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern VALUE = Pattern.compile("\"value\"\\s*:\\s*([0-9.Ee+-]+)");
+
+    private LoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+        String email = args.length > 1 ? args[1] : "loadtest@example.com";
+        String password = args.length > 2 ? args[2] : "password";
+        int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+        int durationSeconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .build();
+
+        String token = login(client, baseUrl, email, password);
+        System.out.printf("Driving GET %s/auth/profile with %d clients for %ds%n", baseUrl, concurrency,
+                durationSeconds);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        AtomicLong errors = new AtomicLong();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            results.add(clients.submit(() -> runClient(client, baseUrl, token, deadline, errors)));
+        }
+
+        List<long[]> perClient = new ArrayList<>();
+        for (Future<long[]> result : results) {
+            perClient.add(result.get());
+        }
+        clients.shutdown();
+
+        long[] latencies = perClient.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n", latencies.length, errors.get(),
+                latencies.length / (double) durationSeconds);
+        if (latencies.length > 0) {
+            System.out.printf("latency p50=%.2fms p99=%.2fms p999=%.2fms max=%.2fms%n",
+                    percentileMs(latencies, 0.50), percentileMs(latencies, 0.99),
+                    percentileMs(latencies, 0.999), latencies[latencies.length - 1] / 1e6);
+        }
+
+        for (String metric : List.of("jvm.threads.live", "jvm.threads.peak", "hikaricp.connections.max",
+                "hikaricp.connections.pending", "threads.virtual.pinned")) {
+            System.out.printf("%s=%s%n", metric, fetchMetric(client, baseUrl, token, metric));
+        }
+        System.exit(0);
+    }
+
+    private static long[] runClient(HttpClient client, String baseUrl, String token, long deadline,
+            AtomicLong errors) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/profile"))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+        long[] samples = new long[1024];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+                continue;
+            }
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = System.nanoTime() - start;
+        }
+        return Arrays.copyOf(samples, count);
+    }
+
+    private static String login(HttpClient client, String baseUrl, String email, String password)
+            throws Exception {
+        String body = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Login failed with status " + response.statusCode() + ": "
+                    + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static String fetchMetric(HttpClient client, String baseUrl, String token, String name) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/" + name))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            Matcher matcher = VALUE.matcher(response.body());
+            return response.statusCode() == 200 && matcher.find() ? matcher.group(1) : "n/a";
+        } catch (Exception e) {
+            return "n/a";
+        }
+    }
+
+    private static double percentileMs(long[] sortedNanos, double percentile) {
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1e6;
+    }
+}
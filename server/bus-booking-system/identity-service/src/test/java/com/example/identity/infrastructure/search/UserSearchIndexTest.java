@@ -0,0 +1,210 @@
+package com.example.identity.infrastructure.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.example.identity.domain.model.UserSummary;
+import com.example.identity.domain.repository.UserRepository;
+import com.example.identity.infrastructure.search.UserSearchIndex.IndexedUser;
+import com.example.identity.infrastructure.search.UserSearchIndex.SearchResult;
+import com.example.identity.infrastructure.search.UserSearchIndex.SortOrder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserSearchIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    /** The users table, by id. */
+    private final NavigableMap<Integer, Row> table = new TreeMap<>();
+    private final UserRepository userRepository = mock(UserRepository.class);
+    // Batches of two, so rebuild and refresh have to page through the table
+    private final UserSearchIndex index = new UserSearchIndex(userRepository, 2, 60_000, new SimpleMeterRegistry());
+
+    @BeforeEach
+    void setUp() {
+        when(userRepository.findSummariesAfterId(anyInt(), any())).thenAnswer(invocation -> page(
+                table.tailMap(invocation.getArgument(0), false).values().stream().toList(),
+                invocation.getArgument(1)));
+        when(userRepository.findSummariesUpdatedSince(any(), anyInt(), any())).thenAnswer(invocation -> {
+            LocalDateTime since = invocation.getArgument(0);
+            return page(table.tailMap(invocation.getArgument(1), false).values().stream()
+                    .filter(row -> !row.updatedAt().isBefore(since))
+                    .toList(), invocation.getArgument(2));
+        });
+
+        put(1, "alice", "alice@example.com", T0);
+        put(2, "bob", "bob@mail.org", T0);
+        put(3, "carol", "carol@example.com", T0);
+        put(4, "dave", "dave@example.com", T0);
+        put(5, "Eve.Example", "eve@mail.org", T0);
+        index.rebuild();
+    }
+
+    @Test
+    void findsSubstringsOfEmailOrUsernameIgnoringCase() {
+        SearchResult result = index.search("EXAMPLE", false, null, 0, 10, SortOrder.ID_ASC);
+
+        assertThat(ids(result)).containsExactly(1, 3, 4, 5);
+        assertThat(result.nextCursor()).isNull();
+        assertThat(result.estimatedTotal()).isEqualTo(4);
+    }
+
+    @Test
+    void unknownTrigramMatchesNothing() {
+        SearchResult result = index.search("xyz", false, null, 0, 10, SortOrder.ID_ASC);
+
+        assertThat(result.users()).isEmpty();
+        assertThat(result.estimatedTotal()).isZero();
+    }
+
+    @Test
+    void candidatesSharingEveryTrigramAreStillVerified() {
+        put(6, "abcdbc", "abcdbc@example.com", T0);
+        index.rebuild();
+
+        // "abcdbc" holds both trigrams of "dbcd" ("dbc", "bcd") but not the string itself
+        assertThat(ids(index.search("dbcd", false, null, 0, 10, SortOrder.ID_ASC))).isEmpty();
+        assertThat(ids(index.search("bcdb", false, null, 0, 10, SortOrder.ID_ASC))).containsExactly(6);
+    }
+
+    @Test
+    void shortQueriesScanEveryDocument() {
+        assertThat(ids(index.search("ca", false, null, 0, 10, SortOrder.ID_ASC))).containsExactly(3);
+        assertThat(ids(index.search("", false, null, 0, 10, SortOrder.ID_ASC))).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void prefixMatchesOnlyTheStartOfEmailOrUsername() {
+        assertThat(ids(index.search("eve", true, null, 0, 10, SortOrder.ID_ASC))).containsExactly(5);
+        assertThat(ids(index.search("example", true, null, 0, 10, SortOrder.ID_ASC))).isEmpty();
+    }
+
+    @Test
+    void pagesByKeysetInIdOrder() {
+        SearchResult first = index.search("example", false, null, 0, 2, SortOrder.ID_ASC);
+        assertThat(ids(first)).containsExactly(1, 3);
+        assertThat(first.nextCursor()).isEqualTo(3);
+
+        SearchResult second = index.search("example", false, first.nextCursor(), 0, 2, SortOrder.ID_ASC);
+        assertThat(ids(second)).containsExactly(4, 5);
+        assertThat(second.nextCursor()).isNull();
+    }
+
+    @Test
+    void pagesByKeysetInDescendingIdOrder() {
+        SearchResult first = index.search("example", false, null, 0, 2, SortOrder.ID_DESC);
+        assertThat(ids(first)).containsExactly(5, 4);
+
+        SearchResult second = index.search("example", false, first.nextCursor(), 0, 2, SortOrder.ID_DESC);
+        assertThat(ids(second)).containsExactly(3, 1);
+    }
+
+    @Test
+    void sortsByEmailWithOffsetPaging() {
+        assertThat(ids(index.search("", false, null, 0, 10, SortOrder.EMAIL_ASC))).containsExactly(1, 2, 3, 4, 5);
+        assertThat(ids(index.search("mail.org", false, null, 0, 10, SortOrder.EMAIL_DESC))).containsExactly(5, 2);
+
+        SearchResult page = index.search("example", false, 3, 1, 2, SortOrder.EMAIL_ASC);
+        // The cursor only applies to id orders; email orders skip by offset
+        assertThat(ids(page)).containsExactly(3, 4);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void refreshReindexesChangedRowsAndDropsTheirOldTrigrams() {
+        put(2, "bob", "bob@example.com", T0.plusMinutes(5));
+        put(6, "frank", "frank@example.com", T0.plusMinutes(5));
+
+        index.refresh();
+
+        assertThat(ids(index.search("example.com", false, null, 0, 10, SortOrder.ID_ASC)))
+                .containsExactly(1, 2, 3, 4, 6);
+        assertThat(ids(index.search("mail.org", false, null, 0, 10, SortOrder.ID_ASC))).containsExactly(5);
+        assertThat(ids(index.search("b", false, null, 0, 10, SortOrder.EMAIL_ASC))).containsExactly(2);
+    }
+
+    @Test
+    void refreshPicksUpRowsCommittedBehindTheWatermark() {
+        put(1, "alice", "alice@example.com", T0.plusMinutes(5));
+        index.refresh();
+
+        // Committed after the refresh above, but stamped before its newest row
+        put(7, "grace", "grace@late.net", T0.plusMinutes(4));
+        index.refresh();
+
+        assertThat(ids(index.search("late.net", false, null, 0, 10, SortOrder.ID_ASC))).containsExactly(7);
+    }
+
+    private void put(int id, String username, String email, LocalDateTime updatedAt) {
+        table.put(id, new Row(id, username, email, updatedAt));
+    }
+
+    private static List<UserSummary> page(List<Row> rows, Pageable pageable) {
+        return List.copyOf(rows.subList(0, Math.min(rows.size(), pageable.getPageSize())));
+    }
+
+    private static List<Integer> ids(SearchResult result) {
+        return result.users().stream().map(IndexedUser::id).toList();
+    }
+
+    private record Row(Integer id, String username, String email, LocalDateTime updatedAt) implements UserSummary {
+
+        @Override
+        public Integer getId() {
+            return id;
+        }
+
+        @Override
+        public String getUsername() {
+            return username;
+        }
+
+        @Override
+        public String getEmail() {
+            return email;
+        }
+
+        @Override
+        public String getPhone() {
+            return null;
+        }
+
+        @Override
+        public Integer getAge() {
+            return null;
+        }
+
+        @Override
+        public String getRole() {
+            return "user";
+        }
+
+        @Override
+        public Integer getIsActive() {
+            return 1;
+        }
+
+        @Override
+        public LocalDateTime getCreatedAt() {
+            return T0;
+        }
+
+        @Override
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+    }
+}
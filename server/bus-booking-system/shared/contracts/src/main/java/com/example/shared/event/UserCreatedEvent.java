@@ -8,8 +8,8 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 /**
- * Event published when a user is created.
- * Can be used for service communication via message broker in the future.
+ * Event published when a user is created. identity-service writes it to its
+ * outbox in the registration transaction and relays it to the "user" topic.
  */
 @Data
 @Builder
@@ -0,0 +1,21 @@
+package com.example.shared.idempotency;
+
+/**
+ * Optional second level behind {@link IdempotencyStore}: keeps completed
+ * responses across restarts, e.g. in a database table. Only consulted when a
+ * key is not in memory.
+ */
+public interface DurableIdempotencyStore {
+
+    /** Fingerprint and response stored for the key and not yet expired, or null. */
+    Completed find(String key);
+
+    /**
+     * Stores the response for the key. An expired entry still stored for the
+     * key (not purged yet) is replaced; a live one is kept.
+     */
+    void save(String key, String fingerprint, StoredResponse response, long expiresAtMs);
+
+    record Completed(String fingerprint, StoredResponse response) {
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.shared.idempotency;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Bounded in-memory store of idempotency keys. The first request with a key
+ * claims it and executes; its response is kept for ttl-ms and replayed to every
+ * retry with the same fingerprint. A duplicate arriving while the first is
+ * still running waits for its result instead of executing again. A key reused
+ * with a different fingerprint is reported as a mismatch.
+ *
+ * <p>Keys are evicted oldest first, once expired or when there are more than
+ * max-entries. All keys share one TTL, so insertion order is expiry order and
+ * eviction is a walk from the head of a queue. The size limit never drops a
+ * key whose first request is still running, since a retry would then execute
+ * a second time; with many requests in flight the store can briefly hold more
+ * than max-entries keys. With a
+ * {@link DurableIdempotencyStore}, completed responses are also saved there and
+ * keys missing from memory are looked up there before executing.
+ */
+public final class IdempotencyStore {
+
+    /** Outcome of {@link #claim}. */
+    public sealed interface Claim permits Execute, Replay, Mismatch, InProgress {
+    }
+
+    /** The caller owns the key: execute, then {@link #complete} or {@link #abandon}. */
+    public static final class Execute implements Claim {
+        private final IdempotencyStore store;
+        private final String key;
+        private final Entry entry;
+
+        private Execute(IdempotencyStore store, String key, Entry entry) {
+            this.store = store;
+            this.key = key;
+            this.entry = entry;
+        }
+
+        /** Records the response for retries and wakes waiting duplicates. */
+        public void complete(StoredResponse response) {
+            entry.result.complete(response);
+            if (store.durable != null) {
+                store.durable.save(key, entry.fingerprint, response, entry.expiresAtMs);
+            }
+        }
+
+        /** Forgets the key, so the next retry executes again. */
+        public void abandon() {
+            store.entries.remove(key, entry);
+            entry.result.complete(null);
+        }
+    }
+
+    /** A response recorded for the same request. */
+    public record Replay(StoredResponse response) implements Claim {
+    }
+
+    /** The key was first used for a different request. */
+    public record Mismatch() implements Claim {
+    }
+
+    /** The first request is still running after the wait. */
+    public record InProgress() implements Claim {
+    }
+
+    private final long ttlMs;
+    private final int maxEntries;
+    private final DurableIdempotencyStore durable;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Expiry> order = new ConcurrentLinkedQueue<>();
+
+    public IdempotencyStore(long ttlMs, int maxEntries, DurableIdempotencyStore durable) {
+        if (ttlMs <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("ttlMs and maxEntries must be positive");
+        }
+        this.ttlMs = ttlMs;
+        this.maxEntries = maxEntries;
+        this.durable = durable;
+    }
+
+    /**
+     * Claims {@code key} for a request with the given fingerprint, waiting up
+     * to {@code waitMs} for a concurrent request with the same key to finish.
+     */
+    public Claim claim(String key, String fingerprint, long waitMs) throws InterruptedException {
+        long deadlineMs = System.currentTimeMillis() + waitMs;
+        while (true) {
+            long nowMs = System.currentTimeMillis();
+            Entry fresh = new Entry(fingerprint, nowMs + ttlMs);
+            Entry existing = entries.putIfAbsent(key, fresh);
+            if (existing == null) {
+                order.add(new Expiry(key, fresh));
+                evict(nowMs);
+                Claim loaded = loadDurable(key, fingerprint, fresh);
+                return loaded != null ? loaded : new Execute(this, key, fresh);
+            }
+            if (existing.expiresAtMs <= nowMs) {
+                entries.remove(key, existing);
+                continue;
+            }
+            if (!existing.fingerprint.equals(fingerprint)) {
+                return new Mismatch();
+            }
+
+            StoredResponse response;
+            try {
+                response = existing.result.get(Math.max(0, deadlineMs - nowMs), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                return new InProgress();
+            } catch (ExecutionException e) {
+                response = null;
+            }
+            if (response != null) {
+                return new Replay(response);
+            }
+            // Abandoned by its owner: the key is free again
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Looks a key just claimed in memory up in the durable store. A hit
+     * replaces the claim with the stored result, which waiting duplicates then
+     * see as well.
+     */
+    private Claim loadDurable(String key, String fingerprint, Entry fresh) {
+        if (durable == null) {
+            return null;
+        }
+        DurableIdempotencyStore.Completed completed;
+        try {
+            completed = durable.find(key);
+        } catch (RuntimeException e) {
+            entries.remove(key, fresh);
+            fresh.result.complete(null);
+            throw e;
+        }
+        if (completed == null) {
+            return null;
+        }
+        Entry loaded = new Entry(completed.fingerprint(), fresh.expiresAtMs);
+        loaded.result.complete(completed.response());
+        entries.replace(key, fresh, loaded);
+        order.add(new Expiry(key, loaded));
+        fresh.result.complete(null);
+        return completed.fingerprint().equals(fingerprint) ? new Replay(completed.response()) : new Mismatch();
+    }
+
+    private void evict(long nowMs) {
+        Iterator<Expiry> it = order.iterator();
+        while (it.hasNext()) {
+            Expiry oldest = it.next();
+            boolean expired = oldest.entry.expiresAtMs <= nowMs;
+            if (!expired && entries.size() <= maxEntries) {
+                return;
+            }
+            if (!expired && !oldest.entry.result.isDone()) {
+                continue;
+            }
+            if (order.remove(oldest)) {
+                entries.remove(oldest.key, oldest.entry);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final long expiresAtMs;
+        /** Completed with the response, or with null when the owner gave up. */
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        private Entry(String fingerprint, long expiresAtMs) {
+            this.fingerprint = fingerprint;
+            this.expiresAtMs = expiresAtMs;
+        }
+    }
+
+    private record Expiry(String key, Entry entry) {
+    }
+}
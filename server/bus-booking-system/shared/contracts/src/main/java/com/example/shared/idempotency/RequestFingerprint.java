@@ -0,0 +1,34 @@
+package com.example.shared.idempotency;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 over method, path (with query) and body. A retry must carry the same
+ * fingerprint as the request that first used its idempotency key; a different
+ * one means the key was reused for another request.
+ */
+public final class RequestFingerprint {
+
+    private RequestFingerprint() {
+    }
+
+    public static String of(String method, String pathAndQuery, byte[] body) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        digest.update(method.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ' ');
+        digest.update(pathAndQuery.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        if (body != null) {
+            digest.update(body);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
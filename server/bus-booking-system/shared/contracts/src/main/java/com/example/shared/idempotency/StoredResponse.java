@@ -0,0 +1,8 @@
+package com.example.shared.idempotency;
+
+/**
+ * Response recorded for an idempotency key and replayed to retries of the same
+ * request: status, content type and body, which is all a JSON API needs.
+ */
+public record StoredResponse(int status, String contentType, byte[] body) {
+}
@@ -0,0 +1,47 @@
+package com.example.shared.logging;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+
+/**
+ * Logback AsyncAppender that counts the events it drops.
+ * Configured with neverBlock=true it never blocks the logging thread: events at
+ * INFO and below are discarded once the ring buffer passes the discarding
+ * threshold, and any event is discarded when the buffer is full. Drop counts are
+ * kept per appender name (stable across logback rescans) and published as the
+ * "logging.events.dropped" metric by {@link LoggingMetrics}.
+ */
+public class DroppingAsyncAppender extends AsyncAppender {
+
+    private static final Map<String, LongAdder> DROPPED = new ConcurrentHashMap<>();
+
+    private LongAdder dropped;
+
+    @Override
+    public void start() {
+        dropped = DROPPED.computeIfAbsent(getName(), name -> new LongAdder());
+        super.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (isQueueBelowDiscardingThreshold() && isDiscardable(event)) {
+            dropped.increment();
+            return;
+        }
+        if (isNeverBlock() && getRemainingCapacity() == 0) {
+            // offer() would fail silently; count it instead
+            dropped.increment();
+            return;
+        }
+        super.append(event);
+    }
+
+    public static Map<String, LongAdder> droppedCounts() {
+        return DROPPED;
+    }
+}
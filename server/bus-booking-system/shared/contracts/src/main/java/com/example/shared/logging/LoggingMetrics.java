@@ -0,0 +1,24 @@
+package com.example.shared.logging;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the drop counters of every {@link DroppingAsyncAppender} as
+ * "logging.events.dropped", tagged by appender. Register it as a bean; Spring
+ * Boot binds MeterBinder beans to the registry. Logback starts before the
+ * application context, so appenders are already registered by then.
+ */
+public class LoggingMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        DroppingAsyncAppender.droppedCounts().forEach((appender, dropped) -> FunctionCounter
+                .builder("logging.events.dropped", dropped, LongAdder::sum)
+                .tag("appender", appender)
+                .register(meterRegistry));
+    }
+}
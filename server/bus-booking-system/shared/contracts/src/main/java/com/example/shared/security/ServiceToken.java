@@ -0,0 +1,80 @@
+package com.example.shared.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Base64;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Service-to-service credential, sent as
+ * {@code Authorization: Service <name>.<expiresEpochSeconds>.<signature>} with
+ * signature = base64url(HMAC-SHA256(secret, service|name|expiresEpochSeconds)).
+ * The secret (services.auth.secret) is shared by the services only, so a caller
+ * holding it can use internal endpoints such as identity-service
+ * {@code POST /users/batch} without a user's token, and the receiver checks
+ * one HMAC. Like the gateway's identity headers, but signed by the caller.
+ */
+public final class ServiceToken {
+
+    public static final String SCHEME = "Service ";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+
+    public ServiceToken(String secret) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("secret must not be empty");
+        }
+        this.key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /** Authorization header value for {@code service}, valid for {@code ttl}. */
+    public String authorization(String service, Duration ttl) {
+        if (service == null || service.isEmpty() || service.indexOf('.') >= 0) {
+            throw new IllegalArgumentException("service must be a non-empty name without dots");
+        }
+        long expiresEpochSeconds = System.currentTimeMillis() / 1000 + ttl.toSeconds();
+        return SCHEME + service + '.' + expiresEpochSeconds + '.' + sign(service, expiresEpochSeconds);
+    }
+
+    /** Name of the calling service if the header value is valid and unexpired, else null. */
+    public String verify(String authorization) {
+        if (authorization == null || !authorization.startsWith(SCHEME)) {
+            return null;
+        }
+        String[] parts = authorization.substring(SCHEME.length()).split("\\.", -1);
+        if (parts.length != 3 || parts[0].isEmpty()) {
+            return null;
+        }
+        long expiresEpochSeconds;
+        byte[] actual;
+        try {
+            expiresEpochSeconds = Long.parseLong(parts[1]);
+            actual = Base64.getUrlDecoder().decode(parts[2]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (expiresEpochSeconds * 1000 < System.currentTimeMillis()) {
+            return null;
+        }
+        byte[] expected = Base64.getUrlDecoder().decode(sign(parts[0], expiresEpochSeconds));
+        return MessageDigest.isEqual(expected, actual) ? parts[0] : null;
+    }
+
+    private String sign(String service, long expiresEpochSeconds) {
+        String payload = "service|" + service + '|' + expiresEpochSeconds;
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            byte[] signature = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
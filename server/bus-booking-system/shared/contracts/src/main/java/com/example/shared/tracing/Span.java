@@ -0,0 +1,106 @@
+package com.example.shared.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One timed operation of a trace. Start and end use {@link System#nanoTime()};
+ * the wall-clock start is only used to place the span on a timeline.
+ */
+public final class Span {
+
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final String name;
+    private final String kind;
+    private final long startEpochMicros;
+    private final long startNanos;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private long durationNanos = -1;
+
+    /**
+     * @param parent     the caller's context, or null for the root span of a trace
+     * @param startNanos when the operation started, on the {@link System#nanoTime()} clock
+     */
+    public Span(String traceId, TraceContext parent, String spanId, String name, String kind, long startNanos) {
+        this.traceId = traceId;
+        this.parentSpanId = parent != null ? parent.spanId() : null;
+        this.spanId = spanId;
+        this.name = name;
+        this.kind = kind;
+        this.startNanos = startNanos;
+        this.startEpochMicros = System.currentTimeMillis() * 1000 - (System.nanoTime() - startNanos) / 1000;
+    }
+
+    public Span attribute(String key, Object value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    public void end() {
+        end(System.nanoTime());
+    }
+
+    public void end(long endNanos) {
+        if (durationNanos < 0) {
+            durationNanos = endNanos - startNanos;
+        }
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /** One JSON line in an OTLP-like shape. */
+    String toJson(String service) {
+        StringBuilder json = new StringBuilder(256)
+                .append("{\"traceId\":\"").append(traceId)
+                .append("\",\"spanId\":\"").append(spanId).append('"');
+        if (parentSpanId != null) {
+            json.append(",\"parentSpanId\":\"").append(parentSpanId).append('"');
+        }
+        json.append(",\"service\":\"").append(service)
+                .append("\",\"name\":\"").append(name)
+                .append("\",\"kind\":\"").append(kind)
+                .append("\",\"startEpochMicros\":").append(startEpochMicros)
+                .append(",\"durationMicros\":").append(durationNanos / 1000)
+                .append(",\"attributes\":{");
+        boolean first = true;
+        for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append('"').append(attribute.getKey()).append("\":");
+            Object value = attribute.getValue();
+            if (value instanceof Number || value instanceof Boolean) {
+                json.append(value);
+            } else {
+                appendString(json, value.toString());
+            }
+        }
+        return json.append("}}").toString();
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.shared.tracing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Writes finished spans as JSON lines to a file ({@code tracing.export.file} in
+ * the services), a local stand-in for an OTLP collector. Request threads only
+ * enqueue into a bounded queue; a background thread does the I/O. When the queue
+ * is full spans are dropped (counted in {@code tracing.spans.dropped}) rather than
+ * slowing requests. The file is rolled to {@code <file>.1} once it exceeds
+ * {@code maxFileBytes}. Each service declares one as a bean; {@link #close()}
+ * flushes what is queued.
+ */
+public class SpanExporter implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SpanExporter.class);
+
+    private final String service;
+    private final Path file;
+    private final long maxFileBytes;
+    private final BlockingQueue<Span> queue;
+    private final Counter exported;
+    private final Counter dropped;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public SpanExporter(String service, String file, long maxFileBytes, int queueCapacity,
+            MeterRegistry meterRegistry) {
+        this.service = service;
+        this.file = Path.of(file);
+        this.maxFileBytes = maxFileBytes;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.exported = meterRegistry.counter("tracing.spans.exported");
+        this.dropped = meterRegistry.counter("tracing.spans.dropped");
+        Gauge.builder("tracing.spans.queued", queue, BlockingQueue::size).register(meterRegistry);
+        this.writer = new Thread(this::run, "span-exporter");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void export(Span span) {
+        if (!queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(2000);
+    }
+
+    private void run() {
+        List<Span> batch = new ArrayList<>(256);
+        while (running || !queue.isEmpty()) {
+            try {
+                Span first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, 255);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                dropped.increment(batch.size());
+                log.warn("Could not write spans to {}: {}", file, e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Span> batch) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        if (Files.exists(file) && Files.size(file) > maxFileBytes) {
+            Files.move(file, file.resolveSibling(file.getFileName() + ".1"), StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (Span span : batch) {
+                out.write(span.toJson(service));
+                out.newLine();
+            }
+        }
+        exported.increment(batch.size());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.shared.tracing;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * W3C trace context ({@code traceparent: 00-<trace id>-<parent span id>-<flags>}).
+ * Ids come from {@link ThreadLocalRandom}: unique enough to join spans, and far
+ * cheaper than {@code UUID.randomUUID()}, which draws on SecureRandom.
+ */
+public record TraceContext(String traceId, String spanId, boolean sampled) {
+
+    public static final String HEADER = "traceparent";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** A new trace with a new root span. */
+    public static TraceContext newTrace(boolean sampled) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new TraceContext(hex(nonZero(random), random.nextLong()), newSpanId(), sampled);
+    }
+
+    /** Parses a traceparent header; null if it is absent or malformed. */
+    public static TraceContext parse(String traceparent) {
+        if (traceparent == null || traceparent.length() < 55 || traceparent.charAt(2) != '-'
+                || traceparent.charAt(35) != '-' || traceparent.charAt(52) != '-'
+                || traceparent.startsWith("ff")) {
+            return null;
+        }
+        String traceId = traceparent.substring(3, 35);
+        String spanId = traceparent.substring(36, 52);
+        String flags = traceparent.substring(53, 55);
+        if (!isHex(traceId) || !isHex(spanId) || !isHex(flags)
+                || isZero(traceId) || isZero(spanId)) {
+            return null;
+        }
+        return new TraceContext(traceId, spanId, (Integer.parseInt(flags, 16) & 1) == 1);
+    }
+
+    /**
+     * Head sampling decision for a new trace: true with probability
+     * {@code sampleRate} (0 never, 1 or more always).
+     */
+    public static boolean sample(double sampleRate) {
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    public static String newSpanId() {
+        return hex(nonZero(ThreadLocalRandom.current()));
+    }
+
+    /** The same trace, continued by another span. */
+    public TraceContext withSpanId(String newSpanId) {
+        return new TraceContext(traceId, newSpanId, sampled);
+    }
+
+    public String toTraceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    private static long nonZero(ThreadLocalRandom random) {
+        long value;
+        do {
+            value = random.nextLong();
+        } while (value == 0);
+        return value;
+    }
+
+    private static String hex(long... values) {
+        char[] chars = new char[values.length * 16];
+        int i = 0;
+        for (long value : values) {
+            for (int shift = 60; shift >= 0; shift -= 4) {
+                chars[i++] = HEX[(int) (value >>> shift) & 0xf];
+            }
+        }
+        return new String(chars);
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isZero(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.shared.userinfo;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import com.example.shared.dto.UserInfo;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Calls identity-service {@code POST /users/batch} with {@code {"ids": [...]}}.
+ * The endpoint takes an admin token or a service credential, so
+ * {@code authorization} supplies the header value, normally a fresh
+ * {@link com.example.shared.security.ServiceToken}:
+ * {@code () -> serviceToken.authorization("booking-service", Duration.ofMinutes(5))}.
+ */
+public final class HttpUserInfoFetcher implements UserInfoBatchFetcher {
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI batchUri;
+    private final Duration timeout;
+    private final Supplier<String> authorization;
+
+    public HttpUserInfoFetcher(HttpClient httpClient, ObjectMapper objectMapper, String identityServiceUrl,
+            Duration timeout, Supplier<String> authorization) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.batchUri = URI.create(identityServiceUrl.replaceAll("/+$", "") + "/users/batch");
+        this.timeout = timeout;
+        this.authorization = authorization;
+    }
+
+    @Override
+    public List<UserInfo> fetch(Set<Integer> ids) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(batchUri)
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(Map.of("ids", ids))));
+        String auth = authorization == null ? null : authorization.get();
+        if (auth != null) {
+            request.header("Authorization", auth);
+        }
+
+        HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IOException("User batch lookup failed with HTTP " + response.statusCode());
+        }
+        JsonNode users = objectMapper.readTree(response.body()).path("users");
+        return objectMapper.convertValue(users,
+                objectMapper.getTypeFactory().constructCollectionType(List.class, UserInfo.class));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.shared.userinfo;
+
+import java.util.List;
+import java.util.Set;
+
+import com.example.shared.dto.UserInfo;
+
+/**
+ * One round trip to identity-service for a set of user ids, used by
+ * {@link UserInfoLoader}. {@link HttpUserInfoFetcher} calls
+ * {@code POST /users/batch}.
+ */
+@FunctionalInterface
+public interface UserInfoBatchFetcher {
+
+    /** The users that exist among {@code ids}; missing ids are left out. */
+    List<UserInfo> fetch(Set<Integer> ids) throws Exception;
+}
@@ -0,0 +1,271 @@
+package com.example.shared.userinfo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.shared.dto.UserInfo;
+
+/**
+ * Client-side batching loader for user info. Lookups that miss the near cache
+ * are queued; the queue is sent as one {@link UserInfoBatchFetcher} call once
+ * batch-window-ms has passed since the first queued id, or as soon as it holds
+ * max-batch-size ids, or when {@link #flush()} is called. A lookup for an id
+ * already queued or in flight shares that request, so rendering 100 tickets
+ * costs one round trip and each distinct user is fetched once.
+ *
+ * <p>Results, including "no such user", are kept in a bounded near cache for
+ * cache-ttl-ms; keep the TTL short enough that a renamed user shows up soon
+ * enough, or call {@link #invalidate}. Failed fetches fail their futures and
+ * are not cached. All entries share one TTL, so insertion order is expiry
+ * order and eviction walks a queue from the head, as in the idempotency store.
+ */
+public final class UserInfoLoader implements AutoCloseable {
+
+    private final UserInfoBatchFetcher fetcher;
+    private final Executor fetchExecutor;
+    private final long batchWindowMs;
+    private final int maxBatchSize;
+    private final long cacheTtlMs;
+    private final int cacheMaxEntries;
+
+    private final Map<Integer, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final Queue<CacheEntry> cacheOrder = new ConcurrentLinkedQueue<>();
+    /** Ids queued or being fetched, each with the future every caller shares. */
+    private final Map<Integer, CompletableFuture<UserInfo>> inFlight = new ConcurrentHashMap<>();
+
+    private final Object queueLock = new Object();
+    private List<Integer> queued = new ArrayList<>();
+    private ScheduledFuture<?> scheduledFlush;
+    private final ScheduledExecutorService timer;
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    /**
+     * @param fetchExecutor runs the (blocking) fetches, so a slow call never
+     *                      holds back the next batch window
+     */
+    public UserInfoLoader(UserInfoBatchFetcher fetcher, Executor fetchExecutor, long batchWindowMs,
+            int maxBatchSize, long cacheTtlMs, int cacheMaxEntries) {
+        if (batchWindowMs < 0 || maxBatchSize <= 0 || cacheTtlMs <= 0 || cacheMaxEntries <= 0) {
+            throw new IllegalArgumentException(
+                    "batchWindowMs must not be negative; maxBatchSize, cacheTtlMs and cacheMaxEntries must be positive");
+        }
+        this.fetcher = fetcher;
+        this.fetchExecutor = fetchExecutor;
+        this.batchWindowMs = batchWindowMs;
+        this.maxBatchSize = maxBatchSize;
+        this.cacheTtlMs = cacheTtlMs;
+        this.cacheMaxEntries = cacheMaxEntries;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-info-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /** The user, or null if there is no user with this id. */
+    public CompletableFuture<UserInfo> load(int id) {
+        List<Integer> toQueue = new ArrayList<>(1);
+        CompletableFuture<UserInfo> result = lookup(id, toQueue);
+        if (!toQueue.isEmpty()) {
+            enqueue(toQueue, false);
+        }
+        return result;
+    }
+
+    /**
+     * Loads all ids, sending the ones not cached or in flight right away
+     * (together with anything else queued) instead of waiting out the batch
+     * window, since the caller already knows the whole set. Ids with no user
+     * are left out of the map.
+     */
+    public CompletableFuture<Map<Integer, UserInfo>> loadMany(Collection<Integer> ids) {
+        Map<Integer, CompletableFuture<UserInfo>> futures = new HashMap<>();
+        List<Integer> toQueue = new ArrayList<>();
+        for (Integer id : ids) {
+            if (id != null && !futures.containsKey(id)) {
+                futures.put(id, lookup(id, toQueue));
+            }
+        }
+        enqueue(toQueue, true);
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            Map<Integer, UserInfo> users = new HashMap<>();
+            futures.forEach((id, future) -> {
+                UserInfo user = future.join();
+                if (user != null) {
+                    users.put(id, user);
+                }
+            });
+            return users;
+        });
+    }
+
+    /** Sends the queued ids now instead of at the end of the batch window. */
+    public void flush() {
+        List<Integer> batch;
+        synchronized (queueLock) {
+            batch = takeQueued();
+        }
+        dispatch(batch);
+    }
+
+    /** Drops the cached entry, e.g. after a user-updated event. */
+    public void invalidate(int id) {
+        cache.remove(id);
+    }
+
+    public long cacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long cacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    /** Number of fetcher calls made. */
+    public long batches() {
+        return batches.sum();
+    }
+
+    public int cacheSize() {
+        return cache.size();
+    }
+
+    /** Sends what is still queued and stops the batch timer. */
+    @Override
+    public void close() {
+        flush();
+        timer.shutdownNow();
+    }
+
+    /**
+     * Cached or in-flight future for the id; otherwise registers a new future
+     * and adds the id to {@code toQueue} for the caller to enqueue.
+     */
+    private CompletableFuture<UserInfo> lookup(int id, List<Integer> toQueue) {
+        CacheEntry cached = cache.get(id);
+        if (cached != null && cached.expiresAtMs > System.currentTimeMillis()) {
+            cacheHits.increment();
+            return CompletableFuture.completedFuture(cached.user);
+        }
+        cacheMisses.increment();
+
+        CompletableFuture<UserInfo> created = new CompletableFuture<>();
+        CompletableFuture<UserInfo> existing = inFlight.putIfAbsent(id, created);
+        if (existing != null) {
+            return existing;
+        }
+        toQueue.add(id);
+        return created;
+    }
+
+    private void enqueue(List<Integer> ids, boolean sendNow) {
+        List<Integer> batch = List.of();
+        synchronized (queueLock) {
+            boolean wasEmpty = queued.isEmpty();
+            queued.addAll(ids);
+            if (sendNow || queued.size() >= maxBatchSize) {
+                batch = takeQueued();
+            } else if (wasEmpty && !queued.isEmpty()) {
+                scheduledFlush = timer.schedule(this::flush, batchWindowMs, TimeUnit.MILLISECONDS);
+            }
+        }
+        dispatch(batch);
+    }
+
+    /** Caller holds queueLock. */
+    private List<Integer> takeQueued() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (queued.isEmpty()) {
+            return List.of();
+        }
+        List<Integer> batch = queued;
+        queued = new ArrayList<>();
+        return batch;
+    }
+
+    /** Sends the ids in fetcher calls of at most max-batch-size ids each. */
+    private void dispatch(List<Integer> batch) {
+        for (int from = 0; from < batch.size(); from += maxBatchSize) {
+            Set<Integer> ids = new LinkedHashSet<>(batch.subList(from, Math.min(batch.size(), from + maxBatchSize)));
+            batches.increment();
+            try {
+                fetchExecutor.execute(() -> fetch(ids));
+            } catch (RejectedExecutionException e) {
+                fail(ids, e);
+            }
+        }
+    }
+
+    private void fetch(Set<Integer> ids) {
+        Map<Integer, UserInfo> found = new HashMap<>();
+        try {
+            for (UserInfo user : fetcher.fetch(ids)) {
+                found.put(user.getId(), user);
+            }
+        } catch (Exception e) {
+            fail(ids, e);
+            return;
+        }
+        for (Integer id : ids) {
+            UserInfo user = found.get(id);
+            // Cache before leaving inFlight, so a concurrent load sees one or the other
+            putCached(id, user);
+            CompletableFuture<UserInfo> future = inFlight.remove(id);
+            if (future != null) {
+                future.complete(user);
+            }
+        }
+    }
+
+    private void fail(Set<Integer> ids, Exception cause) {
+        for (Integer id : ids) {
+            CompletableFuture<UserInfo> future = inFlight.remove(id);
+            if (future != null) {
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    private void putCached(int id, UserInfo user) {
+        long nowMs = System.currentTimeMillis();
+        CacheEntry entry = new CacheEntry(id, user, nowMs + cacheTtlMs);
+        cache.put(id, entry);
+        cacheOrder.add(entry);
+
+        CacheEntry head;
+        while ((head = cacheOrder.peek()) != null) {
+            if (head.expiresAtMs > nowMs && cache.size() <= cacheMaxEntries) {
+                return;
+            }
+            if (cacheOrder.remove(head)) {
+                cache.remove(head.id, head);
+            }
+        }
+    }
+
+    /** A cached lookup result; {@code user} is null for an id with no user. */
+    private record CacheEntry(int id, UserInfo user, long expiresAtMs) {
+    }
+}